@@ -0,0 +1,245 @@
+package com.example.breakoutgame;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BrickLayer {
+    /*
+        Note: The bricks never move, they only disappear. So instead of drawing every brick in every
+              frame, the whole wall is drawn once into an offscreen bitmap, and each frame just draws
+              that bitmap. When a brick is destroyed only its rectangle is erased from the bitmap.
+              The wall is drawn again from scratch when it's rebuilt (restart).
+
+              The bitmap is in world units, one pixel per unit, and it's scaled onto the screen with the
+              rest of the world (see Viewport). So it doesn't have to be drawn again when the screen is
+              resized or rotated.
+
+              The next level's wall is drawn ahead of time, on the background thread that builds it
+              (see prepare() and LevelProgression). When the snapshot moves on to that wall, the two
+              pictures are swapped instead of drawing the new one in the middle of a frame.
+     */
+
+    /**
+     * A picture of a wall that was drawn ahead of time, and the bricks that are in it
+     */
+    private static class PreparedWall {
+        int version;
+        Bitmap bitmap;
+        Canvas canvas;
+        long[] live;
+    }
+
+    //The offscreen picture of the wall and a canvas that draws into it
+    private Bitmap bitmap;
+    private Canvas layerCanvas;
+
+    //The brushes used to draw each kind of brick, one that erases to transparent,
+    //and one that smooths the picture when it's scaled onto the screen
+    private Paint brickPaint;
+    private Paint indestructiblePaint;
+    private Paint explosivePaint;
+    private Paint erasePaint;
+    private Paint bitmapPaint;
+
+    //Which bricks are in the picture right now, the same layout as BrickStore's live bitset
+    private long[] drawnLive = new long[0];
+
+    //The BrickStore version the picture was drawn from, see BrickStore.getVersion()
+    private int drawnVersion;
+
+    //The picture of the next wall, once it has been drawn, and an old picture the next one can be drawn into
+    //Note: These are handed between the background thread and the game thread, so they're atomic
+    private AtomicReference<PreparedWall> prepared = new AtomicReference<>();
+    private AtomicReference<PreparedWall> recycled = new AtomicReference<>();
+
+    /**
+     * This constructor is called when the layer is created/instantiated
+     */
+    public BrickLayer() {
+        brickPaint = new Paint();
+        brickPaint.setColor(Color.argb(255, 187, 0, 0));
+
+        indestructiblePaint = new Paint();
+        indestructiblePaint.setColor(Color.argb(255, 150, 150, 150));
+
+        explosivePaint = new Paint();
+        explosivePaint.setColor(Color.argb(255, 255, 140, 0));
+
+        erasePaint = new Paint();
+        erasePaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+
+        bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    }
+
+    /**
+     * This method brings the picture up to date with the bricks and draws it on the screen
+     * @param canvas the screen's canvas, already scaled to world units
+     * @param bricks the latest snapshot of the world
+     * @param particles where the bursts of the destroyed bricks are added, or null for no bursts
+     */
+    public void draw(Canvas canvas, WorldSnapshot bricks, ParticleLayer particles) {
+        if (bricks.getBrickVersion() != drawnVersion && swapInPrepared(bricks.getWorldWidth(), bricks)) {
+            eraseRemovedBricks(bricks, particles);
+        }
+        else if (bricks.getBrickVersion() != drawnVersion || bitmap == null) {
+            redraw(bricks.getWorldWidth(), bricks);
+        }
+        else {
+            eraseRemovedBricks(bricks, particles);
+        }
+        canvas.drawBitmap(bitmap, 0, 0, bitmapPaint);
+    }
+
+    /**
+     * This method draws a wall that isn't being played yet into a picture of its own.
+     * It's called on the background thread that built the wall (see LevelProgression.Listener),
+     * and it only reads the store.
+     * @param next the wall to draw
+     * @param width the width of the world, in world units
+     */
+    public void prepare(BrickStore next, int width) {
+        BrickGrid grid = next.getGrid();
+        int height = Math.max(1, (int) Math.ceil(grid.getRows() * grid.getCellHeight()));
+        width = Math.max(1, width);
+
+        //Reuse the picture of an old wall if there is one of the right size
+        PreparedWall wall = recycled.getAndSet(null);
+        if (wall == null || wall.bitmap.getWidth() != width || wall.bitmap.getHeight() != height) {
+            wall = new PreparedWall();
+            wall.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            wall.canvas = new Canvas(wall.bitmap);
+        }
+        else {
+            wall.bitmap.eraseColor(Color.TRANSPARENT);
+        }
+
+        int words = next.getLiveWordCount();
+        if (wall.live == null || wall.live.length < words) {
+            wall.live = new long[words];
+        }
+        for (int w = 0; w < words; w++) {
+            long live = next.getLiveWord(w);
+            wall.live[w] = live;
+            while (live != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(live);
+                live &= live - 1;
+                wall.canvas.drawRect(next.getLeft(i), next.getTop(i), next.getRight(i), next.getBottom(i),
+                        paintFor(next.getType(i)));
+            }
+        }
+        wall.version = next.getVersion();
+        prepared.set(wall);
+    }
+
+    /**
+     * This method swaps in the picture that was drawn ahead of time, if it's the wall in the snapshot
+     * @return false if there is no such picture and the wall has to be drawn now
+     */
+    private boolean swapInPrepared(int width, WorldSnapshot bricks) {
+        PreparedWall wall = prepared.get();
+        if (wall == null || wall.version != bricks.getBrickVersion() || wall.bitmap.getWidth() != Math.max(1, width)) {
+            return false;
+        }
+        prepared.set(null);
+        Bitmap newBitmap = wall.bitmap;
+        Canvas newCanvas = wall.canvas;
+        long[] newLive = wall.live;
+        drawnVersion = wall.version;
+
+        //The old picture goes back to the background thread to draw a later wall into
+        //Note: It goes back in the same PreparedWall the new picture came in, so nothing is created here
+        if (bitmap != null) {
+            wall.bitmap = bitmap;
+            wall.canvas = layerCanvas;
+            wall.live = drawnLive;
+            recycled.set(wall);
+        }
+        bitmap = newBitmap;
+        layerCanvas = newCanvas;
+        drawnLive = newLive;
+        return true;
+    }
+
+    /**
+     * This method draws the whole wall into the picture
+     */
+    private void redraw(int width, WorldSnapshot bricks) {
+        drawnVersion = bricks.getBrickVersion();
+
+        //The picture only has to be as tall as the wall, not the whole world
+        int height = Math.max(1, (int) Math.ceil(bricks.getWallHeight()));
+        width = Math.max(1, width);
+
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            layerCanvas = new Canvas(bitmap);
+        }
+        else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+
+        //Loop through the bricks that are still present to draw the brick wall,
+        //and remember which bricks are in the picture
+        int words = bricks.getLiveWordCount();
+        if (drawnLive.length < words) {
+            drawnLive = new long[words];
+        }
+        for (int w = 0; w < words; w++) {
+            long live = bricks.getLiveWord(w);
+            drawnLive[w] = live;
+            while (live != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(live);
+                live &= live - 1;
+                drawBrick(bricks, i, paintFor(bricks.getBrickType(i)));
+            }
+        }
+    }
+
+    /**
+     * This method erases the bricks that were destroyed since the last frame.
+     * The bitsets are compared 64 bricks at a time, so this is cheap even for very big walls.
+     */
+    private void eraseRemovedBricks(WorldSnapshot bricks, ParticleLayer particles) {
+        int words = bricks.getLiveWordCount();
+        for (int w = 0; w < words; w++) {
+            long removed = drawnLive[w] & ~bricks.getLiveWord(w);
+            if (removed == 0) {
+                continue;
+            }
+            drawnLive[w] &= ~removed;
+            while (removed != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(removed);
+                removed &= removed - 1;
+                drawBrick(bricks, i, erasePaint);
+                if (particles != null) {
+                    particles.brickDestroyed(bricks, i);
+                }
+            }
+        }
+    }
+
+    private Paint paintFor(int type) {
+        switch (type) {
+            case BrickStore.INDESTRUCTIBLE:
+                return indestructiblePaint;
+            case BrickStore.EXPLOSIVE:
+                return explosivePaint;
+            default:
+                return brickPaint;
+        }
+    }
+
+    private void drawBrick(WorldSnapshot bricks, int i, Paint brush) {
+        layerCanvas.drawRect(bricks.getBrickLeft(i), bricks.getBrickTop(i),
+                bricks.getBrickRight(i), bricks.getBrickBottom(i), brush);
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.breakoutgame;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.RectF;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 public class GameEngine extends SurfaceView implements Runnable {
     /*
         Note: SurfaceView class provides a dedicated drawing surface embedded inside of a view hierarchy.
@@ -21,7 +36,9 @@ public class GameEngine extends SurfaceView implements Runnable {
     //This will be responsible for performing other threads of code that runs separately
     //from the user interface thread
     //https://developer.android.com/reference/java/lang/Thread
+    //The game thread draws the frames, the simulation thread moves the game objects
     private Thread gameThread = null;
+    private Thread simulationThread = null;
 
     //SurfaceHolder is needed when we use paint and canvas in a Thread
     //This will help do the drawing on the screen within the Thread
@@ -35,47 +52,117 @@ public class GameEngine extends SurfaceView implements Runnable {
         will be accessed from both within and outside the thread
     */
 
-    //This will only be used internally inside the Thread, and will
-    //point out weather the game is running or not. By default, it's should be set to true
-    //unless an event happens that starts the game.
-    private boolean paused = true;
-
     //Declare a canvas and a paint object
     //This will actually allow to draw in the screen
     private Canvas canvas;
     private Paint paint;
 
-    //This will contain the screen resolution that is passed from MainActivity.java class
-    //This will be needed from time to time, through out this class
-    private int screenX;
-    private int screenY;
+    //Fits the world (World.WIDTH x World.HEIGHT world units) onto the screen, whatever its size
+    //The game thread draws through worldToScreen, which is made from drawViewport, and the UI thread turns
+    //touches into world positions with touchViewport, so the two threads don't share anything
+    private Viewport drawViewport = new Viewport(World.WIDTH, World.HEIGHT);
+    private Viewport touchViewport = new Viewport(World.WIDTH, World.HEIGHT);
+    private Matrix worldToScreen = new Matrix();
+
+    //How many times per second the game objects are moved, no matter how fast the screen draws
+    private static final int SIMULATION_RATE = 120;
+
+    //The most simulation steps that can run before a frame has to be drawn
+    //If a frame takes longer than this to draw, the game slows down instead of trying to catch up forever
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    //How many touches can be waiting for the simulation thread before new ones are dropped
+    //A moving finger sends a few hundred positions per second, see onTouchEvent()
+    private static final int INPUT_CAPACITY = 1024;
+
+    //How far (in screen pixels) a finger has to move before the paddle starts following it
+    private static final float DRAG_SLOP = 16;
+
+    //The finger controlling the paddle (or -1 when no finger is down), where it touched down,
+    //and whether it has moved far enough to drag the paddle. These are only used on the UI thread
+    private int activePointerId = -1;
+    private float touchDownX;
+    private boolean dragging;
+
+    //Runs the world on the simulation thread, in fixed steps of 1/SIMULATION_RATE seconds
+    private SimulationLoop simulation;
+
+    //The touches, on their way from the UI thread to the simulation thread
+    private InputQueue input = new InputQueue(INPUT_CAPACITY);
+
+    //Copies of the world, on their way from the simulation thread to the game thread
+    //Neither thread ever waits for the other one, see TripleBuffer
+    private TripleBuffer<WorldSnapshot> snapshots;
+
+    //A picture of the brick wall that is drawn once and then reused in every frame
+    private BrickLayer brickLayer = new BrickLayer();
+
+    //The bursts of destroyed bricks and the trails of the balls
+    private ParticleLayer particles = new ParticleLayer();
+
+    //The text of the HUD, and the number of lives and the level it was made for
+    //The text is only rebuilt when the lives or the level change, so no new String is created in every frame
+    private String livesText;
+    private int livesTextValue = -1;
+    private String levelText;
+    private int levelTextValue = -1;
 
-    //This keeps track of the screen's frame rate
-    private long fps;
+    //How many of the most recent frames the performance numbers are worked out from
+    private static final int METRICS_WINDOW = 256;
 
-    //This helps calculate the frame rate per second (fps)
-    private long timeThisFrame;
+    //How often (in frames) the performance overlay text is refreshed
+    private static final int OVERLAY_REFRESH_FRAMES = 30;
 
-    //Declare the paddle
-    Paddle paddle;
+    //Timings of every part of the frame, used for the performance overlay and the log report
+    private FrameMetrics metrics = new FrameMetrics(METRICS_WINDOW);
 
-    //Declare the ball
-    Ball ball;
+    //When the previous frame started, used to time whole frames
+    private long lastFrameStart;
 
-    //Declare an array of bricks
-    Brick[] bricks = new Brick[50];
-    int brickIndex = 0; //Keeps track of the total bricks in the array
-    int brickCount = 0; //Keeps track of how bricks left in the array
+    //How many inputs the simulation had applied in the last frame that was timed for input latency
+    private long shownInputCount;
 
-    //Declare the lives
-    int lives = 3;
+    //Paces the frames to the screen's refresh rate, and lowers the quality when they don't fit
+    private FrameGovernor governor;
+
+    //The quality level the game was last set up for, see FrameGovernor
+    private int qualityLevel;
+
+    //The performance overlay, one line of text per metric
+    //The text is written into these arrays so no Strings are created while playing
+    private volatile boolean showMetrics;
+    private char[][] overlayLines = new char[FrameMetrics.METRIC_COUNT][FrameMetrics.MAX_LINE_LENGTH];
+    private int[] overlayLengths = new int[FrameMetrics.METRIC_COUNT];
+    private int framesUntilOverlayRefresh;
+
+    //The recording of the current session, or null if it isn't being recorded
+    //It's written to REPLAY_FILE (in the app's files directory) every time the game is paused
+    private static final String REPLAY_FILE = "last-session.replay";
+    private ReplayLog replay;
+
+    //The game is saved to SAVE_FILE (in the app's files directory) every time it's paused,
+    //and put back when the app starts again. The file is written on its own thread, see saveGame()
+    private static final String SAVE_FILE = "saved-game.state";
+    private ExecutorService saver = newBackgroundExecutor("Saver");
+
+    //The levels are played from LEVELS_FILE (in the app's assets), one after the other. The next level,
+    //and its picture, are built ahead of time on the level loader thread, see LevelProgression
+    //Note: The file is memory-mapped, so build.gradle stores it uncompressed (aaptOptions noCompress)
+    private static final String LEVELS_FILE = "levels.pack";
+    private ExecutorService levelLoader = newBackgroundExecutor("LevelLoader");
+
+    //The world holds the paddle, ball, bricks and lives, and all of the game rules
+    //Only the simulation thread touches it. GameEngine draws the snapshots of it and
+    //passes the player's touches to the simulation thread.
+    private World world;
 
     /**
      * This constructor is called when the object is first created
-     * @param x comes from MainActivity class' onCreate method when it initialized gameEngine,
-     * @param y comes from MainActivity class' onCreate method when it initialized gameEngine
+     * @param x the width of the screen, comes from MainActivity class' onCreate method when it initialized gameEngine
+     * @param y the height of the screen, comes from MainActivity class' onCreate method when it initialized gameEngine
+     * @param refreshRate how many frames per second the screen shows, the frames are paced to this
      */
-    public GameEngine(Context context, int x, int y) {
+    public GameEngine(Context context, int x, int y, float refreshRate) {
         //This calls the default constructor (SurfaceView) to setup the rest of the object
         super(context);
 
@@ -85,18 +172,70 @@ public class GameEngine extends SurfaceView implements Runnable {
         //Initialize paint object
         paint = new Paint();
 
-        //Initialize screenX and screenY using the x and y parameters passed from MainActivity
-        screenX = x;
-        screenY = y;
+        //Fit the world to the screen size passed from MainActivity, until the view is laid out
+        touchViewport.resize(x, y);
+
+        //Initialize the world. This also places the paddle, ball and bricks
+        //Note: The world is the same size on every device, it's only scaled to fit the screen when it's drawn
+        world = new World();
+
+        //Carry on with the game that was being played when the app was closed, if there is one,
+        //on the level it was on
+        long restoreStart = System.nanoTime();
+        GameState saved = readSavedGame();
+        LevelPack levels = openLevels();
+        if (levels != null) {
+            int firstLevel = saved != null && saved.getLevel() >= 0 && saved.getLevel() < levels.getLevelCount()
+                    ? saved.getLevel() : 0;
+            levels = validateLevel(levels, firstLevel);
+            if (levels != null) {
+                LevelProgression progression = new LevelProgression(levels, firstLevel, levelLoader);
+                progression.setListener(new LevelProgression.Listener() {
+                    @Override
+                    public void onPrepared(int level, BrickStore bricks) {
+                        brickLayer.prepare(bricks, World.WIDTH);
+                    }
+                });
+                world.setProgression(progression);
+            }
+        }
+        if (saved != null && saved.restoreInto(world)) {
+            Log.i("GameState", "Restored the saved game in " + (System.nanoTime() - restoreStart) / 1000 + " us");
+        }
 
-        //Initialize the paddle
-        paddle = new Paddle(screenX, screenY);
+        //All three snapshots start out as copies of the new world, so the first frames
+        //have something to draw before the simulation thread publishes
+        FixedTimestep timestep = new FixedTimestep(SIMULATION_RATE, MAX_STEPS_PER_FRAME);
+        WorldSnapshot[] buffers = new WorldSnapshot[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new WorldSnapshot(World.DEFAULT_MAX_BALLS);
+            buffers[i].copyFrom(world, System.nanoTime(), timestep.getStepNanos(), 0);
+        }
+        snapshots = new TripleBuffer<>(buffers[0], buffers[1], buffers[2]);
 
-        //Initialize the ball
-        ball = new Ball();
+        simulation = new SimulationLoop(world, timestep, input, snapshots);
+        governor = new FrameGovernor(refreshRate, FrameGovernor.SYSTEM_CLOCK);
+    }
 
-        //Reset the position of the ball
-        restart();
+    /**
+     * This method makes an executor that runs its tasks one at a time on a background thread.
+     * The thread is only kept while there is work: it stops after a second with nothing to do, and
+     * a new one is started for the next task. So when the Activity is recreated (Ex: the screen is rotated)
+     * and this engine is thrown away, its threads don't stay behind. They are daemons for the same reason.
+     * @param name the name of the thread, to tell it apart in the debugger
+     */
+    private static ExecutorService newBackgroundExecutor(final String name) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable task) {
+                        Thread thread = new Thread(task, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -105,19 +244,238 @@ public class GameEngine extends SurfaceView implements Runnable {
     public void pause() {
         //This boolean is set to false to pause all the of the code inside of the run() method
         playing = false;
+        simulation.stop();
+
+        //Wait for both threads to stop, saveGame() must not copy the World while it's still being stepped
+        join(gameThread);
+        join(simulationThread);
+
+        //Write the frame timings to the log console, so slow frames can be looked into
+        logMetrics();
+
+        //Save the game, so it can carry on if the app is closed
+        saveGame();
+
+        //Save the recording, so the session can be played back on a computer
+        if (replay != null) {
+            saveReplay();
+        }
+    }
+
+    /**
+     * This method waits for a thread to stop. Being interrupted doesn't stop the waiting, it carries on
+     * and the interrupt is passed on once the thread has stopped.
+     */
+    private static void join(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                //join() waits for the Thread to finish
+                thread.join();
+                break;
+            }
+            catch (InterruptedException e) {
+                /*
+                    Note: try/catch block must be used because it's the way the Thread class is coded
+                 */
+                //Output an error just in case the operation fails so we can see it in the log console
+                Log.e("Error:", "Joining Thread");
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method copies the game and writes it to SAVE_FILE on the saver thread, so the UI thread
+     * doesn't wait for the disk. It's written to a temporary file first and then renamed, so a
+     * half written save never replaces a good one.
+     * Note: This must only be called while the simulation thread is stopped
+     */
+    private void saveGame() {
+        final GameState state = new GameState();
+        state.capture(world);
+
+        final File file = new File(getContext().getFilesDir(), SAVE_FILE);
+        saver.execute(new Runnable() {
+            @Override
+            public void run() {
+                File temporary = new File(file.getPath() + ".tmp");
+                OutputStream out = null;
+                try {
+                    out = new BufferedOutputStream(new FileOutputStream(temporary));
+                    state.writeTo(out);
+                    out.close();
+                    out = null;
+                    if (!temporary.renameTo(file)) {
+                        Log.e("Error:", "Saving game");
+                    }
+                }
+                catch (IOException e) {
+                    //Output an error just in case the operation fails so we can see it in the log console
+                    Log.e("Error:", "Saving game");
+                }
+                finally {
+                    if (out != null) {
+                        try {
+                            out.close();
+                        }
+                        catch (IOException e) {
+                            Log.e("Error:", "Saving game");
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * This method checks the cells of the level the game starts on. Only that level is read, the
+     * levels after it are checked on the level loader thread before they're built.
+     * @return the levels, or null if the level is corrupt (the game is then played on the full wall)
+     */
+    private static LevelPack validateLevel(LevelPack levels, int level) {
+        try {
+            levels.validate(level);
+            return levels;
+        }
+        catch (IOException e) {
+            //Output an error just in case the operation fails so we can see it in the log console
+            Log.e("Error:", "Opening levels");
+            return null;
+        }
+    }
 
+    /**
+     * This method opens the levels in the app's assets by memory-mapping them
+     * @return the levels, or null if they can't be opened (the game is then played on the full wall)
+     */
+    private LevelPack openLevels() {
+        AssetFileDescriptor descriptor = null;
+        FileInputStream in = null;
         try {
-            //join() stops the Thread
-            gameThread.join();
+            descriptor = getContext().getAssets().openFd(LEVELS_FILE);
+            in = new FileInputStream(descriptor.getFileDescriptor());
+
+            //The asset is a part of the APK file, starting at getStartOffset()
+            //The mapping stays valid after the file is closed
+            return LevelPack.open(in.getChannel(), descriptor.getStartOffset(), descriptor.getLength());
         }
-        catch (InterruptedException e) {
+        catch (IOException e) {
             //Output an error just in case the operation fails so we can see it in the log console
-            Log.e("Error:", "Joining Thread");
+            Log.e("Error:", "Opening levels");
+            return null;
+        }
+        finally {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+                if (descriptor != null) {
+                    descriptor.close();
+                }
+            }
+            catch (IOException e) {
+                Log.e("Error:", "Opening levels");
+            }
         }
+    }
 
-        /*
-            Note: try/catch block must be used because it's the way the Thread class is coded
-         */
+    /**
+     * This method reads the game from SAVE_FILE, if there is one. It's put back with GameState.restoreInto(),
+     * which only works if it was saved from a world of the same size. Every device plays in the same
+     * World.WIDTH x World.HEIGHT world, so that's only a save from an older version of the game.
+     * Otherwise the new game that the world started with is kept.
+     * @return the saved game, or null if there isn't one that can be read
+     */
+    private GameState readSavedGame() {
+        File file = new File(getContext().getFilesDir(), SAVE_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            return GameState.readFrom(in);
+        }
+        catch (IOException e) {
+            //A save that can't be read is ignored and a new game is started
+            Log.e("Error:", "Restoring game");
+            return null;
+        }
+        finally {
+            if (in != null) {
+                try {
+                    in.close();
+                }
+                catch (IOException e) {
+                    Log.e("Error:", "Restoring game");
+                }
+            }
+        }
+    }
+
+    /**
+     * This method starts recording the player's input so the session can be replayed exactly
+     * (see ReplayLog and ReplayPlayer). The game carries on from where it is, with a new random seed.
+     * It must be called before resume().
+     */
+    public void setRecordReplay(boolean record) {
+        replay = record ? ReplayLog.begin(world, System.nanoTime(), SIMULATION_RATE) : null;
+        simulation.setReplay(replay);
+    }
+
+    /**
+     * This method writes the recording of the session to the app's files directory
+     * Note: This must only be called while the simulation thread is stopped
+     */
+    private void saveReplay() {
+        replay.finish(world);
+        File file = new File(getContext().getFilesDir(), REPLAY_FILE);
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            replay.writeTo(out);
+        }
+        catch (IOException e) {
+            //Output an error just in case the operation fails so we can see it in the log console
+            Log.e("Error:", "Saving replay");
+        }
+        finally {
+            if (out != null) {
+                try {
+                    out.close();
+                }
+                catch (IOException e) {
+                    Log.e("Error:", "Saving replay");
+                }
+            }
+        }
+    }
+
+    /**
+     * This method turns the performance overlay (frame timings drawn under the lives) on or off
+     */
+    public void setShowMetrics(boolean showMetrics) {
+        this.showMetrics = showMetrics;
+    }
+
+    /**
+     * This method writes the frame timings to logcat
+     * Note: This creates Strings, so it must not be called while a frame is being drawn
+     */
+    public void logMetrics() {
+        metrics.computePercentiles();
+        StringBuilder report = new StringBuilder();
+        try {
+            metrics.writeReport(report);
+        }
+        catch (IOException e) {
+            //StringBuilder never throws, but Appendable says it might
+        }
+        Log.i("FrameMetrics", report.toString());
     }
 
     /**
@@ -127,6 +485,11 @@ public class GameEngine extends SurfaceView implements Runnable {
         //This boolean is set to true to run all of the code inside of the run() method
         playing = true;
 
+        //Start moving the game objects on their own thread
+        simulation.prepare();
+        simulationThread = new Thread(simulation, "Simulation");
+        simulationThread.start();
+
         //Initialize the game Thread
         gameThread = new Thread(this);
 
@@ -146,31 +509,36 @@ public class GameEngine extends SurfaceView implements Runnable {
      */
     @Override
     public void run() {
+        lastFrameStart = System.nanoTime();
+        governor.start();
+        applyQualityLevel();
+
         //While the user is playing
         while (playing) {
-            //Grab the current time in milliseconds in the startFrameTime field
-            long startFrameTime = System.currentTimeMillis();
-
-            //Update the frame as long as the game isn't paused
-            if (!paused) {
-                //Update the position of all of the game objects
-                update();
+            long frameStart = System.nanoTime();
+            long frameNanos = frameStart - lastFrameStart;
+            metrics.record(FrameMetrics.FRAME, frameNanos);
+            lastFrameStart = frameStart;
+
+            //Pick up the newest copy of the world. The simulation thread times its own steps,
+            //so its timing is recorded here once for every snapshot it published
+            if (snapshots.acquireLatest()) {
+                metrics.record(FrameMetrics.UPDATE, snapshots.getReadBuffer().getUpdateNanos());
             }
+            WorldSnapshot snapshot = snapshots.getReadBuffer();
 
             //Draw the frame
-            //Updates the drawing in every single frame
-            draw();
-
-            //Calculate the fps in this frame
-            //The result is an answer on exactly how long it took to run, update, and draw
-            //and it can be used to time animations, etc
-            timeThisFrame = System.currentTimeMillis() - startFrameTime;
-
-            //By checking weather timeThisFrame is greater than or equal to 1,
-            //we're making sure that timeThisFrame isn't equal to 0, or else dividing it by zero would
-            //crash the game.
-            if (timeThisFrame >= 1) {
-                fps = 1000 / timeThisFrame;
+            //Updates the drawing in every single frame. The objects are drawn part of the
+            //way between the last two steps so the movement looks smooth.
+            long drawCall = System.nanoTime();
+            long drawNanos = draw(snapshot, snapshot.getAlpha(drawCall), frameNanos / 1e9f);
+
+            //Wait until the next frame is due instead of drawing frames the screen can't show
+            //Note: Only the time spent working is passed in. The waits in lockCanvas() and unlockCanvasAndPost()
+            //      are the screen holding the frame back, and counting them would make every frame look full
+            governor.endFrame((drawCall - frameStart) + drawNanos);
+            if (governor.getLevel() != qualityLevel) {
+                applyQualityLevel();
             }
         }
         /*
@@ -180,185 +548,79 @@ public class GameEngine extends SurfaceView implements Runnable {
          */
     }
 
-    private void update() {
-        //Move the paddle by calling it's update method and passing the frame rate
-        paddle.update(fps);
-
-        //Move the ball by calling it's update method and passing the frame rate
-        ball.update(fps);
-
-        //Check for ball and brick collision by looping through the bricks array\\
-        for (int i = 0; i < brickIndex; i++) {
-            //If the brick is present/visible
-            if (bricks[i].getBrickVisibility()) {
-                //If brick and ball object intersects
-                if (RectF.intersects(bricks[i].getBrick(), ball.getBall())) {
-                    //Remove that brick
-                    bricks[i].removeBrick();
-
-                    //Reverse the ball's velocity simulating collision and bounce back
-                    ball.reverseYVelocity();
-
-                    //Decrement the total count of bricks
-                    brickCount--;
-                }
-            }
-        }
-
-        //Check for ball and paddle collision\\
-        if (RectF.intersects(paddle.getPaddle(), ball.getBall())) {
-            //Set a random x velocity for the ball so it will go left or right
-            ball.setRandomXVelocity();
-
-            //Set a random y velocity for the ball
-            //Note: It's reverse so that means it's going to go up
-            ball.reverseYVelocity();
-
-            //Clear y obstacle so it doesn't get caught in a loop once
-            //it collides with the ball
-            ball.clearObstacleY(paddle.getPaddle().top - 5);
-        }
-
-        //Check for collision between the 4 walls of the screen\\
-        //If the ball hits the bottom of the screen (screenY)
-        if (ball.getBall().bottom > screenY) {
-            //Reverse the balls y velocity to move it back up
-            //since it hit the bottom of the screen
-            ball.reverseYVelocity();
-
-            //Clear y obstacle by bumping the ball 5 pixels up,
-            //so the ball avoids getting doesn't get stuck
-            ball.clearObstacleY(screenY - 5);
-
-            //Decrement lives
-            lives--;
-
-            //If the player hits 0 lives
-            if (lives == 0) {
-                paused = true;
-                restart();
-            }
-        }
-
-        //If the ball hits the top of the screen
-        if (ball.getBall().top < 0) {
-            //Move the ball in the opposite direction
-            ball.reverseYVelocity();
-
-            //Clear the y obstacle so the ball doesn't get stuck
-            ball.clearObstacleY(10);
-            //Note: The value 10 is an arbitrary number, it just means
-            //it'll bump the ball 10 pixels to prevent getting stuck
-        }
-
-        //If the ball hits the left of the screen
-        if (ball.getBall().left < 0) {
-            //Move the ball in the opposite direction
-            ball.reverseXVelocity();
-
-            //Clear the y obstacle so the ball doesn't get stuck
-            ball.clearObstacleX(5);
-        }
-
-        //If the ball hits the right of the screen
-        /*
-            Note: screenX - 10 is needed because the ball is measured from the left hand side.
-                  So when the left hand pixel, is 10 pixels away, the right hand pixel will be
-                  just about touching the ball.
-         */
-        if (ball.getBall().right > screenX - 10) {
-            //Move the ball in the opposite direction
-            ball.reverseXVelocity();
-
-            //Clear the x obstacle so the ball doesn't get stuck
-            ball.clearObstacleX(screenX - 15);
-        }
-
-        //if the paddle hits the right side of the screen
-        if (paddle.getPaddle().right > screenX) {
-            //Stops the paddle from going off screen by setting it's movement to 0
-            //which is the number for the STOP variable in the paddle class
-            paddle.setMovement(0);
-        }
-
-        //If the paddle hits the left side of the screen
-        if (paddle.getPaddle().left < 0) {
-            //Stops the paddle from going off screen by setting it's movement to 0
-            //which is the number for the STOP variable in the paddle class
-            paddle.setMovement(0);
-        }
-
-        //If the player destroys all of the bricks
-        if (brickCount == 0) {
-            paused = true;
-            restart();
-        }
-    }
-
     /**
-     * This method will be used to restart/reset the ball, score, etc
+     * This method sets the game up for the governor's current quality level
      */
-    public void restart() {
-        //Reset lives
-        lives = 3;
-
-        //Put the ball back to it's starting position
-        ball.reset(screenX, screenY);
-
-        //Put the paddle back to it's starting position
-        paddle = new Paddle(screenX, screenY);
-
-        //Specify the brick's size
-        int brickWidth = screenX / 10; //The brick's width will be 1/10th of the width of the screen
-        int brickHeight = screenY / 10; //The brick's height will be 1/10th of the height of the screen
-
-        //Nested for loop to create a brick wall
-        brickIndex = 0;
-        brickCount = 0;
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 10; col++) {
-                bricks[brickIndex] = new Brick(row, col, brickWidth, brickHeight);
-                brickIndex++;
-                brickCount++;
-            }
-        }
+    private void applyQualityLevel() {
+        qualityLevel = governor.getLevel();
+        simulation.setMaxStepsPerFrame(governor.getMaxStepsPerFrame(MAX_STEPS_PER_FRAME));
+
+        //This only happens when the device starts or stops keeping up, so the String is fine here
+        Log.i("FrameGovernor", "Quality level " + qualityLevel);
     }
 
     /**
      * This method draws the objects in the canvas
+     * @param snapshot the latest copy of the world
+     * @param alpha how far between the last two simulation steps the paddle and ball are drawn
+     * @param frameSeconds how long since the last frame, used to move the particles
+     * @return how long the drawing took in nanoseconds, not counting the waits for the screen
      */
-    private void draw() {
+    private long draw(WorldSnapshot snapshot, float alpha, float frameSeconds) {
         //If the drawing surface is valid
         if (holder.getSurface().isValid()) {
             //Prepare the canvas to be drawn upon
+            //Note: lockCanvas() can block until the screen is ready for a new frame, so it's timed on its own
+            long lockStart = System.nanoTime();
             canvas = holder.lockCanvas();
+            long drawStart = System.nanoTime();
+
+            //Fit the world to the screen again if the screen's size changed (Ex: it was rotated)
+            if (!drawViewport.isSize(canvas.getWidth(), canvas.getHeight())) {
+                drawViewport.resize(canvas.getWidth(), canvas.getHeight());
+                worldToScreen.setScale(drawViewport.getScale(), drawViewport.getScale());
+                worldToScreen.postTranslate(drawViewport.getOffsetX(), drawViewport.getOffsetY());
+            }
 
             //Draws the background color
             //Note: This is done in the beginning of every drawing process so it gets rid of
-            //      everything that was there previously
+            //      everything that was there previously. It covers the whole screen, including
+            //      the space at the sides of the world when the screen is a different shape
             canvas.drawColor(Color.argb(255, 55, 55, 55));
 
+            //Everything from here on is drawn in world units, the matrix scales it onto the screen
+            canvas.save();
+            canvas.concat(worldToScreen);
+
             //Choose the brush color for the drawing
             //Changes the drawing color
             paint.setColor(Color.argb(255, 0, 255, 0));
 
             //Draw everything to the screen\\
             //Draw the paddle
-            canvas.drawRect(paddle.getPaddle(), paint);
-
-            //Draw the ball
-            canvas.drawRect(ball.getBall(), paint);
-
-            //Change the brush color for before drawing the brick so it's not the same as the ball
-            paint.setColor(Color.argb(255, 187, 0, 0));
+            float paddleLeft = snapshot.getPaddleLeft(alpha);
+            float paddleTop = snapshot.getPaddleTop();
+            canvas.drawRect(paddleLeft, paddleTop,
+                    paddleLeft + snapshot.getPaddleLength(), paddleTop + snapshot.getPaddleHeight(), paint);
+
+            //Draw the balls
+            for (int i = 0; i < snapshot.getBallCount(); i++) {
+                float ballLeft = snapshot.getBallLeft(i, alpha);
+                float ballTop = snapshot.getBallTop(i, alpha);
+                canvas.drawRect(ballLeft, ballTop,
+                        ballLeft + snapshot.getBallWidth(), ballTop + snapshot.getBallHeight(), paint);
+            }
 
-            //For loop through the array of bricks from the restart() method
-            //to draw the brick wall
-            for (int i = 0; i < brickIndex; i++) {
-                //If the brick is present/visible
-                if (bricks[i].getBrickVisibility()) {
-                    canvas.drawRect(bricks[i].getBrick(), paint);
-                }
+            //Draw the brick wall. The wall is kept in a picture, so this is one draw call
+            //no matter how many bricks there are
+            //Draw the effects on top of it, unless the frames don't fit (see FrameGovernor)
+            if (governor.isEffectsEnabled()) {
+                brickLayer.draw(canvas, snapshot, particles);
+                particles.draw(canvas, snapshot, alpha, frameSeconds);
+            }
+            else {
+                brickLayer.draw(canvas, snapshot, null);
+                particles.clear();
             }
 
             //Choose the brush color to draw the HUD
@@ -366,11 +628,75 @@ public class GameEngine extends SurfaceView implements Runnable {
 
             //Draw the score
             paint.setTextSize(50);
-            canvas.drawText("Lives: " + lives, screenX - 180, 50, paint);
+            if (livesTextValue != snapshot.getLives()) {
+                livesTextValue = snapshot.getLives();
+                livesText = "Lives: " + livesTextValue;
+            }
+            canvas.drawText(livesText, World.WIDTH - 180, 50, paint);
+
+            //Draw the level (counting from 1 for the player)
+            if (levelTextValue != snapshot.getLevel()) {
+                levelTextValue = snapshot.getLevel();
+                levelText = "Level: " + (levelTextValue + 1);
+            }
+            canvas.drawText(levelText, 20, 50, paint);
+
+            //Draw the performance overlay under the lives
+            //It's the first thing to go when the frames don't fit, see FrameGovernor
+            if (showMetrics && governor.isHudRedrawEnabled()) {
+                drawMetrics();
+            }
+            canvas.restore();
 
             //Show everything that's been drawn
+            long postStart = System.nanoTime();
             holder.unlockCanvasAndPost(canvas);
+            long postEnd = System.nanoTime();
+
+            //Time how long the newest touch took to get onto the screen, for every frame that shows a new one
+            //Note: This is from when the touch screen reported it until the frame was posted,
+            //      the display still takes a little while to show it after that
+            if (snapshot.getInputCount() != shownInputCount) {
+                shownInputCount = snapshot.getInputCount();
+                metrics.record(FrameMetrics.INPUT, postEnd - snapshot.getInputTime());
+            }
+
+            metrics.record(FrameMetrics.DRAW, postStart - drawStart);
+            metrics.record(FrameMetrics.LOCK_WAIT, (drawStart - lockStart) + (postEnd - postStart));
+            return postStart - drawStart;
         }
+        return 0;
+    }
+
+    /**
+     * This method draws the frame timings (p50/p95/p99/max in milliseconds) in the top right corner
+     */
+    private void drawMetrics() {
+        //Working out the percentiles means sorting, so the text is only refreshed every now and then
+        if (--framesUntilOverlayRefresh <= 0) {
+            framesUntilOverlayRefresh = OVERLAY_REFRESH_FRAMES;
+            metrics.computePercentiles();
+            for (int i = 0; i < FrameMetrics.METRIC_COUNT; i++) {
+                overlayLengths[i] = metrics.formatLine(i, overlayLines[i]);
+            }
+        }
+
+        paint.setTextSize(30);
+        for (int i = 0; i < FrameMetrics.METRIC_COUNT; i++) {
+            canvas.drawText(overlayLines[i], 0, overlayLengths[i], World.WIDTH - 700, 100 + i * 35, paint);
+        }
+    }
+
+    /**
+     * This method is called when the size of the view changes (Ex: the screen is rotated)
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        //Touches are turned into world positions for the new size. The drawing picks up the new size
+        //from the canvas, and nothing in the world has to be rebuilt
+        touchViewport.resize(w, h);
     }
 
     /**
@@ -380,34 +706,95 @@ public class GameEngine extends SurfaceView implements Runnable {
      */
     @Override
     public boolean onTouchEvent(MotionEvent motionEvent) {
-        switch (motionEvent.getAction() & MotionEvent.ACTION_MASK) {
-            //This case occurs when the player touches the screen
+        switch (motionEvent.getActionMasked()) {
+            //This case occurs when the player touches the screen (with their first or another finger)
+            //The world resumes/starts the game and moves the paddle towards the side
+            //of the screen that was touched, see World.handleInput()
+            //The newest finger is the one that controls the paddle
             case MotionEvent.ACTION_DOWN:
-                //Set the game's state to resume because the case statement means
-                //"the player touched the screen, resume/start the game". This will
-                //also execute the update() method, which is in an if statement in the
-                //run() method
-                paused = false;
-
-                //Get the x point of the MotionEvent and see if it's greater
-                //than half of the width of the screen. If the condition is true,
-                //that means the player has touched the right hand side of the screen
-                if (motionEvent.getX() > screenX / 2) {
-                    //Move the paddle to the right
-                    paddle.setMovement(paddle.RIGHT);
-                }
-                else {
-                    //Move the paddle to the left
-                    paddle.setMovement(paddle.LEFT);
+            case MotionEvent.ACTION_POINTER_DOWN:
+                startTouch(motionEvent, motionEvent.getActionIndex());
+                break;
+
+            //This case occurs when the player moves their finger(s)
+            case MotionEvent.ACTION_MOVE:
+                sendDrags(motionEvent);
+                break;
+
+            //This case occurs when the player lifts one finger but keeps another one down
+            //If it was the finger controlling the paddle, one of the others takes over
+            case MotionEvent.ACTION_POINTER_UP:
+                int index = motionEvent.getActionIndex();
+                if (motionEvent.getPointerId(index) == activePointerId) {
+                    startTouch(motionEvent, index == 0 ? 1 : 0);
                 }
                 break;
 
-            //This case occurs when the player removes their finger off of the screen
+            //This case occurs when the player removes their (last) finger off of the screen
             case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
                 //Stop the paddle
-                paddle.setMovement(paddle.STOP);
+                activePointerId = -1;
+                sendInput(World.INPUT_RELEASE, motionEvent.getX(), toNanos(motionEvent.getEventTime()));
                 break;
         }
+
+        //Wake the simulation thread once for everything this event sent
+        simulation.wake();
         return true;
     }
+
+    /**
+     * This method makes the finger at the given index the one that controls the paddle
+     */
+    private void startTouch(MotionEvent motionEvent, int index) {
+        activePointerId = motionEvent.getPointerId(index);
+        touchDownX = motionEvent.getX(index);
+        dragging = false;
+        sendInput(World.INPUT_PRESS, touchDownX, toNanos(motionEvent.getEventTime()));
+    }
+
+    /**
+     * This method sends every position the controlling finger moved through since the last event.
+     * Note: The touch screen is usually read faster than the screen draws, so one ACTION_MOVE event
+     *       carries the older positions as "historical" samples, each with its own time.
+     */
+    private void sendDrags(MotionEvent motionEvent) {
+        int index = motionEvent.findPointerIndex(activePointerId);
+        if (index < 0) {
+            return;
+        }
+        for (int h = 0; h < motionEvent.getHistorySize(); h++) {
+            sendDrag(motionEvent.getHistoricalX(index, h), toNanos(motionEvent.getHistoricalEventTime(h)));
+        }
+        sendDrag(motionEvent.getX(index), toNanos(motionEvent.getEventTime()));
+    }
+
+    private void sendDrag(float x, long time) {
+        //A finger never stays perfectly still, so the paddle only starts following it
+        //once it has moved far enough away from where it touched down
+        if (!dragging && Math.abs(x - touchDownX) < DRAG_SLOP) {
+            return;
+        }
+        dragging = true;
+        sendInput(World.INPUT_DRAG, x, time);
+    }
+
+    /**
+     * This method changes a MotionEvent time (SystemClock.uptimeMillis()) into System.nanoTime() time.
+     * Note: On Android both of them count from the same clock, only the units are different
+     */
+    private static long toNanos(long uptimeMillis) {
+        return uptimeMillis * 1000000L;
+    }
+
+    /**
+     * This method passes a touch to the simulation thread, which applies it before the step it happened in.
+     * The caller has to wake the simulation thread afterwards.
+     * @param x where the screen was touched, in screen pixels
+     */
+    private void sendInput(int type, float x, long time) {
+        //If the queue is full the touch is dropped. It can only fill up if the simulation thread is stuck.
+        input.offer(type, touchViewport.toWorldX(x), time);
+    }
 }
@@ -22,8 +22,13 @@ public class MainActivity extends AppCompatActivity {
         display.getSize(size);
 
         //Initialize the gameEngine field and set it as the gameView
-        gameEngine = new GameEngine(this, size.x, size.y); //size.x and size.y is passed from the device's resolution
+        //size.x and size.y is passed from the device's resolution, and the frames are paced to its refresh rate
+        gameEngine = new GameEngine(this, size.x, size.y, display.getRefreshRate());
         setContentView(gameEngine);
+
+        //Show the frame timings on screen and record every session in debug builds
+        gameEngine.setShowMetrics(BuildConfig.DEBUG);
+        gameEngine.setRecordReplay(BuildConfig.DEBUG);
     }
 
     /**
@@ -0,0 +1,107 @@
+package com.example.breakoutgame;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+public class ParticleLayer {
+    /*
+        Note: This draws the effects: a burst of particles when a brick is destroyed, and a short trail
+              behind every ball. The particles are kept in a ParticlePool and only live on the game
+              (render) thread, so they never change how the game plays.
+              Every color is drawn with one Canvas.drawPoints() call, no matter how many particles there are.
+     */
+
+    //The colors the particles can be drawn in
+    private static final int BRICK = 0;
+    private static final int EXPLOSION = 1;
+    private static final int TRAIL = 2;
+    private static final int COLOR_COUNT = 3;
+
+    //The most particles that can be on the screen at once
+    private static final int CAPACITY = 32768;
+
+    //How many particles fly out of a destroyed brick, how fast, and for how many seconds
+    private static final int BRICK_PARTICLES = 24;
+    private static final int EXPLOSION_PARTICLES = 64;
+    private static final float BURST_SPEED = 400;
+    private static final float BURST_LIFETIME = 0.6f;
+
+    //How long the trail behind a ball is, in seconds
+    private static final float TRAIL_LIFETIME = 0.2f;
+
+    //The longest time one update can cover, so the particles don't jump after a long pause
+    private static final float MAX_UPDATE_SECONDS = 0.1f;
+
+    private ParticlePool pool = new ParticlePool(CAPACITY, COLOR_COUNT);
+
+    //One brush for every color
+    private Paint[] paints = new Paint[COLOR_COUNT];
+
+    /**
+     * This constructor is called when the layer is created/instantiated
+     */
+    public ParticleLayer() {
+        int[] colors = {
+                Color.argb(255, 187, 0, 0),   //The same red as the normal bricks
+                Color.argb(255, 255, 140, 0), //The same orange as the explosive bricks
+                Color.argb(160, 0, 255, 0)    //The ball's green, a little see-through
+        };
+        for (int c = 0; c < COLOR_COUNT; c++) {
+            paints[c] = new Paint();
+            paints[c].setColor(colors[c]);
+            paints[c].setStrokeWidth(4);
+        }
+    }
+
+    /**
+     * This method adds a burst of particles in the middle of a brick that was just destroyed
+     * @param bricks the snapshot the brick is in
+     * @param slot the slot of the brick
+     */
+    public void brickDestroyed(WorldSnapshot bricks, int slot) {
+        float centerX = (bricks.getBrickLeft(slot) + bricks.getBrickRight(slot)) / 2;
+        float centerY = (bricks.getBrickTop(slot) + bricks.getBrickBottom(slot)) / 2;
+        if (bricks.getBrickType(slot) == BrickStore.EXPLOSIVE) {
+            pool.burst(centerX, centerY, EXPLOSION_PARTICLES, 2 * BURST_SPEED, BURST_LIFETIME, EXPLOSION);
+        }
+        else {
+            pool.burst(centerX, centerY, BRICK_PARTICLES, BURST_SPEED, BURST_LIFETIME, BRICK);
+        }
+    }
+
+    /**
+     * This method moves the particles, adds one to the trail of every ball and draws them all
+     * @param canvas the screen's canvas
+     * @param snapshot the snapshot that is being drawn
+     * @param alpha how far between the last two simulation steps the balls are drawn
+     * @param seconds how long since the last frame
+     */
+    public void draw(Canvas canvas, WorldSnapshot snapshot, float alpha, float seconds) {
+        pool.update(Math.min(seconds, MAX_UPDATE_SECONDS));
+
+        //The trail starts in the middle of every ball and barely moves, so it stays where the ball was
+        if (!snapshot.isPaused()) {
+            float halfWidth = snapshot.getBallWidth() / 2f;
+            float halfHeight = snapshot.getBallHeight() / 2f;
+            for (int i = 0; i < snapshot.getBallCount(); i++) {
+                pool.spawn(snapshot.getBallLeft(i, alpha) + halfWidth, snapshot.getBallTop(i, alpha) + halfHeight,
+                        0, -ParticlePool.GRAVITY * TRAIL_LIFETIME / 2, TRAIL_LIFETIME, TRAIL);
+            }
+        }
+
+        pool.fillPoints();
+        for (int c = 0; c < COLOR_COUNT; c++) {
+            if (pool.getPointCount(c) > 0) {
+                canvas.drawPoints(pool.getPoints(c), 0, pool.getPointCount(c), paints[c]);
+            }
+        }
+    }
+
+    /**
+     * This method removes every particle (Ex: when effects are turned off, see FrameGovernor)
+     */
+    public void clear() {
+        pool.clear();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.breakoutgame;
+
+/**
+ * Builds worlds of a given size for the benchmarks.
+ */
+final class BenchmarkWorlds {
+    //The length of one simulation step, the same as the game's 120 Hz SIMULATION_RATE
+    static final float STEP = 1f / 120;
+
+    private BenchmarkWorlds() {
+    }
+
+    /**
+     * This method creates a world with (about) the given number of bricks and one ball.
+     * 30 bricks is the normal 3 x 10 wall in the normal World.WIDTH x World.HEIGHT world. Bigger walls are
+     * 100 bricks wide and the world is made big enough that every brick is 20 x 10 world units.
+     */
+    static World create(int brickCount) {
+        return create(brickCount, 1);
+    }
+
+    /**
+     * This method creates a world with (about) the given number of bricks and balls.
+     * The extra balls start in the empty part of the screen below the wall, at random
+     * positions and speeds that are the same on every run.
+     */
+    static World create(int brickCount, int ballCount) {
+        World world;
+        if (brickCount <= 30) {
+            world = new World(World.WIDTH, World.HEIGHT, Math.max(ballCount, 1));
+        }
+        else {
+            int columns = 100;
+            int rows = Math.max(1, brickCount / columns);
+
+            //The wall takes up the top 3/10ths of the world
+            world = new World(columns * 20, rows * 10 * 10 / 3, Math.max(ballCount, 1));
+            world.setWallSize(rows, columns);
+        }
+
+        FastRandom random = new FastRandom(ballCount);
+        float width = world.getScreenX() - 10;
+        float wallBottom = world.getScreenY() * 0.3f;
+        float height = world.getScreenY() - 40 - wallBottom;
+        for (int i = 1; i < ballCount; i++) {
+            world.addBall(random.nextFloat() * width, wallBottom + random.nextFloat() * height,
+                    random.nextFloat() * 800 - 400, -200 - random.nextFloat() * 400);
+        }
+        return world;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.breakoutgame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of one controller decision (PaddleController.update) followed by the step it was made for,
+ * and the step alone, so the cost of the decision is the difference. The result is in ns per step.
+ * BatchSimulator reports the same cost (from a sample of the decisions) along with how well the games went.
+ */
+@State(Scope.Thread)
+public class ControllerBenchmark {
+    @Param({"tracking", "predictive"})
+    public String controllerName;
+
+    @Param({"1", "100"})
+    public int ballCount;
+
+    private World world;
+    private PaddleController controller;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = BenchmarkWorlds.create(30, ballCount);
+        controller = controllerName.equals("predictive") ? new PredictiveController() : new TrackingController();
+    }
+
+    @Benchmark
+    public int decideAndStep() {
+        controller.update(world);
+        world.step(BenchmarkWorlds.STEP);
+        return world.getPaddle().getMovement();
+    }
+
+    @Benchmark
+    public int stepOnly() {
+        //Keep playing through game overs and cleared walls
+        world.setPaused(false);
+        world.step(BenchmarkWorlds.STEP);
+        return world.getBrickCount();
+    }
+}
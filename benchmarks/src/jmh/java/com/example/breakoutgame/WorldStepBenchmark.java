@@ -0,0 +1,58 @@
+package com.example.breakoutgame;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of one simulated frame (World.step) and of restart() for different wall sizes.
+ * The step benchmark covers the ball vs brick loop, the paddle check and the wall checks,
+ * for every ball in play. The step benchmark also reports how many ball moves checked the bricks
+ * (broadPhaseHits) and how many skipped them because the ball wasn't near the wall (broadPhaseMisses).
+ */
+@State(Scope.Thread)
+public class WorldStepBenchmark {
+    @Param({"30", "1000", "10000", "100000"})
+    public int brickCount;
+
+    @Param({"1", "10", "100", "500"})
+    public int ballCount;
+
+    private World world;
+
+    /**
+     * The World's broad-phase counters, copied after every step so JMH reports them per iteration
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class BroadPhaseCounters {
+        public long broadPhaseHits;
+        public long broadPhaseMisses;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = BenchmarkWorlds.create(brickCount, ballCount);
+        world.setPaused(false);
+    }
+
+    @Benchmark
+    public int step(BroadPhaseCounters counters) {
+        //Keep playing through game overs and cleared walls, the same as a player touching the screen again
+        world.setPaused(false);
+        world.step(BenchmarkWorlds.STEP);
+        counters.broadPhaseHits = world.getBroadPhaseHits();
+        counters.broadPhaseMisses = world.getBroadPhaseMisses();
+        return world.getBrickCount();
+    }
+
+    @Benchmark
+    public int restart() {
+        world.restart();
+        return world.getBrickCount();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.breakoutgame;
+
+public class BallPool {
+    /*
+        Note: Every ball in play is an index into these arrays, the same way bricks are stored in
+              BrickStore. The arrays are made once with room for the most balls the game can have,
+              so adding and removing balls (Ex: for a multiball powerup) never creates objects.
+              The active balls are always kept at indexes 0 to getActiveCount() - 1.
+     */
+
+    //Dimensions of every ball, in world units (see World)
+    private int ballWidth = 10;
+    private int ballHeight = 10;
+
+    //The top left corner of every ball
+    private float[] left;
+    private float[] top;
+
+    //Where every ball was at the end of the previous simulation step
+    //This is used to smooth out the drawing between two steps
+    private float[] previousLeft;
+    private float[] previousTop;
+
+    //Represents the horizontal and vertical speed of every ball
+    //Note: These can be negative in value as well to indicate the direction.
+    //Ex: -x will travel left, +x will travel right, -y will travel up, and +y will travel down
+    private float[] xVelocity;
+    private float[] yVelocity;
+
+    //Keeps track of how many balls are in play
+    private int activeCount = 0;
+
+    /**
+     * This constructor is called when the pool is created/instantiated
+     * @param capacity the most balls that can be in play at the same time
+     */
+    public BallPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        left = new float[capacity];
+        top = new float[capacity];
+        previousLeft = new float[capacity];
+        previousTop = new float[capacity];
+        xVelocity = new float[capacity];
+        yVelocity = new float[capacity];
+    }
+
+    /**
+     * This method puts a new ball in play
+     * @return the index of the new ball, or -1 if the pool is already full
+     */
+    public int activate(float x, float y, float xVelocity, float yVelocity) {
+        if (activeCount == left.length) {
+            return -1;
+        }
+        int i = activeCount++;
+        this.xVelocity[i] = xVelocity;
+        this.yVelocity[i] = yVelocity;
+        moveTo(i, x, y);
+        savePosition(i);
+        return i;
+    }
+
+    /**
+     * This method takes a ball out of play. The last active ball is moved into its index,
+     * so when looping over the balls and removing some of them, loop from the end to the start.
+     */
+    public void deactivate(int i) {
+        int last = --activeCount;
+        left[i] = left[last];
+        top[i] = top[last];
+        previousLeft[i] = previousLeft[last];
+        previousTop[i] = previousTop[last];
+        xVelocity[i] = xVelocity[last];
+        yVelocity[i] = yVelocity[last];
+    }
+
+    /**
+     * This method takes every ball out of play
+     */
+    public void clear() {
+        activeCount = 0;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getCapacity() {
+        return left.length;
+    }
+
+    public float getLeft(int i) {
+        return left[i];
+    }
+
+    public float getTop(int i) {
+        return top[i];
+    }
+
+    public float getRight(int i) {
+        return left[i] + ballWidth;
+    }
+
+    public float getBottom(int i) {
+        return top[i] + ballHeight;
+    }
+
+    public float getXVelocity(int i) {
+        return xVelocity[i];
+    }
+
+    public float getYVelocity(int i) {
+        return yVelocity[i];
+    }
+
+    public int getWidth() {
+        return ballWidth;
+    }
+
+    public int getHeight() {
+        return ballHeight;
+    }
+
+    /**
+     * This method is used to remember where a ball is before it gets moved.
+     * It should be called right before every update.
+     */
+    public void savePosition(int i) {
+        previousLeft[i] = left[i];
+        previousTop[i] = top[i];
+    }
+
+    /**
+     * This method works out where to draw the left edge of a ball between the previous and the current step
+     * @param alpha how far between the two steps we are (0 = previous step, 1 = current step)
+     */
+    public float getInterpolatedLeft(int i, float alpha) {
+        return previousLeft[i] + (left[i] - previousLeft[i]) * alpha;
+    }
+
+    /**
+     * This method works out where to draw the top edge of a ball between the previous and the current step
+     * @param alpha how far between the two steps we are (0 = previous step, 1 = current step)
+     */
+    public float getInterpolatedTop(int i, float alpha) {
+        return previousTop[i] + (top[i] - previousTop[i]) * alpha;
+    }
+
+    /**
+     * This method moves a ball. The World works out how far it can move before it hits something.
+     * @param dx how far to move right (negative to move left)
+     * @param dy how far to move down (negative to move up)
+     */
+    public void moveBy(int i, float dx, float dy) {
+        left[i] += dx;
+        top[i] += dy;
+    }
+
+    /**
+     * This method places a ball with it's top left corner at the given position
+     */
+    public void moveTo(int i, float x, float y) {
+        left[i] = x;
+        top[i] = y;
+    }
+
+    /**
+     * This method sets the speed and direction of a ball
+     * @param xVelocity world units per second to the right (negative to go left)
+     * @param yVelocity world units per second down (negative to go up)
+     */
+    public void setVelocity(int i, float xVelocity, float yVelocity) {
+        this.xVelocity[i] = xVelocity;
+        this.yVelocity[i] = yVelocity;
+    }
+
+    /**
+     * This method is used to reverse the y direction of a ball
+     * if it collides with the walls or bricks
+     */
+    public void reverseYVelocity(int i) {
+        yVelocity[i] = -yVelocity[i];
+    }
+
+    /**
+     * This method is used to reverse the x direction of a ball
+     * if it collides with the walls or bricks
+     */
+    public void reverseXVelocity(int i) {
+        xVelocity[i] = -xVelocity[i];
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.breakoutgame;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class BatchSimulator {
+    /*
+        Note: This plays lots of games without a screen, with a PaddleController instead of a player,
+              to find out how changes to the paddle length, ball speed or wall change the game.
+              Every game gets its own World and controller, seeded from the game's number, so games
+              share nothing and the same batch always gives the same results.
+              The games are split between the cores with a ForkJoinPool: the range of games is cut in
+              half until the pieces are small, and every piece adds up its own BatchSummary.
+
+              Run it from the command line with:
+              ./gradlew :core:simulate --args="--games 20000 --paddle 160"
+     */
+
+    //A piece of the batch with this many games or less is played on one thread
+    private static final int GAMES_PER_TASK = 8;
+
+    //One in this many controller decisions is timed, to work out how long a decision takes
+    //Note: Reading the clock takes about as long as a decision, so timing every one would slow the batch down
+    private static final int DECISION_SAMPLE_MASK = 15;
+
+    //The game's settings. They must not be changed while run() is running
+    private int screenX = World.WIDTH;
+    private int screenY = World.HEIGHT;
+    private int wallRows = 3;
+    private int wallColumns = 10;
+    private float paddleLength = 130;
+    private float startXVelocity = World.START_X_VELOCITY;
+    private float startYVelocity = World.START_Y_VELOCITY;
+    private int stepsPerSecond = 120;
+    private boolean fixedPoint = false;
+
+    //A game that is still going after this many seconds of play is stopped
+    private int maxSecondsPerGame = 600;
+
+    //The seed of game number 0. Game n is seeded with seed + n
+    private long seed = 1;
+
+    private PaddleController.Factory controllers = TrackingController.FACTORY;
+
+    //How many threads play the games
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * This method plays a batch of games and adds up how they went
+     * @param games how many games to play
+     */
+    public BatchSummary run(int games) {
+        if (games < 0) {
+            throw new IllegalArgumentException("games must not be negative: " + games);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            BatchSummary summary = pool.invoke(new Games(this, seed, 0, games));
+            summary.setElapsedNanos(System.nanoTime() - start);
+            return summary;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This task plays the games from first up to, but not including, last
+     */
+    private static class Games extends RecursiveTask<BatchSummary> {
+        private static final long serialVersionUID = 1L;
+
+        private BatchSimulator simulator;
+        private long seed;
+        private int first;
+        private int last;
+
+        Games(BatchSimulator simulator, long seed, int first, int last) {
+            this.simulator = simulator;
+            this.seed = seed;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected BatchSummary compute() {
+            if (last - first <= GAMES_PER_TASK) {
+                BatchSummary summary = new BatchSummary();
+                for (int game = first; game < last; game++) {
+                    simulator.playGame(seed + game, summary);
+                }
+                return summary;
+            }
+            int middle = (first + last) >>> 1;
+            Games right = new Games(simulator, seed, middle, last);
+            right.fork();
+            BatchSummary summary = new Games(simulator, seed, first, middle).compute();
+            summary.merge(right.join());
+            return summary;
+        }
+    }
+
+    /**
+     * This method plays one game until every brick is destroyed, the last life is lost or the time runs out
+     * @param gameSeed the seed of the world and of the controller
+     * @param summary where the result is added
+     */
+    public void playGame(long gameSeed, BatchSummary summary) {
+        World world = new World(screenX, screenY);
+        world.setWallSize(wallRows, wallColumns);
+        world.setPaddleLength(paddleLength);
+        world.setStartVelocity(startXVelocity, startYVelocity);
+        world.setFixedPoint(fixedPoint);
+        world.setSeed(gameSeed);
+        world.restart();
+
+        PaddleController controller = controllers.create(gameSeed);
+        float dt = new FixedTimestep(stepsPerSecond, 1).getStepSeconds();
+        long maxSteps = (long) maxSecondsPerGame * stepsPerSecond;
+
+        int outcome = BatchSummary.TIMED_OUT;
+        long decisions = 0;
+        long timedDecisions = 0;
+        long decisionNanos = 0;
+        while (world.getStepCount() < maxSteps) {
+            if ((decisions++ & DECISION_SAMPLE_MASK) == 0) {
+                long start = System.nanoTime();
+                controller.update(world);
+                decisionNanos += System.nanoTime() - start;
+                timedDecisions++;
+            }
+            else {
+                controller.update(world);
+            }
+            world.step(dt);
+            if (world.getWallsCleared() > 0) {
+                outcome = BatchSummary.CLEARED;
+                break;
+            }
+            if (world.getGamesLost() > 0) {
+                outcome = BatchSummary.LOST;
+                break;
+            }
+        }
+        summary.addGame(outcome, world.getStepCount(), world.getBricksDestroyed(), world.getLivesLost());
+        summary.addDecisions(decisions, timedDecisions, decisionNanos);
+    }
+
+    public void setScreenSize(int screenX, int screenY) {
+        if (screenX <= 0 || screenY <= 0) {
+            throw new IllegalArgumentException("Screen size must be positive: " + screenX + " x " + screenY);
+        }
+        this.screenX = screenX;
+        this.screenY = screenY;
+    }
+
+    public void setWallSize(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Wall size must be positive: " + rows + " x " + columns);
+        }
+        wallRows = rows;
+        wallColumns = columns;
+    }
+
+    public void setPaddleLength(float paddleLength) {
+        this.paddleLength = paddleLength;
+    }
+
+    public void setStartVelocity(float xVelocity, float yVelocity) {
+        startXVelocity = xVelocity;
+        startYVelocity = yVelocity;
+    }
+
+    public void setStepsPerSecond(int stepsPerSecond) {
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    /**
+     * This method plays the games with FixedPointPhysics instead of floats, see World.setFixedPoint()
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+
+    public void setMaxSecondsPerGame(int maxSecondsPerGame) {
+        if (maxSecondsPerGame <= 0) {
+            throw new IllegalArgumentException("maxSecondsPerGame must be positive: " + maxSecondsPerGame);
+        }
+        this.maxSecondsPerGame = maxSecondsPerGame;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setControllers(PaddleController.Factory controllers) {
+        this.controllers = controllers;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public float getStepSeconds() {
+        return new FixedTimestep(stepsPerSecond, 1).getStepSeconds();
+    }
+
+    /**
+     * This method runs the simulator from the command line. Every option is optional:
+     * --games N, --threads N, --paddle LENGTH, --speed X Y, --wall ROWS COLUMNS, --screen WIDTH HEIGHT,
+     * --seconds MAX_SECONDS_PER_GAME, --seed SEED, --controller tracking|predictive|random, --fixed-point, and --scaling, which
+     * plays the batch with 1, 2, 4... threads up to --threads to show how the speed scales with cores.
+     */
+    public static void main(String[] args) throws IOException {
+        BatchSimulator simulator = new BatchSimulator();
+        int games = 10000;
+        boolean scaling = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--games":
+                        games = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        simulator.setParallelism(Integer.parseInt(args[++i]));
+                        break;
+                    case "--paddle":
+                        simulator.setPaddleLength(Float.parseFloat(args[++i]));
+                        break;
+                    case "--speed":
+                        simulator.setStartVelocity(Float.parseFloat(args[++i]), Float.parseFloat(args[++i]));
+                        break;
+                    case "--wall":
+                        simulator.setWallSize(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                        break;
+                    case "--screen":
+                        simulator.setScreenSize(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                        break;
+                    case "--seconds":
+                        simulator.setMaxSecondsPerGame(Integer.parseInt(args[++i]));
+                        break;
+                    case "--seed":
+                        simulator.setSeed(Long.parseLong(args[++i]));
+                        break;
+                    case "--controller":
+                        simulator.setControllers(controllerNamed(args[++i]));
+                        break;
+                    case "--fixed-point":
+                        simulator.setFixedPoint(true);
+                        break;
+                    case "--scaling":
+                        scaling = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            //Covers bad numbers, missing values and unknown options
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Options: --games N --threads N --paddle LENGTH --speed X Y --wall ROWS COLUMNS"
+                    + " --screen WIDTH HEIGHT --seconds MAX --seed SEED --controller tracking|predictive|random --fixed-point --scaling");
+            System.exit(1);
+            return;
+        }
+
+        if (scaling) {
+            //Warm up first, so the first (single thread) run isn't slowed down by the JIT compiler
+            simulator.run(Math.min(games, 1000));
+
+            int maxThreads = simulator.parallelism;
+            for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+                simulator.setParallelism(threads);
+                BatchSummary summary = simulator.run(games);
+                System.out.println(threads + " threads: "
+                        + String.format(Locale.ROOT, "%.0f", summary.getGamesPerSecond()) + " games per second");
+                if (threads == maxThreads) {
+                    break;
+                }
+            }
+            return;
+        }
+
+        BatchSummary summary = simulator.run(games);
+        summary.writeReport(System.out, simulator.getStepSeconds());
+    }
+
+    private static PaddleController.Factory controllerNamed(String name) {
+        switch (name) {
+            case "tracking":
+                return TrackingController.FACTORY;
+            case "predictive":
+                return PredictiveController.FACTORY;
+            case "random":
+                return RandomController.FACTORY;
+            default:
+                throw new IllegalArgumentException("Unknown controller: " + name);
+        }
+    }
+}
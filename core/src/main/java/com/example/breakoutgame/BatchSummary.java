@@ -0,0 +1,200 @@
+package com.example.breakoutgame;
+
+import java.io.IOException;
+import java.util.Locale;
+
+public class BatchSummary {
+    /*
+        Note: This adds up how a batch of games went. Every task of the BatchSimulator fills its
+              own summary, and the summaries are merged when the tasks are joined, so the threads
+              never write to the same summary.
+     */
+
+    //How a single game ended
+    public static final int CLEARED = 0;   //Every brick was destroyed
+    public static final int LOST = 1;      //The last life was lost
+    public static final int TIMED_OUT = 2; //The game was still going when the time ran out
+
+    private int games = 0;
+    private int cleared = 0;
+    private int lost = 0;
+    private int timedOut = 0;
+
+    //How many steps the games lasted, in total and the shortest and longest one
+    private long totalSteps = 0;
+    private long minSteps = Long.MAX_VALUE;
+    private long maxSteps = 0;
+
+    private long bricksDestroyed = 0;
+    private long livesLost = 0;
+
+    //How many times the controllers were asked what to do, and how long the ones that were timed took
+    private long decisions = 0;
+    private long timedDecisions = 0;
+    private long decisionNanos = 0;
+
+    //How long the batch took to run, in nanoseconds (set by the BatchSimulator)
+    private long elapsedNanos = 0;
+
+    /**
+     * This method adds the result of one game
+     * @param outcome CLEARED, LOST or TIMED_OUT
+     * @param steps how many steps the game lasted
+     */
+    public void addGame(int outcome, long steps, long bricks, long lives) {
+        games++;
+        switch (outcome) {
+            case CLEARED:
+                cleared++;
+                break;
+            case LOST:
+                lost++;
+                break;
+            default:
+                timedOut++;
+                break;
+        }
+        totalSteps += steps;
+        minSteps = Math.min(minSteps, steps);
+        maxSteps = Math.max(maxSteps, steps);
+        bricksDestroyed += bricks;
+        livesLost += lives;
+    }
+
+    /**
+     * This method adds the controller decisions of one game
+     * @param count how many decisions were made
+     * @param timed how many of them were timed
+     * @param nanos how long the timed ones took, in total
+     */
+    public void addDecisions(long count, long timed, long nanos) {
+        decisions += count;
+        timedDecisions += timed;
+        decisionNanos += nanos;
+    }
+
+    /**
+     * This method adds every game of another summary to this one
+     */
+    public void merge(BatchSummary other) {
+        games += other.games;
+        cleared += other.cleared;
+        lost += other.lost;
+        timedOut += other.timedOut;
+        totalSteps += other.totalSteps;
+        minSteps = Math.min(minSteps, other.minSteps);
+        maxSteps = Math.max(maxSteps, other.maxSteps);
+        bricksDestroyed += other.bricksDestroyed;
+        livesLost += other.livesLost;
+        decisions += other.decisions;
+        timedDecisions += other.timedDecisions;
+        decisionNanos += other.decisionNanos;
+    }
+
+    /**
+     * This method writes the summary as a few lines of text (Ex: to System.out)
+     * @param stepSeconds the length of one step, to turn steps into seconds of play
+     */
+    public void writeReport(Appendable out, float stepSeconds) throws IOException {
+        out.append("games            ").append(Integer.toString(games)).append('\n');
+        out.append("cleared          ").append(Integer.toString(cleared))
+                .append(" (").append(percent(cleared)).append(")\n");
+        out.append("lost             ").append(Integer.toString(lost))
+                .append(" (").append(percent(lost)).append(")\n");
+        out.append("timed out        ").append(Integer.toString(timedOut))
+                .append(" (").append(percent(timedOut)).append(")\n");
+        out.append("survival seconds avg ").append(format(getAverageSteps() * stepSeconds))
+                .append(" min ").append(format(getMinSteps() * stepSeconds))
+                .append(" max ").append(format(maxSteps * stepSeconds)).append('\n');
+        out.append("bricks per game  ").append(format(perGame(bricksDestroyed))).append('\n');
+        out.append("lives lost/game  ").append(format(perGame(livesLost))).append('\n');
+        out.append("decisions        ").append(Long.toString(decisions))
+                .append(" (").append(format(getNanosPerDecision())).append(" ns each)\n");
+        out.append("elapsed seconds  ").append(format(elapsedNanos / 1e9)).append('\n');
+        out.append("games per second ").append(format(getGamesPerSecond())).append('\n');
+        out.append("steps per second ").append(format(elapsedNanos == 0 ? 0 : totalSteps * 1e9 / elapsedNanos)).append('\n');
+    }
+
+    private String percent(int count) {
+        return format(games == 0 ? 0 : count * 100.0 / games) + "%";
+    }
+
+    private double perGame(long total) {
+        return games == 0 ? 0 : (double) total / games;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getCleared() {
+        return cleared;
+    }
+
+    public int getLost() {
+        return lost;
+    }
+
+    public int getTimedOut() {
+        return timedOut;
+    }
+
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+
+    public double getAverageSteps() {
+        return perGame(totalSteps);
+    }
+
+    public long getMinSteps() {
+        return games == 0 ? 0 : minSteps;
+    }
+
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    public long getBricksDestroyed() {
+        return bricksDestroyed;
+    }
+
+    public long getLivesLost() {
+        return livesLost;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * This method reports how long a controller decision took on average, from the ones that were timed
+     * Note: This includes reading the clock, which takes some tens of nanoseconds
+     */
+    public double getNanosPerDecision() {
+        return timedDecisions == 0 ? 0 : (double) decisionNanos / timedDecisions;
+    }
+
+    /**
+     * This method reports the share of the games where every brick was destroyed, from 0 to 1
+     */
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) cleared / games;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+}
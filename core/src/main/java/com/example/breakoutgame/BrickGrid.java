@@ -0,0 +1,106 @@
+package com.example.breakoutgame;
+
+import java.util.Arrays;
+
+public class BrickGrid {
+    /*
+        Note: The bricks are laid out on a perfect grid of rows and columns (see World.restart()),
+              so the cell a point is in can be worked out with one division. Instead of checking
+              every brick for a collision, the World only checks the few cells the ball overlaps.
+              Adding and removing a brick is just writing one array slot.
+     */
+
+    //Value stored in a cell that has no brick in it
+    public static final int EMPTY = -1;
+
+    //The size of the grid and of each cell, in pixels
+    private int rows;
+    private int columns;
+    private float cellWidth;
+    private float cellHeight;
+
+    //The index (in the World's bricks array) of the brick in each cell, or EMPTY
+    //Cells are stored row by row, so the cell at (row, column) is cells[row * columns + column]
+    private int[] cells = new int[0];
+
+    /**
+     * This method clears the grid and changes its size. The cells array is only
+     * reallocated when the new grid doesn't fit in the old one.
+     * @param rows how many rows of cells the grid has
+     * @param columns how many cells each row has
+     * @param cellWidth the width of one cell (the same as the brick width)
+     * @param cellHeight the height of one cell (the same as the brick height)
+     */
+    public void reset(int rows, int columns, float cellWidth, float cellHeight) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+
+        if (cells.length < rows * columns) {
+            cells = new int[rows * columns];
+        }
+        Arrays.fill(cells, 0, rows * columns, EMPTY);
+    }
+
+    /**
+     * This method puts a brick in a cell
+     * @param brickIndex the index of the brick in the World's bricks array
+     */
+    public void insert(int row, int column, int brickIndex) {
+        cells[row * columns + column] = brickIndex;
+    }
+
+    /**
+     * This method empties a cell, for when its brick gets destroyed
+     */
+    public void remove(int row, int column) {
+        cells[row * columns + column] = EMPTY;
+    }
+
+    /**
+     * This method reports which brick is in a cell
+     * @return the index of the brick in the World's bricks array, or EMPTY
+     */
+    public int get(int row, int column) {
+        return cells[row * columns + column];
+    }
+
+    /**
+     * This method works out which row a y position is in. The result is clamped to
+     * -1 (above the grid) and rows (below the grid) so the caller's loops stay inside the grid.
+     */
+    public int rowOf(float y) {
+        if (y < 0) {
+            return -1;
+        }
+        return (int) Math.min(y / cellHeight, rows);
+    }
+
+    /**
+     * This method works out which column an x position is in. The result is clamped to
+     * -1 (left of the grid) and columns (right of the grid) so the caller's loops stay inside the grid.
+     */
+    public int columnOf(float x) {
+        if (x < 0) {
+            return -1;
+        }
+        return (int) Math.min(x / cellWidth, columns);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public float getCellWidth() {
+        return cellWidth;
+    }
+
+    public float getCellHeight() {
+        return cellHeight;
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.breakoutgame;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BrickStore {
+    /*
+        Note: Instead of one Brick object (with its own rectangle) per brick, every brick is a
+              "slot" number and its edges are kept in plain float arrays. Which bricks are still
+              alive is kept in a bitset: bit i of the live array is 1 while brick i is on screen.
+              This keeps all of the bricks next to each other in memory, lets the loops skip
+              64 destroyed bricks at a time and makes clearing the wall a single array fill.
+
+              Bricks won't need an update method, because they're just a static object with a
+              location. They don't move or anything. Once hit by the ball, the bricks get destroyed.
+     */
+
+    //The kinds of brick. A level's cell with type EMPTY has no brick in it (see LevelPack)
+    public static final int EMPTY = 0;
+    public static final int NORMAL = 1;         //Destroyed once it has taken as many hits as its hit points
+    public static final int INDESTRUCTIBLE = 2; //Never destroyed, and doesn't have to be destroyed to clear the wall
+    public static final int EXPLOSIVE = 3;      //Destroys the bricks around it when it's destroyed, see ChainReaction
+
+    //The four edges of every brick, indexed by slot
+    private float[] left = new float[0];
+    private float[] top = new float[0];
+    private float[] right = new float[0];
+    private float[] bottom = new float[0];
+
+    //The row and column of the wall every brick is in, indexed by slot
+    private int[] row = new int[0];
+    private int[] column = new int[0];
+
+    //The type of every brick and how many more hits it takes, indexed by slot (0 to 255 each)
+    private byte[] type = new byte[0];
+    private byte[] hitPoints = new byte[0];
+
+    //One bit per slot, the bit is set while the brick is present/visible
+    private long[] live = new long[0];
+
+    //Keeps track of which brick is in each row/column of the wall, so the collision check
+    //only has to look at the bricks near the ball
+    private BrickGrid grid = new BrickGrid();
+
+    //How many live bricks are in every row and column of the wall, and the first and last row and
+    //column that still have any. Together they make a box around every brick that is left, which
+    //is shrunk as bricks are removed, so the World can skip the wall when the ball isn't near it.
+    private int[] rowLiveCount = new int[0];
+    private int[] columnLiveCount = new int[0];
+    private int firstLiveRow;
+    private int lastLiveRow;
+    private int firstLiveColumn;
+    private int lastLiveColumn;
+
+    private int size = 0; //Keeps track of the total bricks in the store
+    private int liveCount = 0; //Keeps track of how many bricks are left
+    private int destructibleCount = 0; //Keeps track of how many bricks are left that can be destroyed
+
+    //Changes every time the wall is reset, so anything that caches the bricks
+    //(Ex: a drawing of the wall) can tell when it has to start over
+    //Note: The numbers come from one counter shared by every store, so swapping in another store
+    //      (see LevelProgression) changes the version too
+    private static final AtomicInteger VERSIONS = new AtomicInteger();
+    private int version = 0;
+
+    /**
+     * This method removes every brick and sets up an empty wall of the given size.
+     * The arrays are only reallocated when the new wall doesn't fit in the old ones.
+     * @param rows how many rows of bricks the wall can have
+     * @param columns how many bricks each row can have
+     * @param brickWidth the width of one brick (and of one grid cell)
+     * @param brickHeight the height of one brick (and of one grid cell)
+     */
+    public void reset(int rows, int columns, int brickWidth, int brickHeight) {
+        ensureCapacity(rows * columns);
+        Arrays.fill(live, 0L);
+        grid.reset(rows, columns, brickWidth, brickHeight);
+        if (rowLiveCount.length < rows) {
+            rowLiveCount = new int[rows];
+        }
+        if (columnLiveCount.length < columns) {
+            columnLiveCount = new int[columns];
+        }
+        Arrays.fill(rowLiveCount, 0);
+        Arrays.fill(columnLiveCount, 0);
+
+        //An empty box: the first row is past the last one
+        firstLiveRow = rows;
+        lastLiveRow = -1;
+        firstLiveColumn = columns;
+        lastLiveColumn = -1;
+
+        size = 0;
+        liveCount = 0;
+        destructibleCount = 0;
+        version = VERSIONS.incrementAndGet();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (left.length >= capacity) {
+            return;
+        }
+        left = new float[capacity];
+        top = new float[capacity];
+        right = new float[capacity];
+        bottom = new float[capacity];
+        row = new int[capacity];
+        column = new int[capacity];
+        type = new byte[capacity];
+        hitPoints = new byte[capacity];
+        live = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * This method adds a normal brick that takes one hit to the wall at the given row and column
+     * @param brickRow the row of the wall the brick goes in
+     * @param brickColumn the column of the wall the brick goes in
+     * @param width the width of the brick, including the gap to the next brick
+     * @param height the height of the brick, including the gap to the next brick
+     * @return the slot the brick was stored in
+     */
+    public int add(int brickRow, int brickColumn, int width, int height) {
+        return add(brickRow, brickColumn, width, height, NORMAL, 1);
+    }
+
+    /**
+     * This method adds a brick to the wall at the given row and column
+     * @param brickType the kind of brick (Ex: NORMAL)
+     * @param brickHitPoints how many hits the brick takes (1 to 255, 0 is treated as 1)
+     * @return the slot the brick was stored in
+     */
+    public int add(int brickRow, int brickColumn, int width, int height, int brickType, int brickHitPoints) {
+        int slot = size++;
+
+        //Set the gap 1px between the next brick that gets created
+        int padding = 1;
+
+        //Initialize the brick
+        left[slot] = brickColumn * width + padding;
+        right[slot] = brickColumn * width + width - padding;
+        top[slot] = brickRow * height + padding;
+        bottom[slot] = brickRow * height + height - padding;
+        row[slot] = brickRow;
+        column[slot] = brickColumn;
+        type[slot] = (byte) brickType;
+        hitPoints[slot] = (byte) Math.max(brickHitPoints, 1);
+
+        live[slot >>> 6] |= 1L << slot;
+        grid.insert(brickRow, brickColumn, slot);
+        liveCount++;
+        if (brickType != INDESTRUCTIBLE) {
+            destructibleCount++;
+        }
+        growLiveBox(brickRow, brickColumn);
+        return slot;
+    }
+
+    /**
+     * This method is used to remove a brick once it gets hit
+     * @param slot the slot of the brick
+     */
+    public void remove(int slot) {
+        if (!isLive(slot)) {
+            return;
+        }
+        live[slot >>> 6] &= ~(1L << slot);
+        grid.remove(row[slot], column[slot]);
+        liveCount--;
+        if (type[slot] != INDESTRUCTIBLE) {
+            destructibleCount--;
+        }
+        shrinkLiveBox(row[slot], column[slot]);
+    }
+
+    /**
+     * This method puts a removed brick back in the wall (Ex: when a saved game is restored)
+     * @param slot the slot of the brick
+     */
+    public void revive(int slot) {
+        if (isLive(slot)) {
+            return;
+        }
+        live[slot >>> 6] |= 1L << slot;
+        grid.insert(row[slot], column[slot], slot);
+        liveCount++;
+        if (type[slot] != INDESTRUCTIBLE) {
+            destructibleCount++;
+        }
+        growLiveBox(row[slot], column[slot]);
+    }
+
+    private void growLiveBox(int brickRow, int brickColumn) {
+        rowLiveCount[brickRow]++;
+        columnLiveCount[brickColumn]++;
+        firstLiveRow = Math.min(firstLiveRow, brickRow);
+        lastLiveRow = Math.max(lastLiveRow, brickRow);
+        firstLiveColumn = Math.min(firstLiveColumn, brickColumn);
+        lastLiveColumn = Math.max(lastLiveColumn, brickColumn);
+    }
+
+    /**
+     * This method shrinks the box around the live bricks after a brick is removed.
+     * The box only moves inwards, so over a whole wall this costs one step per row and column.
+     */
+    private void shrinkLiveBox(int brickRow, int brickColumn) {
+        rowLiveCount[brickRow]--;
+        columnLiveCount[brickColumn]--;
+        if (liveCount == 0) {
+            firstLiveRow = grid.getRows();
+            lastLiveRow = -1;
+            firstLiveColumn = grid.getColumns();
+            lastLiveColumn = -1;
+            return;
+        }
+        while (rowLiveCount[firstLiveRow] == 0) {
+            firstLiveRow++;
+        }
+        while (rowLiveCount[lastLiveRow] == 0) {
+            lastLiveRow--;
+        }
+        while (columnLiveCount[firstLiveColumn] == 0) {
+            firstLiveColumn++;
+        }
+        while (columnLiveCount[lastLiveColumn] == 0) {
+            lastLiveColumn--;
+        }
+    }
+
+    /**
+     * This method will report the brick's state whether it's present or not.
+     */
+    public boolean isLive(int slot) {
+        return (live[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * This method finds the next brick that is still present, starting from the given slot.
+     * It's used to loop over only the bricks that are alive:
+     * for (int i = store.nextLive(0); i >= 0; i = store.nextLive(i + 1)) { ... }
+     * @return the slot of the next live brick, or -1 if there are none left
+     */
+    public int nextLive(int fromSlot) {
+        if (fromSlot >= size) {
+            return -1;
+        }
+        int word = fromSlot >>> 6;
+        long bits = live[word] & (-1L << fromSlot);
+        while (true) {
+            if (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return slot < size ? slot : -1;
+            }
+            word++;
+            if (word << 6 >= size) {
+                return -1;
+            }
+            bits = live[word];
+        }
+    }
+
+    public float getLeft(int slot) {
+        return left[slot];
+    }
+
+    public float getTop(int slot) {
+        return top[slot];
+    }
+
+    public float getRight(int slot) {
+        return right[slot];
+    }
+
+    public float getBottom(int slot) {
+        return bottom[slot];
+    }
+
+    public int getRow(int slot) {
+        return row[slot];
+    }
+
+    public int getColumn(int slot) {
+        return column[slot];
+    }
+
+    public int getType(int slot) {
+        return type[slot] & 0xFF;
+    }
+
+    public int getHitPoints(int slot) {
+        return hitPoints[slot] & 0xFF;
+    }
+
+    /**
+     * This method changes how many more hits a brick takes (Ex: when a saved game is restored)
+     */
+    public void setHitPoints(int slot, int brickHitPoints) {
+        hitPoints[slot] = (byte) brickHitPoints;
+    }
+
+    /**
+     * This method takes one hit point off of a brick. It doesn't remove the brick, see ChainReaction.
+     * @return how many hit points the brick has left
+     */
+    public int damage(int slot) {
+        int left = Math.max(getHitPoints(slot) - 1, 0);
+        hitPoints[slot] = (byte) left;
+        return left;
+    }
+
+    /**
+     * This method returns 64 bits of the live bitset: bit b of word w is set while the brick
+     * in slot w * 64 + b is present. It lets other classes compare whole words at a time.
+     */
+    public long getLiveWord(int word) {
+        return live[word];
+    }
+
+    /**
+     * This method reports how many words of the live bitset are in use
+     */
+    public int getLiveWordCount() {
+        return (size + 63) >>> 6;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * This method reports the left edge of the box around every live brick.
+     * The box is made of whole grid cells, so it's never smaller than the bricks in it.
+     * When there are no live bricks the box is empty: its left is past its right.
+     */
+    public float getLiveLeft() {
+        return firstLiveColumn * grid.getCellWidth();
+    }
+
+    public float getLiveTop() {
+        return firstLiveRow * grid.getCellHeight();
+    }
+
+    public float getLiveRight() {
+        return (lastLiveColumn + 1) * grid.getCellWidth();
+    }
+
+    public float getLiveBottom() {
+        return (lastLiveRow + 1) * grid.getCellHeight();
+    }
+
+    public BrickGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * This method reports the total number of bricks, including the ones that were destroyed
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method reports how many bricks are still present
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * This method reports how many bricks are still present that can be destroyed (not INDESTRUCTIBLE).
+     * The wall is cleared when this reaches 0.
+     */
+    public int getDestructibleCount() {
+        return destructibleCount;
+    }
+}
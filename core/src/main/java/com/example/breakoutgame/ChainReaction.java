@@ -0,0 +1,125 @@
+package com.example.breakoutgame;
+
+import java.util.Arrays;
+
+public class ChainReaction {
+    /*
+        Note: This decides which bricks are destroyed during a step. When the ball breaks a brick, the
+              brick isn't removed straight away: it's marked as pending (so nothing can hit it again)
+              and put in a list. At the end of the step, resolve() sets off the explosive bricks:
+              every explosive brick destroys the 8 bricks around it, and any of those that are
+              explosive go in the queue to explode next, breadth first, until the queue is empty.
+              Then every destroyed brick is removed from the store in one go.
+              A brick can only be destroyed once per step, so the list and the queue never need more
+              room than there are bricks. They're made when the wall is built, not during an explosion.
+     */
+
+    //The 8 cells around a cell, as row and column offsets
+    private static final int[] NEIGHBOR_ROWS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] NEIGHBOR_COLUMNS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    //One bit per slot, set while the brick has been destroyed but not removed yet
+    private long[] pending = new long[0];
+
+    //The bricks destroyed during this step, in the order they were destroyed
+    private int[] destroyed = new int[0];
+    private int destroyedCount = 0;
+
+    //The explosive bricks that still have to explode, from head up to, but not including, tail
+    private int[] explosions = new int[0];
+    private int explosionHead = 0;
+    private int explosionTail = 0;
+
+    /**
+     * This method empties the list and the queue, and makes sure they have room for every brick in the store.
+     * Call it every time the wall is rebuilt.
+     */
+    public void reset(BrickStore bricks) {
+        int capacity = bricks.size();
+        if (destroyed.length < capacity) {
+            destroyed = new int[capacity];
+            explosions = new int[capacity];
+            pending = new long[(capacity + 63) >>> 6];
+        }
+        else {
+            Arrays.fill(pending, 0L);
+        }
+        destroyedCount = 0;
+        explosionHead = 0;
+        explosionTail = 0;
+    }
+
+    /**
+     * This method reports whether a brick was destroyed during this step. Such a brick is still in the
+     * store until resolve() is called, but it must not be hit again.
+     */
+    public boolean isPending(int slot) {
+        return (pending[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * This method is called when the ball hits a brick
+     * @return true if the hit destroyed the brick
+     */
+    public boolean hit(BrickStore bricks, int slot) {
+        if (bricks.getType(slot) == BrickStore.INDESTRUCTIBLE || isPending(slot)) {
+            return false;
+        }
+        if (bricks.damage(slot) > 0) {
+            return false;
+        }
+        destroy(bricks, slot);
+        return true;
+    }
+
+    private void destroy(BrickStore bricks, int slot) {
+        pending[slot >>> 6] |= 1L << slot;
+        destroyed[destroyedCount++] = slot;
+        if (bricks.getType(slot) == BrickStore.EXPLOSIVE) {
+            explosions[explosionTail++] = slot;
+        }
+    }
+
+    /**
+     * This method sets off every explosion and then removes every brick destroyed during this step
+     * @return how many bricks were removed
+     */
+    public int resolve(BrickStore bricks) {
+        BrickGrid grid = bricks.getGrid();
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+
+        //Breadth first: every explosion destroys its neighbors before their own explosions go off
+        while (explosionHead < explosionTail) {
+            int slot = explosions[explosionHead++];
+            int row = bricks.getRow(slot);
+            int column = bricks.getColumn(slot);
+            for (int n = 0; n < NEIGHBOR_ROWS.length; n++) {
+                int r = row + NEIGHBOR_ROWS[n];
+                int c = column + NEIGHBOR_COLUMNS[n];
+                if (r < 0 || r >= rows || c < 0 || c >= columns) {
+                    continue;
+                }
+                int neighbor = grid.get(r, c);
+
+                //An explosion destroys a brick however many hit points it has left
+                if (neighbor != BrickGrid.EMPTY && !isPending(neighbor)
+                        && bricks.getType(neighbor) != BrickStore.INDESTRUCTIBLE) {
+                    destroy(bricks, neighbor);
+                }
+            }
+        }
+
+        //Remove every destroyed brick in one go
+        int removed = destroyedCount;
+        for (int i = 0; i < destroyedCount; i++) {
+            int slot = destroyed[i];
+            bricks.remove(slot);
+            pending[slot >>> 6] &= ~(1L << slot);
+        }
+        destroyedCount = 0;
+        explosionHead = 0;
+        explosionTail = 0;
+        return removed;
+    }
+}
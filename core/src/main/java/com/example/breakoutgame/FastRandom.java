@@ -0,0 +1,57 @@
+package com.example.breakoutgame;
+
+public class FastRandom {
+    /*
+        Note: This is a small xorshift random number generator (xorshift64*). It's much cheaper
+              than java.util.Random, isn't synchronized, and one instance is shared by the whole
+              World so nothing has to be created when the ball needs a random direction.
+     */
+
+    //The internal state of the generator. It must never be 0
+    private long state;
+
+    /**
+     * This constructor is called when the generator is created/instantiated
+     * @param seed any number, the same seed always gives the same sequence of numbers
+     */
+    public FastRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * This method restarts the sequence of numbers from the given seed
+     */
+    public void setSeed(long seed) {
+        //Mix the seed so that small seeds (0, 1, 2...) don't start with similar numbers
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        state = z != 0 ? z : 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * This method returns the next random 64 bit number
+     */
+    public long nextLong() {
+        state ^= state >>> 12;
+        state ^= state << 25;
+        state ^= state >>> 27;
+        return state * 0x2545F4914F6CDD1DL;
+    }
+
+    /**
+     * This method returns a random number from 0 up to, but not including, bound
+     */
+    public int nextInt(int bound) {
+        //Use the high 31 bits, they are the most random ones
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    /**
+     * This method returns a random float from 0 up to, but not including, 1
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.breakoutgame;
+
+public final class FixedPoint {
+    /*
+        Note: A fixed-point number is an int that counts 65536ths (16.16): the top 16 bits are the whole
+              part and the bottom 16 bits are the fraction. Ex: 1.5 is 0x18000. Adding and subtracting
+              them is plain int math, and multiplying and dividing only needs a shift around a long.
+              Every operation is exact integer math, so it gives the same bits on every device and JVM,
+              no matter how floats are rounded there. See FixedPointPhysics.
+
+              Positions up to +-32767 pixels and speeds up to +-32767 pixels per second fit.
+     */
+
+    //How many bits are after the point, and the number 1
+    public static final int FRACTION_BITS = 16;
+    public static final int ONE = 1 << FRACTION_BITS;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * This method turns a whole number into a fixed-point number
+     */
+    public static int fromInt(int value) {
+        return value << FRACTION_BITS;
+    }
+
+    /**
+     * This method turns a float into the nearest fixed-point number
+     */
+    public static int fromFloat(float value) {
+        return Math.round(value * ONE);
+    }
+
+    /**
+     * This method turns a fixed-point number into a float (Ex: for drawing). Floats have fewer bits than
+     * a fixed-point number, so very big values lose the last bits of their fraction.
+     */
+    public static float toFloat(int value) {
+        return value / (float) ONE;
+    }
+
+    /**
+     * This method multiplies two fixed-point numbers. The result is rounded down.
+     */
+    public static int multiply(int a, int b) {
+        return (int) (((long) a * b) >> FRACTION_BITS);
+    }
+
+    /**
+     * This method divides two fixed-point numbers. The result is rounded towards zero, and kept as a long
+     * because it can be too big for an int (Ex: a time of impact far past the end of the step).
+     * @param b must not be 0
+     */
+    public static long divide(int a, int b) {
+        return ((long) a << FRACTION_BITS) / b;
+    }
+}
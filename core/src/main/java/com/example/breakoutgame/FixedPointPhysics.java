@@ -0,0 +1,421 @@
+package com.example.breakoutgame;
+
+public class FixedPointPhysics implements Physics {
+    /*
+        Note: This moves the balls and the paddle with 16.16 fixed-point ints (see FixedPoint) instead of
+              floats. Floats are rounded after every operation, and a different order of operations or
+              a different compiler can round differently, so two devices can slowly drift apart.
+              Ints are exact, so a game played with this physics ends up with the same bits everywhere.
+
+              The fixed-point positions and speeds are kept in arrays here, and they are the real state
+              of the game. After every move they are copied into the BallPool and the Paddle as floats,
+              so drawing, saving and everything else that reads them keeps working.
+              If a ball or the paddle is placed from outside (Ex: restart() or addBall()), the floats
+              no longer match the copy, and beginStep() reads them back in.
+              A float only has 24 bits, so past 256 pixels it can't hold every bit of a fixed-point position.
+              That's why a saved game (see GameState) keeps the ints themselves and puts them back with
+              setBall() and setPaddleLeft(), otherwise the restored game would carry on from rounded positions.
+
+              The bricks and the walls are on whole pixels, so they're turned into fixed-point exactly.
+     */
+
+    private World world;
+    private BallPool balls;
+    private Paddle paddle;
+
+    //The top left corner and the speed (in pixels per second) of every ball, in fixed-point, indexed like the BallPool
+    private int[] left;
+    private int[] top;
+    private int[] xVelocity;
+    private int[] yVelocity;
+
+    //How many balls are in the arrays, the same as the BallPool's active count unless the pool was changed from outside
+    private int count = -1;
+
+    //The left edge of the paddle
+    private int paddleX;
+
+    //The length of the current step in seconds, and how much of the ball's step is left to move (from ONE to 0)
+    private int dt;
+    private int remaining;
+
+    //The first thing the ball hits during the current move (see findFirstHit)
+    private int hitKind;
+    private int hitTime;
+    private boolean hitXFace;
+    private int hitSlot;
+
+    //The time of impact and the face found by the last call to sweep()
+    private long sweepTime;
+    private boolean sweepXFace;
+
+    //See Physics.getBroadPhaseHits()
+    private long broadPhaseHits = 0;
+    private long broadPhaseMisses = 0;
+
+    /**
+     * This constructor is called when the physics is created/instantiated
+     * @param world the world whose balls and paddle are moved. Their current positions are read in
+     */
+    public FixedPointPhysics(World world) {
+        this.world = world;
+        this.balls = world.getBalls();
+        this.paddle = world.getPaddle();
+        left = new int[balls.getCapacity()];
+        top = new int[balls.getCapacity()];
+        xVelocity = new int[balls.getCapacity()];
+        yVelocity = new int[balls.getCapacity()];
+        reload();
+    }
+
+    @Override
+    public void reload() {
+        count = balls.getActiveCount();
+        for (int i = 0; i < count; i++) {
+            loadBall(i);
+        }
+        paddleX = FixedPoint.fromFloat(paddle.getLeft());
+    }
+
+    private void loadBall(int i) {
+        left[i] = FixedPoint.fromFloat(balls.getLeft(i));
+        top[i] = FixedPoint.fromFloat(balls.getTop(i));
+        xVelocity[i] = FixedPoint.fromFloat(balls.getXVelocity(i));
+        yVelocity[i] = FixedPoint.fromFloat(balls.getYVelocity(i));
+    }
+
+    /**
+     * This method copies a ball into the BallPool, so it can be drawn and saved
+     */
+    private void storeBall(int i) {
+        balls.moveTo(i, FixedPoint.toFloat(left[i]), FixedPoint.toFloat(top[i]));
+        balls.setVelocity(i, FixedPoint.toFloat(xVelocity[i]), FixedPoint.toFloat(yVelocity[i]));
+    }
+
+    @Override
+    public void beginStep(float dt) {
+        this.dt = FixedPoint.fromFloat(dt);
+        sync();
+    }
+
+    /**
+     * This method reads in any ball or the paddle that was placed from outside since the last step,
+     * so the fixed-point copy matches what's in the BallPool and the Paddle again
+     */
+    public void sync() {
+        if (count != balls.getActiveCount()) {
+            reload();
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (balls.getLeft(i) != FixedPoint.toFloat(left[i]) || balls.getTop(i) != FixedPoint.toFloat(top[i])
+                    || balls.getXVelocity(i) != FixedPoint.toFloat(xVelocity[i])
+                    || balls.getYVelocity(i) != FixedPoint.toFloat(yVelocity[i])) {
+                loadBall(i);
+            }
+        }
+        if (paddle.getLeft() != FixedPoint.toFloat(paddleX)) {
+            paddleX = FixedPoint.fromFloat(paddle.getLeft());
+        }
+    }
+
+    /**
+     * Note: This does the same as Paddle.update(), in fixed-point
+     */
+    @Override
+    public void movePaddle() {
+        int movement = paddle.getMovement();
+        if (movement == Paddle.LEFT) {
+            paddleX -= FixedPoint.multiply(FixedPoint.fromFloat(paddle.getSpeed()), dt);
+        }
+        else if (movement == Paddle.RIGHT) {
+            paddleX += FixedPoint.multiply(FixedPoint.fromFloat(paddle.getSpeed()), dt);
+        }
+        else if (movement == Paddle.DRAG) {
+            //Go straight to where the finger is, but don't go off screen
+            int furthest = FixedPoint.fromInt(world.getScreenX()) - FixedPoint.fromFloat(paddle.getLength());
+            paddleX = Math.max(0, Math.min(FixedPoint.fromFloat(paddle.getTarget()), furthest));
+        }
+        else {
+            return;
+        }
+        paddle.setLeft(FixedPoint.toFloat(paddleX));
+    }
+
+    @Override
+    public void beginMove(int ball) {
+        remaining = FixedPoint.ONE;
+    }
+
+    @Override
+    public int moveToFirstHit(int ball) {
+        if (remaining <= 0) {
+            return HIT_NONE;
+        }
+        int moveX = FixedPoint.multiply(FixedPoint.multiply(xVelocity[ball], dt), remaining);
+        int moveY = FixedPoint.multiply(FixedPoint.multiply(yVelocity[ball], dt), remaining);
+
+        findFirstHit(ball, moveX, moveY);
+
+        //Move the ball up to the point where it hits something (or all the way if it hits nothing)
+        left[ball] += FixedPoint.multiply(moveX, hitTime);
+        top[ball] += FixedPoint.multiply(moveY, hitTime);
+        remaining = FixedPoint.multiply(remaining, FixedPoint.ONE - hitTime);
+        storeBall(ball);
+        return hitKind;
+    }
+
+    /**
+     * This method finds the first thing a ball hits if it moves by (moveX, moveY), the same way as
+     * FloatPhysics. The result is stored in hitKind, hitTime, hitXFace and hitSlot.
+     */
+    private void findFirstHit(int ball, int moveX, int moveY) {
+        hitKind = HIT_NONE;
+        hitTime = FixedPoint.ONE;
+        hitXFace = false;
+        hitSlot = -1;
+
+        int ballLeft = left[ball];
+        int ballTop = top[ball];
+        int ballRight = ballLeft + FixedPoint.fromInt(balls.getWidth());
+        int ballBottom = ballTop + FixedPoint.fromInt(balls.getHeight());
+
+        //Check for collision between the 4 walls of the screen
+        if (moveX < 0) {
+            setHitIfEarlier(HIT_LEFT_WALL, Math.max(FixedPoint.divide(-ballLeft, moveX), 0), true);
+        }
+        else if (moveX > 0) {
+            setHitIfEarlier(HIT_RIGHT_WALL,
+                    Math.max(FixedPoint.divide(FixedPoint.fromInt(world.getScreenX()) - ballRight, moveX), 0), true);
+        }
+        if (moveY < 0) {
+            setHitIfEarlier(HIT_TOP_WALL, Math.max(FixedPoint.divide(-ballTop, moveY), 0), false);
+        }
+        else if (moveY > 0) {
+            setHitIfEarlier(HIT_BOTTOM_WALL,
+                    Math.max(FixedPoint.divide(FixedPoint.fromInt(world.getScreenY()) - ballBottom, moveY), 0), false);
+        }
+
+        //Check for ball and paddle collision (only a falling ball can hit it)
+        int paddleTop = FixedPoint.fromFloat(paddle.getTop());
+        if (moveY > 0 && sweep(ballLeft, ballTop, ballRight, ballBottom, moveX, moveY,
+                paddleX, paddleTop, paddleX + FixedPoint.fromFloat(paddle.getLength()),
+                FixedPoint.fromFloat(paddle.getBottom()))) {
+            setHitIfEarlier(HIT_PADDLE, sweepTime, sweepXFace);
+        }
+
+        //The area the ball passes through during the move
+        int sweptLeft = Math.min(ballLeft, ballLeft + moveX);
+        int sweptTop = Math.min(ballTop, ballTop + moveY);
+        int sweptRight = Math.max(ballRight, ballRight + moveX);
+        int sweptBottom = Math.max(ballBottom, ballBottom + moveY);
+
+        //Broad phase: skip the bricks if that area doesn't touch the box around the bricks that are left
+        BrickStore bricks = world.getBricks();
+        if (sweptRight < FixedPoint.fromFloat(bricks.getLiveLeft()) || sweptLeft > FixedPoint.fromFloat(bricks.getLiveRight())
+                || sweptBottom < FixedPoint.fromFloat(bricks.getLiveTop())
+                || sweptTop > FixedPoint.fromFloat(bricks.getLiveBottom())) {
+            broadPhaseMisses++;
+            return;
+        }
+        broadPhaseHits++;
+
+        //Check the cells of the wall the ball passes through
+        ChainReaction chain = world.getChain();
+        BrickGrid brickGrid = bricks.getGrid();
+        int firstRow = Math.max(brickGrid.rowOf(FixedPoint.toFloat(sweptTop)), 0);
+        int lastRow = Math.min(brickGrid.rowOf(FixedPoint.toFloat(sweptBottom)), brickGrid.getRows() - 1);
+        int firstColumn = Math.max(brickGrid.columnOf(FixedPoint.toFloat(sweptLeft)), 0);
+        int lastColumn = Math.min(brickGrid.columnOf(FixedPoint.toFloat(sweptRight)), brickGrid.getColumns() - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstColumn; col <= lastColumn; col++) {
+                int i = brickGrid.get(row, col);
+                if (i != BrickGrid.EMPTY && !chain.isPending(i)
+                        && sweep(ballLeft, ballTop, ballRight, ballBottom, moveX, moveY,
+                        FixedPoint.fromFloat(bricks.getLeft(i)), FixedPoint.fromFloat(bricks.getTop(i)),
+                        FixedPoint.fromFloat(bricks.getRight(i)), FixedPoint.fromFloat(bricks.getBottom(i)))
+                        && setHitIfEarlier(HIT_BRICK, sweepTime, sweepXFace)) {
+                    hitSlot = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method checks if a box moving by (dx, dy) touches a still box before the end of the move.
+     * It's SweptAabb.sweep() in fixed-point, the time is stored in sweepTime and the face in sweepXFace.
+     */
+    private boolean sweep(int boxLeft, int boxTop, int boxRight, int boxBottom, int dx, int dy,
+                          int targetLeft, int targetTop, int targetRight, int targetBottom) {
+        //Work out when the moving box starts and stops overlapping the target on each axis
+        long xEntry;
+        long xExit;
+        if (dx > 0) {
+            xEntry = FixedPoint.divide(targetLeft - boxRight, dx);
+            xExit = FixedPoint.divide(targetRight - boxLeft, dx);
+        }
+        else if (dx < 0) {
+            xEntry = FixedPoint.divide(targetRight - boxLeft, dx);
+            xExit = FixedPoint.divide(targetLeft - boxRight, dx);
+        }
+        else if (boxLeft < targetRight && targetLeft < boxRight) {
+            xEntry = Long.MIN_VALUE;
+            xExit = Long.MAX_VALUE;
+        }
+        else {
+            return false;
+        }
+
+        long yEntry;
+        long yExit;
+        if (dy > 0) {
+            yEntry = FixedPoint.divide(targetTop - boxBottom, dy);
+            yExit = FixedPoint.divide(targetBottom - boxTop, dy);
+        }
+        else if (dy < 0) {
+            yEntry = FixedPoint.divide(targetBottom - boxTop, dy);
+            yExit = FixedPoint.divide(targetTop - boxBottom, dy);
+        }
+        else if (boxTop < targetBottom && targetTop < boxBottom) {
+            yEntry = Long.MIN_VALUE;
+            yExit = Long.MAX_VALUE;
+        }
+        else {
+            return false;
+        }
+
+        long entry = Math.max(xEntry, yEntry);
+        long exit = Math.min(xExit, yExit);
+        if (entry >= exit || exit <= 0 || entry > FixedPoint.ONE) {
+            return false;
+        }
+        sweepTime = Math.max(entry, 0);
+        sweepXFace = xEntry > yEntry;
+        return true;
+    }
+
+    /**
+     * This method remembers a hit if it happens before the earliest hit found so far
+     * @return true if the hit was remembered
+     */
+    private boolean setHitIfEarlier(int kind, long time, boolean xFace) {
+        if (time >= hitTime) {
+            return false;
+        }
+        hitKind = kind;
+        hitTime = (int) time;
+        hitXFace = xFace;
+        return true;
+    }
+
+    @Override
+    public int getHitSlot() {
+        return hitSlot;
+    }
+
+    @Override
+    public boolean isHitXFace() {
+        return hitXFace;
+    }
+
+    @Override
+    public boolean isHitAfterStart() {
+        return hitTime > 0;
+    }
+
+    @Override
+    public void reverseXVelocity(int ball) {
+        xVelocity[ball] = -xVelocity[ball];
+        storeBall(ball);
+    }
+
+    @Override
+    public void reverseYVelocity(int ball) {
+        yVelocity[ball] = -yVelocity[ball];
+        storeBall(ball);
+    }
+
+    @Override
+    public void putOnPaddle(int ball) {
+        int paddleTop = FixedPoint.fromFloat(paddle.getTop());
+        int ballHeight = FixedPoint.fromInt(balls.getHeight());
+        if (top[ball] + ballHeight > paddleTop) {
+            top[ball] = paddleTop - ballHeight;
+            storeBall(ball);
+        }
+    }
+
+    @Override
+    public void deactivate(int ball) {
+        //The last ball takes this one's place, the same as in the BallPool
+        int last = --count;
+        left[ball] = left[last];
+        top[ball] = top[last];
+        xVelocity[ball] = xVelocity[last];
+        yVelocity[ball] = yVelocity[last];
+        balls.deactivate(ball);
+    }
+
+    /**
+     * These methods report the fixed-point state of a ball and the paddle, as of the last step
+     */
+    public int getLeft(int ball) {
+        return left[ball];
+    }
+
+    public int getTop(int ball) {
+        return top[ball];
+    }
+
+    public int getXVelocity(int ball) {
+        return xVelocity[ball];
+    }
+
+    public int getYVelocity(int ball) {
+        return yVelocity[ball];
+    }
+
+    public int getPaddleLeft() {
+        return paddleX;
+    }
+
+    /**
+     * This method puts back the exact fixed-point state of a ball (Ex: from a saved game).
+     * The ball must already be in the BallPool, and it's moved there too.
+     */
+    public void setBall(int ball, int left, int top, int xVelocity, int yVelocity) {
+        if (ball < 0 || ball >= balls.getActiveCount()) {
+            throw new IllegalArgumentException("No ball " + ball + " in play");
+        }
+        sync();
+        this.left[ball] = left;
+        this.top[ball] = top;
+        this.xVelocity[ball] = xVelocity;
+        this.yVelocity[ball] = yVelocity;
+        storeBall(ball);
+    }
+
+    /**
+     * This method puts back the exact fixed-point left edge of the paddle (Ex: from a saved game)
+     */
+    public void setPaddleLeft(int paddleLeft) {
+        paddleX = paddleLeft;
+        paddle.setLeft(FixedPoint.toFloat(paddleX));
+    }
+
+    @Override
+    public long getBroadPhaseHits() {
+        return broadPhaseHits;
+    }
+
+    @Override
+    public long getBroadPhaseMisses() {
+        return broadPhaseMisses;
+    }
+
+    @Override
+    public void resetBroadPhaseCounters() {
+        broadPhaseHits = 0;
+        broadPhaseMisses = 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.breakoutgame;
+
+public class FixedTimestep {
+    //Number of nanoseconds in one second, used to convert between seconds and System.nanoTime()
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    //The length of a single simulation step in nanoseconds and in seconds
+    private long stepNanos;
+    private float stepSeconds;
+
+    //The most simulation steps that are allowed to run for a single rendered frame
+    //This stops a slow frame from turning into a "spiral of death" where every frame
+    //has more catching up to do than the last one
+    private int maxStepsPerFrame;
+
+    //Time that has passed but hasn't been simulated yet
+    private long accumulator;
+
+    //The time (from System.nanoTime()) of the previous call to advance()
+    private long lastTime;
+
+    //Keeps track of weather start() was called since the clock was created or reset
+    private boolean started;
+
+    /**
+     * This constructor is called when the clock is created/instantiated
+     * @param stepsPerSecond how many simulation steps run in one second (Ex: 120)
+     * @param maxStepsPerFrame the most steps advance() will ever ask for in one frame
+     */
+    public FixedTimestep(int stepsPerSecond, int maxStepsPerFrame) {
+        if (stepsPerSecond <= 0) {
+            throw new IllegalArgumentException("stepsPerSecond must be positive: " + stepsPerSecond);
+        }
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("maxStepsPerFrame must be positive: " + maxStepsPerFrame);
+        }
+
+        stepNanos = NANOS_PER_SECOND / stepsPerSecond;
+        stepSeconds = (float) stepNanos / NANOS_PER_SECOND;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * This method changes the most steps advance() will ask for in one frame (Ex: when the device is
+     * overloaded, see FrameGovernor). The length of a step doesn't change, so replays still match.
+     */
+    public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("maxStepsPerFrame must be positive: " + maxStepsPerFrame);
+        }
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    public int getMaxStepsPerFrame() {
+        return maxStepsPerFrame;
+    }
+
+    /**
+     * This method is used to start (or restart) the clock from the given time.
+     * Any time that was waiting to be simulated is thrown away.
+     * @param now the current time from System.nanoTime()
+     */
+    public void start(long now) {
+        lastTime = now;
+        accumulator = 0;
+        started = true;
+    }
+
+    /**
+     * This method adds the time that passed since the last call to the accumulator
+     * and works out how many fixed steps need to run to catch up.
+     * @param now the current time from System.nanoTime()
+     * @return the number of simulation steps to run this frame (never more than maxStepsPerFrame)
+     */
+    public int advance(long now) {
+        if (!started) {
+            start(now);
+            return 0;
+        }
+
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int steps = (int) Math.min(accumulator / stepNanos, maxStepsPerFrame);
+        accumulator -= steps * stepNanos;
+
+        //If the frame was so slow that we still couldn't catch up, drop the extra time
+        //instead of carrying it into the next frame. The game will slow down for a moment
+        //instead of freezing while it tries to catch up.
+        if (accumulator >= stepNanos) {
+            accumulator %= stepNanos;
+        }
+        return steps;
+    }
+
+    /**
+     * This method reports how far between the last simulated step and the next one we are.
+     * It is used to blend the previous and current positions when drawing so the motion
+     * looks smooth even when draw() runs at a different rate than the simulation.
+     * @return a value from 0 (at the last step) up to, but not including, 1 (at the next step)
+     */
+    public float getAlpha() {
+        return (float) accumulator / stepNanos;
+    }
+
+    /**
+     * This method reports how long until the next simulation step is due
+     * @return the time in nanoseconds, as of the last call to advance()
+     */
+    public long getNanosUntilNextStep() {
+        return stepNanos - accumulator;
+    }
+
+    /**
+     * This method reports the length of one simulation step
+     * @return the step length in seconds (Ex: 1/120th of a second)
+     */
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * This method reports the length of one simulation step
+     * @return the step length in nanoseconds
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.breakoutgame;
+
+public class FloatPhysics implements Physics {
+    /*
+        Note: This moves the balls and the paddle with floats, straight in the BallPool and the Paddle.
+              It's the default physics of the World, see Physics.
+     */
+
+    private World world;
+    private BallPool balls;
+    private Paddle paddle;
+
+    //The length of the current step in seconds
+    private float dt;
+
+    //How much of the ball's step is left to move, from 1 (all of it) to 0 (none)
+    private float remaining;
+
+    //Works out when the moving ball touches a brick or the paddle
+    private SweptAabb sweep = new SweptAabb();
+
+    //The first thing the ball hits during the current move (see findFirstHit)
+    private int hitKind;
+    private float hitTime;
+    private boolean hitXFace;
+    private int hitSlot;
+
+    //How many ball moves touched the box around the live bricks (so the bricks were checked),
+    //and how many didn't (so checking the bricks was skipped), see resetBroadPhaseCounters()
+    private long broadPhaseHits = 0;
+    private long broadPhaseMisses = 0;
+
+    /**
+     * This constructor is called when the physics is created/instantiated
+     * @param world the world whose balls and paddle are moved
+     */
+    public FloatPhysics(World world) {
+        this.world = world;
+        this.balls = world.getBalls();
+        this.paddle = world.getPaddle();
+    }
+
+    @Override
+    public void beginStep(float dt) {
+        this.dt = dt;
+    }
+
+    @Override
+    public void reload() {
+        //The floats in the BallPool and Paddle are all there is
+    }
+
+    @Override
+    public void movePaddle() {
+        paddle.update(dt);
+    }
+
+    @Override
+    public void beginMove(int ball) {
+        remaining = 1;
+    }
+
+    /**
+     * Note: The ball isn't just moved to the end of the step and then checked for overlaps,
+     *       because a fast ball could jump straight over a brick or the paddle. Instead, the
+     *       earliest thing along the ball's path is found and the ball is moved up to it.
+     *       The World bounces it, and then the rest of the step is used up the same way.
+     */
+    @Override
+    public int moveToFirstHit(int ball) {
+        if (remaining <= 0) {
+            return HIT_NONE;
+        }
+        float moveX = balls.getXVelocity(ball) * dt * remaining;
+        float moveY = balls.getYVelocity(ball) * dt * remaining;
+
+        findFirstHit(ball, moveX, moveY);
+
+        //Move the ball up to the point where it hits something (or all the way if it hits nothing)
+        balls.moveBy(ball, moveX * hitTime, moveY * hitTime);
+        remaining *= 1 - hitTime;
+        return hitKind;
+    }
+
+    /**
+     * This method finds the first thing a ball hits if it moves by (moveX, moveY).
+     * The result is stored in hitKind, hitTime, hitXFace and hitSlot.
+     */
+    private void findFirstHit(int ball, float moveX, float moveY) {
+        hitKind = HIT_NONE;
+        hitTime = 1;
+        hitXFace = false;
+        hitSlot = -1;
+
+        float left = balls.getLeft(ball);
+        float top = balls.getTop(ball);
+        float right = balls.getRight(ball);
+        float bottom = balls.getBottom(ball);
+
+        //Check for collision between the 4 walls of the screen\\
+        //Note: If the ball is already past a wall (Ex: the screen got smaller) it bounces right away
+        if (moveX < 0) {
+            setHitIfEarlier(HIT_LEFT_WALL, Math.max(-left / moveX, 0), true);
+        }
+        else if (moveX > 0) {
+            setHitIfEarlier(HIT_RIGHT_WALL, Math.max((world.getScreenX() - right) / moveX, 0), true);
+        }
+        if (moveY < 0) {
+            setHitIfEarlier(HIT_TOP_WALL, Math.max(-top / moveY, 0), false);
+        }
+        else if (moveY > 0) {
+            setHitIfEarlier(HIT_BOTTOM_WALL, Math.max((world.getScreenY() - bottom) / moveY, 0), false);
+        }
+
+        //Check for ball and paddle collision\\
+        //Note: Only a ball that is falling can hit the paddle, so it can't get caught in a loop
+        //      bouncing around inside of it
+        if (moveY > 0 && sweep.sweep(left, top, right, bottom, moveX, moveY,
+                paddle.getLeft(), paddle.getTop(), paddle.getRight(), paddle.getBottom())) {
+            setHitIfEarlier(HIT_PADDLE, sweep.getTime(), sweep.isXFace());
+        }
+
+        //The area the ball passes through during the move. It only grows in the direction the ball
+        //is going, so a ball moving away from the wall never reaches it
+        float sweptLeft = Math.min(left, left + moveX);
+        float sweptTop = Math.min(top, top + moveY);
+        float sweptRight = Math.max(right, right + moveX);
+        float sweptBottom = Math.max(bottom, bottom + moveY);
+
+        //Broad phase: if that area doesn't touch the box around the bricks that are left,
+        //none of the bricks can be hit, so they aren't looked at
+        BrickStore bricks = world.getBricks();
+        if (sweptRight < bricks.getLiveLeft() || sweptLeft > bricks.getLiveRight()
+                || sweptBottom < bricks.getLiveTop() || sweptTop > bricks.getLiveBottom()) {
+            broadPhaseMisses++;
+            return;
+        }
+        broadPhaseHits++;
+
+        //Check for ball and brick collision by looking at the cells of the wall the ball passes through\\
+        //Note: Removed bricks are taken out of the grid, so they are never checked again
+        ChainReaction chain = world.getChain();
+        BrickGrid brickGrid = bricks.getGrid();
+        int firstRow = Math.max(brickGrid.rowOf(sweptTop), 0);
+        int lastRow = Math.min(brickGrid.rowOf(sweptBottom), brickGrid.getRows() - 1);
+        int firstColumn = Math.max(brickGrid.columnOf(sweptLeft), 0);
+        int lastColumn = Math.min(brickGrid.columnOf(sweptRight), brickGrid.getColumns() - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstColumn; col <= lastColumn; col++) {
+                int i = brickGrid.get(row, col);
+
+                //If there is a brick in this cell and the ball runs into it before anything else
+                //Note: A brick destroyed earlier in this step is still in the grid until the end of the step
+                if (i != BrickGrid.EMPTY && !chain.isPending(i)
+                        && sweep.sweep(left, top, right, bottom, moveX, moveY,
+                        bricks.getLeft(i), bricks.getTop(i), bricks.getRight(i), bricks.getBottom(i))
+                        && setHitIfEarlier(HIT_BRICK, sweep.getTime(), sweep.isXFace())) {
+                    hitSlot = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method remembers a hit if it happens before the earliest hit found so far
+     * @return true if the hit was remembered
+     */
+    private boolean setHitIfEarlier(int kind, float time, boolean xFace) {
+        if (time >= hitTime) {
+            return false;
+        }
+        hitKind = kind;
+        hitTime = time;
+        hitXFace = xFace;
+        return true;
+    }
+
+    @Override
+    public int getHitSlot() {
+        return hitSlot;
+    }
+
+    @Override
+    public boolean isHitXFace() {
+        return hitXFace;
+    }
+
+    @Override
+    public boolean isHitAfterStart() {
+        return hitTime > 0;
+    }
+
+    @Override
+    public void reverseXVelocity(int ball) {
+        balls.reverseXVelocity(ball);
+    }
+
+    @Override
+    public void reverseYVelocity(int ball) {
+        balls.reverseYVelocity(ball);
+    }
+
+    @Override
+    public void putOnPaddle(int ball) {
+        if (balls.getBottom(ball) > paddle.getTop()) {
+            balls.moveTo(ball, balls.getLeft(ball), paddle.getTop() - balls.getHeight());
+        }
+    }
+
+    @Override
+    public void deactivate(int ball) {
+        balls.deactivate(ball);
+    }
+
+    @Override
+    public long getBroadPhaseHits() {
+        return broadPhaseHits;
+    }
+
+    @Override
+    public long getBroadPhaseMisses() {
+        return broadPhaseMisses;
+    }
+
+    @Override
+    public void resetBroadPhaseCounters() {
+        broadPhaseHits = 0;
+        broadPhaseMisses = 0;
+    }
+}
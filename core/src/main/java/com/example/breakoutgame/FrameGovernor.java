@@ -0,0 +1,210 @@
+package com.example.breakoutgame;
+
+import java.util.concurrent.locks.LockSupport;
+
+public class FrameGovernor {
+    /*
+        Note: This paces the render thread to the screen's refresh rate and trades quality for speed
+              when the device can't keep up. Every frame it:
+                1. records how long the frame's work took in a LatencyHistogram. The caller measures it, so
+                   time spent blocked on the screen (Ex: in lockCanvas()) isn't counted as work,
+                2. waits until the next frame is due: it sleeps while there is time left, then yields for
+                   the last SPIN_NANOS, because a sleep can wake up a little late. The spin is kept short,
+                   the render thread is also paced by the screen and yielding keeps a core busy.
+              Every EVALUATE_FRAMES frames it looks at the p95 of the work times. If the work doesn't fit in
+              a frame for a while, the quality goes down one level. If the work has been well under a frame
+              for longer, the quality comes back up one level. Going down is quicker than coming back up,
+              so the quality doesn't flip back and forth between two levels.
+
+              The time always comes from a Clock, so the tests can use a fake one.
+     */
+
+    //The quality levels, from best to worst. Every level also keeps the savings of the levels above it
+    public static final int FULL_QUALITY = 0;
+    public static final int NO_EFFECTS = 1;      //Effects (Ex: particles) are turned off
+    public static final int NO_HUD_REDRAWS = 2;  //The performance overlay isn't redrawn
+    public static final int FEWER_STEPS = 3;     //The simulation runs fewer catch up steps per frame
+    public static final int LEVEL_COUNT = 4;
+
+    //How many frames' work times are kept, and how often (in frames) they are looked at
+    public static final int WINDOW = 120;
+    public static final int EVALUATE_FRAMES = 30;
+
+    //How many evaluations in a row have to be over budget before the quality goes down,
+    //and how many have to be well under budget before it comes back up
+    public static final int DEGRADE_EVALUATIONS = 2;
+    public static final int RECOVER_EVALUATIONS = 8;
+
+    //The p95 work time is over budget above OVERLOAD_PERCENT of a frame,
+    //and well under budget below RECOVER_PERCENT of a frame
+    public static final int OVERLOAD_PERCENT = 90;
+    public static final int RECOVER_PERCENT = 50;
+
+    //The last part of the wait is spent yielding instead of sleeping
+    public static final long SPIN_NANOS = 200000L;
+
+    /**
+     * Where the governor gets the time from and how it sleeps
+     */
+    public interface Clock {
+        long nanoTime();
+
+        void sleepNanos(long nanos);
+
+        void yieldThread();
+    }
+
+    //The real clock
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepNanos(long nanos) {
+            LockSupport.parkNanos(nanos);
+        }
+
+        @Override
+        public void yieldThread() {
+            Thread.yield();
+        }
+    };
+
+    private Clock clock;
+
+    //How long one frame is, from the screen's refresh rate
+    private long frameNanos;
+
+    //When the next frame is due, or 0 before the first frame
+    private long nextFrame;
+
+    //How long the work of the most recent frames took
+    private LatencyHistogram workTimes = new LatencyHistogram(WINDOW);
+    private int framesUntilEvaluation = EVALUATE_FRAMES;
+
+    //The current quality level, and how many evaluations in a row were over or well under budget
+    //Note: The level is volatile because other threads read it (Ex: the simulation thread)
+    private volatile int level = FULL_QUALITY;
+    private int overloadedEvaluations;
+    private int idleEvaluations;
+
+    /**
+     * This constructor is called when the governor is created/instantiated
+     * @param refreshRate how many frames per second the screen shows (Ex: 60)
+     * @param clock where the time comes from, usually SYSTEM_CLOCK
+     */
+    public FrameGovernor(float refreshRate, Clock clock) {
+        if (!(refreshRate > 0)) {
+            throw new IllegalArgumentException("refreshRate must be positive: " + refreshRate);
+        }
+        this.frameNanos = Math.round(1e9 / refreshRate);
+        this.clock = clock;
+    }
+
+    /**
+     * This method starts (or restarts) pacing from now, at full quality
+     */
+    public void start() {
+        nextFrame = clock.nanoTime() + frameNanos;
+        workTimes.reset();
+        framesUntilEvaluation = EVALUATE_FRAMES;
+        overloadedEvaluations = 0;
+        idleEvaluations = 0;
+        level = FULL_QUALITY;
+    }
+
+    /**
+     * This method is called at the end of every frame's work. It records how long the work took,
+     * changes the quality level if it's time to, and then waits until the next frame is due.
+     * @param workNanos how long the frame's work took, not counting time spent waiting for the screen
+     */
+    public void endFrame(long workNanos) {
+        long now = clock.nanoTime();
+        workTimes.record(workNanos);
+        if (--framesUntilEvaluation <= 0) {
+            framesUntilEvaluation = EVALUATE_FRAMES;
+            evaluate();
+        }
+
+        //If the frame ran late, the next one is due a whole frame from now instead of right away,
+        //so a slow frame isn't followed by a burst of frames that try to catch up
+        if (now >= nextFrame) {
+            nextFrame = now + frameNanos;
+            return;
+        }
+        waitUntil(nextFrame);
+        nextFrame += frameNanos;
+    }
+
+    private void waitUntil(long deadline) {
+        long remaining = deadline - clock.nanoTime();
+        while (remaining > SPIN_NANOS) {
+            clock.sleepNanos(remaining - SPIN_NANOS);
+            remaining = deadline - clock.nanoTime();
+        }
+        while (remaining > 0) {
+            clock.yieldThread();
+            remaining = deadline - clock.nanoTime();
+        }
+    }
+
+    /**
+     * This method moves the quality level up or down one step, based on the p95 work time
+     */
+    private void evaluate() {
+        workTimes.computePercentiles();
+        long p95 = workTimes.getP95();
+
+        if (p95 * 100 > frameNanos * OVERLOAD_PERCENT) {
+            idleEvaluations = 0;
+            if (++overloadedEvaluations >= DEGRADE_EVALUATIONS && level < LEVEL_COUNT - 1) {
+                changeLevel(level + 1);
+            }
+        }
+        else if (p95 * 100 < frameNanos * RECOVER_PERCENT) {
+            overloadedEvaluations = 0;
+            if (++idleEvaluations >= RECOVER_EVALUATIONS && level > FULL_QUALITY) {
+                changeLevel(level - 1);
+            }
+        }
+        else {
+            overloadedEvaluations = 0;
+            idleEvaluations = 0;
+        }
+    }
+
+    private void changeLevel(int newLevel) {
+        level = newLevel;
+        overloadedEvaluations = 0;
+        idleEvaluations = 0;
+
+        //The old work times were measured at the old level, so they don't say anything about the new one
+        workTimes.reset();
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean isEffectsEnabled() {
+        return level < NO_EFFECTS;
+    }
+
+    public boolean isHudRedrawEnabled() {
+        return level < NO_HUD_REDRAWS;
+    }
+
+    /**
+     * This method reports the most simulation steps that should run for one frame at the current level
+     * @param normalSteps the most steps at full quality
+     */
+    public int getMaxStepsPerFrame(int normalSteps) {
+        return level < FEWER_STEPS ? normalSteps : Math.max(1, normalSteps / 2);
+    }
+
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.breakoutgame;
+
+import java.io.IOException;
+
+public class FrameMetrics {
+    /*
+        Note: This collects how long each part of a frame takes, so slow frames (jank) can be spotted
+              on real devices. Every metric has its own LatencyHistogram. The lines shown on screen
+              are written into char arrays instead of Strings, so the overlay doesn't create objects.
+     */
+
+    //The parts of a frame that are timed
+    public static final int UPDATE = 0;    //All of the simulation steps run in the frame
+    public static final int DRAW = 1;      //Drawing the game objects onto the canvas
+    public static final int LOCK_WAIT = 2; //Waiting in lockCanvas() and unlockCanvasAndPost()
+    public static final int FRAME = 3;     //The whole frame, from the start of one frame to the start of the next
+    public static final int INPUT = 4;     //From a touch to the first frame that shows it being posted
+    public static final int METRIC_COUNT = 5;
+
+    //The names of the metrics, used in the overlay and the report
+    private static final String[] NAMES = {"update", "draw", "lock", "frame", "input"};
+
+    //The longest line formatLine() can write
+    public static final int MAX_LINE_LENGTH = 64;
+
+    private LatencyHistogram[] histograms = new LatencyHistogram[METRIC_COUNT];
+
+    /**
+     * This constructor is called when the metrics are created/instantiated
+     * @param window how many of the most recent frames are kept for each metric
+     */
+    public FrameMetrics(int window) {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            histograms[i] = new LatencyHistogram(window);
+        }
+    }
+
+    /**
+     * This method records how long one part of a frame took
+     * @param metric UPDATE, DRAW, LOCK_WAIT, FRAME or INPUT
+     * @param nanos the time it took, in nanoseconds
+     */
+    public void record(int metric, long nanos) {
+        histograms[metric].record(nanos);
+    }
+
+    public LatencyHistogram get(int metric) {
+        return histograms[metric];
+    }
+
+    /**
+     * This method updates the percentiles of every metric
+     */
+    public void computePercentiles() {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            histograms[i].computePercentiles();
+        }
+    }
+
+    /**
+     * This method removes every timing
+     */
+    public void reset() {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            histograms[i].reset();
+        }
+    }
+
+    /**
+     * This method writes one metric as a line of text into a char array, for example
+     * "frame p50 16.61 p95 17.02 p99 33.10 max 41.55 ms". Times are in milliseconds.
+     * Call computePercentiles() first.
+     * @param out where the text is written, it must have room for MAX_LINE_LENGTH chars
+     * @return how many chars were written
+     */
+    public int formatLine(int metric, char[] out) {
+        LatencyHistogram histogram = histograms[metric];
+        int length = append(out, 0, NAMES[metric]);
+        length = append(out, length, " p50 ");
+        length = appendMillis(out, length, histogram.getP50());
+        length = append(out, length, " p95 ");
+        length = appendMillis(out, length, histogram.getP95());
+        length = append(out, length, " p99 ");
+        length = appendMillis(out, length, histogram.getP99());
+        length = append(out, length, " max ");
+        length = appendMillis(out, length, histogram.getMax());
+        return append(out, length, " ms");
+    }
+
+    /**
+     * This method writes every metric as a report, one line per metric (Ex: to logcat or a file).
+     * Call computePercentiles() first.
+     */
+    public void writeReport(Appendable out) throws IOException {
+        char[] line = new char[MAX_LINE_LENGTH];
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            int length = formatLine(i, line);
+            for (int c = 0; c < length; c++) {
+                out.append(line[c]);
+            }
+            out.append(" (").append(Integer.toString(histograms[i].getCount())).append(" frames)\n");
+        }
+    }
+
+    private static int append(char[] out, int position, String text) {
+        text.getChars(0, text.length(), out, position);
+        return position + text.length();
+    }
+
+    /**
+     * This method writes a time in nanoseconds as milliseconds with 2 decimals (Ex: 16.61)
+     */
+    private static int appendMillis(char[] out, int position, long nanos) {
+        //Anything over 99999.99 ms is shown as 99999.99 so the line always fits
+        long hundredths = Math.min((nanos + 5000) / 10000, 9999999);
+        position = appendLong(out, position, hundredths / 100);
+        out[position++] = '.';
+        out[position++] = (char) ('0' + (hundredths / 10) % 10);
+        out[position++] = (char) ('0' + hundredths % 10);
+        return position;
+    }
+
+    private static int appendLong(char[] out, int position, long value) {
+        //Count the digits first, then write them from the last one to the first one
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+}
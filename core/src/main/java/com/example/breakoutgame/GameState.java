@@ -0,0 +1,318 @@
+package com.example.breakoutgame;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class GameState {
+    /*
+        Note: This is a copy of everything that changes while a game is played: the balls, the paddle,
+              which bricks are left (as the store's live bitset), the lives and whether the game is
+              paused. It's used to save the game when the app goes into the background and put it
+              back when the app starts again.
+              capture() only copies arrays, so it's quick enough to run on the thread that owns the
+              world. The copy can then be written to a file on any other thread.
+              If the world is moved with FixedPointPhysics, the exact fixed-point ints are kept as well,
+              because the floats are rounded copies of them (see FixedPointPhysics).
+
+              File layout (big-endian, see DataOutputStream):
+                int magic, byte version,
+                int screenX, int screenY, int wallRows, int wallColumns, int brickCount, int level,
+                int lives, boolean paused, long stepCount, float paddleLeft,
+                int ballCount, ballCount * (float left, float top, float xVelocity, float yVelocity),
+                boolean fixedPoint, if fixedPoint: int paddleLeft, ballCount * (int left, int top, int xVelocity, int yVelocity),
+                int liveWords, long[liveWords] live, byte[brickCount] hitPoints
+     */
+
+    //"BRKS", so other files aren't mistaken for saved games
+    private static final int MAGIC = 0x42524B53;
+    private static final int VERSION = 4;
+
+    //The world the state was captured from. A state can only be restored into a world with the same layout
+    private int screenX;
+    private int screenY;
+    private int wallRows;
+    private int wallColumns;
+    private int brickCount;
+
+    //The level of the pack the wall was built from, or -1 for a full wall (see World.getLevel())
+    private int level;
+
+    private int lives;
+    private boolean paused;
+    private long stepCount;
+    private float paddleLeft;
+
+    //The balls in play, the same layout as BallPool
+    private int ballCount;
+    private float[] ballLeft = new float[0];
+    private float[] ballTop = new float[0];
+    private float[] ballXVelocity = new float[0];
+    private float[] ballYVelocity = new float[0];
+
+    //Whether the world was moved with FixedPointPhysics, and then the exact fixed-point paddle and balls
+    private boolean fixedPoint;
+    private int fixedPaddleLeft;
+    private int[] fixedBalls = new int[0];
+
+    //The BrickStore's live bitset, and how many hits every brick has left
+    private int liveWords;
+    private long[] live = new long[0];
+    private byte[] hitPoints = new byte[0];
+
+    /**
+     * This method copies the state of a world. The arrays are only reallocated when they're too small.
+     */
+    public void capture(World world) {
+        screenX = world.getScreenX();
+        screenY = world.getScreenY();
+        wallRows = world.getWallRows();
+        wallColumns = world.getWallColumns();
+        level = levelOf(world);
+
+        lives = world.getLives();
+        paused = world.isPaused();
+        stepCount = world.getStepCount();
+        paddleLeft = world.getPaddle().getLeft();
+
+        BallPool balls = world.getBalls();
+        ballCount = balls.getActiveCount();
+        if (ballLeft.length < ballCount) {
+            ballLeft = new float[balls.getCapacity()];
+            ballTop = new float[balls.getCapacity()];
+            ballXVelocity = new float[balls.getCapacity()];
+            ballYVelocity = new float[balls.getCapacity()];
+        }
+        for (int i = 0; i < ballCount; i++) {
+            ballLeft[i] = balls.getLeft(i);
+            ballTop[i] = balls.getTop(i);
+            ballXVelocity[i] = balls.getXVelocity(i);
+            ballYVelocity[i] = balls.getYVelocity(i);
+        }
+
+        fixedPoint = world.isFixedPoint();
+        if (fixedPoint) {
+            //Anything placed from outside since the last step is read in first, the same as the next step would
+            FixedPointPhysics physics = (FixedPointPhysics) world.getPhysics();
+            physics.sync();
+            fixedPaddleLeft = physics.getPaddleLeft();
+            if (fixedBalls.length < ballCount * 4) {
+                fixedBalls = new int[balls.getCapacity() * 4];
+            }
+            for (int i = 0; i < ballCount; i++) {
+                fixedBalls[i * 4] = physics.getLeft(i);
+                fixedBalls[i * 4 + 1] = physics.getTop(i);
+                fixedBalls[i * 4 + 2] = physics.getXVelocity(i);
+                fixedBalls[i * 4 + 3] = physics.getYVelocity(i);
+            }
+        }
+
+        BrickStore bricks = world.getBricks();
+        brickCount = bricks.size();
+        liveWords = bricks.getLiveWordCount();
+        if (live.length < liveWords) {
+            live = new long[liveWords];
+        }
+        for (int w = 0; w < liveWords; w++) {
+            live[w] = bricks.getLiveWord(w);
+        }
+        if (hitPoints.length < brickCount) {
+            hitPoints = new byte[brickCount];
+        }
+        for (int slot = 0; slot < brickCount; slot++) {
+            hitPoints[slot] = (byte) bricks.getHitPoints(slot);
+        }
+    }
+
+    /**
+     * This method puts the state back into a world. The world's wall must already be built the same way
+     * as the one the state was captured from (the same screen size, wall size or level).
+     * The world is always left paused, even if the game was running when it was saved (it's saved when the
+     * app goes into the background), so the player isn't dropped into a moving ball. Their touch carries on.
+     * @return false if the world doesn't match the state, in which case the world isn't changed
+     */
+    public boolean restoreInto(World world) {
+        BallPool balls = world.getBalls();
+        BrickStore bricks = world.getBricks();
+        if (screenX != world.getScreenX() || screenY != world.getScreenY()
+                || wallRows != world.getWallRows() || wallColumns != world.getWallColumns()
+                || brickCount != bricks.size() || level != levelOf(world) || ballCount > balls.getCapacity()) {
+            return false;
+        }
+
+        world.setLives(lives);
+        world.setPaused(true);
+        world.setStepCount(stepCount);
+
+        Paddle paddle = world.getPaddle();
+        paddle.moveTo(paddleLeft);
+        paddle.setMovement(Paddle.STOP);
+
+        balls.clear();
+        for (int i = 0; i < ballCount; i++) {
+            balls.activate(ballLeft[i], ballTop[i], ballXVelocity[i], ballYVelocity[i]);
+        }
+
+        //The floats are rounded, so a fixed-point world gets the exact ints back
+        if (fixedPoint && world.isFixedPoint()) {
+            FixedPointPhysics physics = (FixedPointPhysics) world.getPhysics();
+            physics.setPaddleLeft(fixedPaddleLeft);
+            for (int i = 0; i < ballCount; i++) {
+                physics.setBall(i, fixedBalls[i * 4], fixedBalls[i * 4 + 1], fixedBalls[i * 4 + 2], fixedBalls[i * 4 + 3]);
+            }
+        }
+
+        //Only the bricks whose bit is different have to be touched, 64 at a time
+        for (int w = 0; w < liveWords; w++) {
+            long changed = live[w] ^ bricks.getLiveWord(w);
+            while (changed != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                if ((live[w] & (1L << slot)) != 0) {
+                    bricks.revive(slot);
+                }
+                else {
+                    bricks.remove(slot);
+                }
+            }
+        }
+        for (int slot = 0; slot < brickCount; slot++) {
+            bricks.setHitPoints(slot, hitPoints[slot] & 0xFF);
+        }
+        return true;
+    }
+
+    private static int levelOf(World world) {
+        return world.getLevelPack() != null ? world.getLevel() : -1;
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(screenX);
+        out.writeInt(screenY);
+        out.writeInt(wallRows);
+        out.writeInt(wallColumns);
+        out.writeInt(brickCount);
+        out.writeInt(level);
+        out.writeInt(lives);
+        out.writeBoolean(paused);
+        out.writeLong(stepCount);
+        out.writeFloat(paddleLeft);
+        out.writeInt(ballCount);
+        for (int i = 0; i < ballCount; i++) {
+            out.writeFloat(ballLeft[i]);
+            out.writeFloat(ballTop[i]);
+            out.writeFloat(ballXVelocity[i]);
+            out.writeFloat(ballYVelocity[i]);
+        }
+        out.writeBoolean(fixedPoint);
+        if (fixedPoint) {
+            out.writeInt(fixedPaddleLeft);
+            for (int i = 0; i < ballCount * 4; i++) {
+                out.writeInt(fixedBalls[i]);
+            }
+        }
+        out.writeInt(liveWords);
+        for (int w = 0; w < liveWords; w++) {
+            out.writeLong(live[w]);
+        }
+        out.write(hitPoints, 0, brickCount);
+        out.flush();
+    }
+
+    /**
+     * This method reads a state that was written by writeTo()
+     * @throws IOException if the stream can't be read or isn't a saved game
+     */
+    public static GameState readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a saved game");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported saved game version: " + version);
+        }
+        GameState state = new GameState();
+        state.screenX = in.readInt();
+        state.screenY = in.readInt();
+        state.wallRows = in.readInt();
+        state.wallColumns = in.readInt();
+        state.brickCount = in.readInt();
+        state.level = in.readInt();
+        state.lives = in.readInt();
+        state.paused = in.readBoolean();
+        state.stepCount = in.readLong();
+        state.paddleLeft = in.readFloat();
+
+        state.ballCount = in.readInt();
+        if (state.ballCount < 0 || state.ballCount > 1 << 20) {
+            throw new IOException("Corrupt saved game: " + state.ballCount + " balls");
+        }
+        state.ballLeft = new float[state.ballCount];
+        state.ballTop = new float[state.ballCount];
+        state.ballXVelocity = new float[state.ballCount];
+        state.ballYVelocity = new float[state.ballCount];
+        for (int i = 0; i < state.ballCount; i++) {
+            state.ballLeft[i] = in.readFloat();
+            state.ballTop[i] = in.readFloat();
+            state.ballXVelocity[i] = in.readFloat();
+            state.ballYVelocity[i] = in.readFloat();
+        }
+        state.fixedPoint = in.readBoolean();
+        if (state.fixedPoint) {
+            state.fixedPaddleLeft = in.readInt();
+            state.fixedBalls = new int[state.ballCount * 4];
+            for (int i = 0; i < state.ballCount * 4; i++) {
+                state.fixedBalls[i] = in.readInt();
+            }
+        }
+
+        state.liveWords = in.readInt();
+        if (state.liveWords != (state.brickCount + 63) >>> 6 || state.brickCount < 0) {
+            throw new IOException("Corrupt saved game: " + state.liveWords + " words for " + state.brickCount + " bricks");
+        }
+        state.live = new long[state.liveWords];
+        for (int w = 0; w < state.liveWords; w++) {
+            state.live[w] = in.readLong();
+        }
+        if (state.liveWords > 0 && (state.live[state.liveWords - 1] & (-1L << state.brickCount)) != 0
+                && (state.brickCount & 63) != 0) {
+            throw new IOException("Corrupt saved game: bricks past the end of the wall are live");
+        }
+        state.hitPoints = new byte[state.brickCount];
+        in.readFully(state.hitPoints);
+        return state;
+    }
+
+    /**
+     * This method reports the level of the pack the game was being played on, or -1 for a full wall.
+     * A state can only be restored into a world that is on the same level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * This method reports whether the game was paused when it was captured. restoreInto() always pauses.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public int getBallCount() {
+        return ballCount;
+    }
+
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+}
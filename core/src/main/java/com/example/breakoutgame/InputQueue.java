@@ -0,0 +1,113 @@
+package com.example.breakoutgame;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InputQueue {
+    /*
+        Note: This carries the player's input from the UI thread (which gets the touch events) to the
+              simulation thread. It's a single-producer/single-consumer ring buffer: exactly one thread
+              offers events and exactly one thread polls them, so neither side ever takes a lock or
+              waits for the other. The events are kept in plain arrays, so nothing is created per event.
+     */
+
+    //The events in the ring
+    private int[] types;
+    private float[] xs;
+    private long[] times;
+    private int mask;
+
+    //How many events have ever been added and removed. The producer only writes tail,
+    //the consumer only writes head
+    private AtomicLong head = new AtomicLong();
+    private AtomicLong tail = new AtomicLong();
+
+    //The event returned by the last call to poll() (only used by the consumer thread)
+    private int polledType;
+    private float polledX;
+    private long polledTime;
+
+    /**
+     * This constructor is called when the queue is created/instantiated
+     * @param capacity the most events that can wait in the queue, rounded up to a power of two
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        types = new int[size];
+        xs = new float[size];
+        times = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Producer: adds an event to the queue
+     * @param type what happened, one of the World.INPUT_* values
+     * @param x where on the screen it happened
+     * @param time when it happened, from System.nanoTime()
+     * @return false if the queue was full and the event was dropped
+     */
+    public boolean offer(int type, float x, long time) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        int i = (int) t & mask;
+        types[i] = type;
+        xs[i] = x;
+        times[i] = time;
+
+        //lazySet makes the event visible to the consumer after the writes above, without a full fence
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer: takes the oldest event out of the queue.
+     * Its values can then be read with getType(), getX() and getTime()
+     * @return false if the queue is empty
+     */
+    public boolean poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int i = (int) h & mask;
+        polledType = types[i];
+        polledX = xs[i];
+        polledTime = times[i];
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * Consumer: takes the oldest event out of the queue, but only if it happened at or before the given time
+     * @param time the latest time (from System.nanoTime()) an event can have to be taken
+     * @return false if the queue is empty or the oldest event happened after the given time
+     */
+    public boolean pollUntil(long time) {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int i = (int) h & mask;
+        if (times[i] > time) {
+            return false;
+        }
+        polledType = types[i];
+        polledX = xs[i];
+        polledTime = times[i];
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    public int getType() {
+        return polledType;
+    }
+
+    public float getX() {
+        return polledX;
+    }
+
+    public long getTime() {
+        return polledTime;
+    }
+}
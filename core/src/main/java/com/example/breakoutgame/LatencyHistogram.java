@@ -0,0 +1,107 @@
+package com.example.breakoutgame;
+
+import java.util.Arrays;
+
+public class LatencyHistogram {
+    /*
+        Note: This keeps the most recent timings (in nanoseconds) in a ring buffer. When the ring is
+              full the oldest timing is overwritten, so the percentiles always describe the last few
+              seconds of play. Every array is made in the constructor, so recording a timing and
+              working out the percentiles never creates objects.
+     */
+
+    //The most recent timings, and a second array they are copied into to be sorted
+    private long[] samples;
+    private long[] sorted;
+
+    //Where the next timing goes in the ring, and how many timings are in it (up to samples.length)
+    private int next = 0;
+    private int count = 0;
+
+    //The results of the last call to computePercentiles()
+    private long p50;
+    private long p95;
+    private long p99;
+    private long max;
+
+    /**
+     * This constructor is called when the histogram is created/instantiated
+     * @param window how many of the most recent timings are kept. Keep this small (a few hundred):
+     *               sorting is cheap for small arrays and doesn't need any extra memory
+     */
+    public LatencyHistogram(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        samples = new long[window];
+        sorted = new long[window];
+    }
+
+    /**
+     * This method adds a timing to the ring
+     * @param nanos how long something took, in nanoseconds
+     */
+    public void record(long nanos) {
+        samples[next] = nanos;
+        next++;
+        if (next == samples.length) {
+            next = 0;
+        }
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * This method works out the p50, p95, p99 and max of the timings in the ring.
+     * It sorts a copy of the ring, so call it every now and then (Ex: a few times a second),
+     * not after every record().
+     */
+    public void computePercentiles() {
+        if (count == 0) {
+            p50 = p95 = p99 = max = 0;
+            return;
+        }
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        p50 = percentile(50);
+        p95 = percentile(95);
+        p99 = percentile(99);
+        max = sorted[count - 1];
+    }
+
+    private long percentile(int percent) {
+        //Nearest-rank percentile
+        int rank = (percent * count + 99) / 100;
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * This method removes every timing from the ring
+     */
+    public void reset() {
+        next = 0;
+        count = 0;
+        p50 = p95 = p99 = max = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
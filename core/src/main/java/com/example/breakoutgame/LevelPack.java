@@ -0,0 +1,231 @@
+package com.example.breakoutgame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class LevelPack {
+    /*
+        Note: A level pack is a file holding any number of brick walls. It's memory-mapped instead of
+              read, so no copy of it is made, however many levels it has. Opening a pack only reads the
+              header and the size of every level, and checks they fit in the file, so even a pack with
+              hundreds of big levels opens at once. The cells of a level (known brick types, hit points and
+              the brick count) are checked by validate(), once, the first time the level is loaded, so a
+              corrupt or hand edited level is refused instead of building bricks the game doesn't know.
+              With a LevelProgression that happens on its background thread, ahead of time. Loading a level
+              then reads the cells straight out of the mapped buffer into a BrickStore, so no objects are created.
+
+              File layout (big-endian):
+                int magic, byte version, int levelCount,
+                int[levelCount] offsets (from the start of the file) of every level,
+              and at every offset a level:
+                short rows, short columns, int brickCount,
+                rows * columns cells, row by row, each cell is byte type, byte hitPoints
+              A cell with type EMPTY has no brick in it. See LevelPackWriter for making packs.
+     */
+
+    //"BRKL", so other files aren't mistaken for level packs
+    static final int MAGIC = 0x42524B4C;
+    static final int VERSION = 1;
+
+    //Sizes of the parts of the file, in bytes
+    static final int HEADER_BYTES = 9;
+    static final int LEVEL_HEADER_BYTES = 8;
+    static final int CELL_BYTES = 2;
+
+    //The biggest wall a level can have. Keeps a corrupt file from asking for gigabytes of bricks
+    public static final int MAX_SIZE = 4096;
+
+    private ByteBuffer buffer;
+    private int levelCount;
+
+    //The levels whose cells were checked by validate()
+    //Note: More than one thread may load levels, at worst a level is checked twice
+    private boolean[] validated;
+
+    private LevelPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        int version = buffer.get(4) & 0xFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported level pack version: " + version);
+        }
+        levelCount = buffer.getInt(5);
+        if (levelCount < 0 || HEADER_BYTES + (long) levelCount * 4 > buffer.limit()) {
+            throw new IOException("Corrupt level pack");
+        }
+
+        //Check that every level fits in the file, its cells are checked when it's first loaded
+        for (int level = 0; level < levelCount; level++) {
+            int offset = getOffset(level);
+            if (offset < 0 || (long) offset + LEVEL_HEADER_BYTES > buffer.limit()) {
+                throw new IOException("Corrupt level pack: level " + level + " is outside of the file");
+            }
+            int rows = buffer.getShort(offset);
+            int columns = buffer.getShort(offset + 2);
+            if (rows <= 0 || columns <= 0 || rows > MAX_SIZE || columns > MAX_SIZE
+                    || offset + LEVEL_HEADER_BYTES + (long) rows * columns * CELL_BYTES > buffer.limit()) {
+                throw new IOException("Corrupt level pack: level " + level + " is " + rows + " x " + columns);
+            }
+        }
+        validated = new boolean[levelCount];
+    }
+
+    /**
+     * This method checks that every cell of a level is a brick the game knows, with at least one hit point,
+     * and that the level's brick count is right. The cells are only read the first time, so it's cheap
+     * to call again. load() calls it, so it only needs to be called to find a bad level before loading it.
+     * @throws IOException if a cell or the brick count is wrong
+     */
+    public void validate(int level) throws IOException {
+        if (level < 0 || level >= levelCount) {
+            throw new IllegalArgumentException("No level " + level + " in a pack of " + levelCount);
+        }
+        if (validated[level]) {
+            return;
+        }
+        int offset = getOffset(level);
+        int cells = getRows(level) * getColumns(level);
+        int brickCount = 0;
+        int cell = offset + LEVEL_HEADER_BYTES;
+        for (int i = 0; i < cells; i++, cell += CELL_BYTES) {
+            int type = buffer.get(cell) & 0xFF;
+            if (type == BrickStore.EMPTY) {
+                continue;
+            }
+            if (type != BrickStore.NORMAL && type != BrickStore.INDESTRUCTIBLE && type != BrickStore.EXPLOSIVE) {
+                throw new IOException("Corrupt level pack: level " + level + " cell " + i + " has unknown type " + type);
+            }
+            if ((buffer.get(cell + 1) & 0xFF) == 0) {
+                throw new IOException("Corrupt level pack: level " + level + " cell " + i + " has no hit points");
+            }
+            brickCount++;
+        }
+        if (brickCount != buffer.getInt(offset + 4)) {
+            throw new IOException("Corrupt level pack: level " + level + " says it has " + buffer.getInt(offset + 4)
+                    + " bricks but has " + brickCount);
+        }
+        validated[level] = true;
+    }
+
+    /**
+     * This method opens a level pack file by memory-mapping it
+     * @throws IOException if the file can't be read or isn't a level pack
+     */
+    public static LevelPack open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            //The mapping stays valid after the file is closed
+            return open(raf.getChannel(), 0, raf.length());
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * This method opens a level pack that is part of a bigger file (Ex: an uncompressed Android asset)
+     * @param offset where in the file the pack starts
+     * @param length how many bytes long the pack is
+     */
+    public static LevelPack open(FileChannel channel, long offset, long length) throws IOException {
+        return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    /**
+     * This method opens a level pack that is already in memory
+     */
+    public static LevelPack wrap(ByteBuffer buffer) throws IOException {
+        return new LevelPack(buffer.duplicate());
+    }
+
+    private int getOffset(int level) {
+        return buffer.getInt(HEADER_BYTES + level * 4);
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int getRows(int level) {
+        return buffer.getShort(getOffset(level));
+    }
+
+    public int getColumns(int level) {
+        return buffer.getShort(getOffset(level) + 2);
+    }
+
+    /**
+     * This method reports how many bricks the level has (the cells that aren't EMPTY)
+     */
+    public int getBrickCount(int level) {
+        return buffer.getInt(getOffset(level) + 4);
+    }
+
+    /**
+     * This method reports the type of the brick in a cell, or BrickStore.EMPTY
+     */
+    public int getType(int level, int row, int column) {
+        return buffer.get(cellOffset(level, row, column)) & 0xFF;
+    }
+
+    public int getHitPoints(int level, int row, int column) {
+        return buffer.get(cellOffset(level, row, column) + 1) & 0xFF;
+    }
+
+    private int cellOffset(int level, int row, int column) {
+        int offset = getOffset(level);
+        return offset + LEVEL_HEADER_BYTES + (row * getColumns(level) + column) * CELL_BYTES;
+    }
+
+    /**
+     * This method fills a brick store with a level. The store's arrays are only reallocated if the
+     * level has more cells than any level that was loaded into it before.
+     * @param brickWidth the width of one cell
+     * @param brickHeight the height of one cell
+     * @throws IllegalStateException if the level is corrupt, see validate()
+     */
+    public void load(int level, BrickStore bricks, int brickWidth, int brickHeight) {
+        try {
+            validate(level);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        int offset = getOffset(level);
+        int rows = buffer.getShort(offset);
+        int columns = buffer.getShort(offset + 2);
+
+        bricks.reset(rows, columns, brickWidth, brickHeight);
+        int cell = offset + LEVEL_HEADER_BYTES;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int type = buffer.get(cell) & 0xFF;
+                if (type != BrickStore.EMPTY) {
+                    bricks.add(row, col, brickWidth, brickHeight, type, buffer.get(cell + 1) & 0xFF);
+                }
+                cell += CELL_BYTES;
+            }
+        }
+    }
+
+    /**
+     * This method copies one level out of the pack, in the same layout as in the file
+     * (Ex: so a replay can carry the level it was recorded on). It creates an array, so don't
+     * call it while playing.
+     */
+    public byte[] copyLevel(int level) {
+        int offset = getOffset(level);
+        int length = LEVEL_HEADER_BYTES + getRows(level) * getColumns(level) * CELL_BYTES;
+        byte[] copy = new byte[length];
+        for (int i = 0; i < length; i++) {
+            copy[i] = buffer.get(offset + i);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.breakoutgame;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LevelPackWriter {
+    /*
+        Note: This builds level packs (see LevelPack for the file layout). It's used by tools and tests,
+              not while playing, so it doesn't have to avoid creating objects.
+     */
+
+    //Every level, already in the layout it has in the file
+    private List<byte[]> levels = new ArrayList<>();
+
+    /**
+     * This method adds a level drawn as text, one String per row. Every character is one cell:
+     * '.' is an empty cell, '1' to '9' is a normal brick that takes that many hits,
+     * '#' is an indestructible brick and '*' is an explosive brick that takes one hit.
+     */
+    public void addLevel(String... rows) {
+        if (rows.length == 0) {
+            throw new IllegalArgumentException("A level needs at least one row");
+        }
+        int columns = rows[0].length();
+        byte[] types = new byte[rows.length * columns];
+        byte[] hitPoints = new byte[rows.length * columns];
+        for (int row = 0; row < rows.length; row++) {
+            if (rows[row].length() != columns) {
+                throw new IllegalArgumentException("Row " + row + " isn't " + columns + " cells long: " + rows[row]);
+            }
+            for (int col = 0; col < columns; col++) {
+                char c = rows[row].charAt(col);
+                int cell = row * columns + col;
+                if (c >= '1' && c <= '9') {
+                    types[cell] = BrickStore.NORMAL;
+                    hitPoints[cell] = (byte) (c - '0');
+                }
+                else if (c == '#') {
+                    types[cell] = BrickStore.INDESTRUCTIBLE;
+                    hitPoints[cell] = 1;
+                }
+                else if (c == '*') {
+                    types[cell] = BrickStore.EXPLOSIVE;
+                    hitPoints[cell] = 1;
+                }
+                else if (c != '.') {
+                    throw new IllegalArgumentException("Unknown cell '" + c + "' in row " + row);
+                }
+            }
+        }
+        addLevel(rows.length, columns, types, hitPoints);
+    }
+
+    /**
+     * This method adds a level
+     * @param types the type of every cell, row by row (BrickStore.EMPTY for no brick)
+     * @param hitPoints how many hits every brick takes, row by row
+     */
+    public void addLevel(int rows, int columns, byte[] types, byte[] hitPoints) {
+        if (rows <= 0 || columns <= 0 || rows > LevelPack.MAX_SIZE || columns > LevelPack.MAX_SIZE) {
+            throw new IllegalArgumentException("Level size must be 1 to " + LevelPack.MAX_SIZE + ": " + rows + " x " + columns);
+        }
+        int cells = rows * columns;
+        ByteBuffer level = ByteBuffer.allocate(LevelPack.LEVEL_HEADER_BYTES + cells * LevelPack.CELL_BYTES);
+        level.putShort((short) rows);
+        level.putShort((short) columns);
+        int brickCount = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (types[cell] != BrickStore.EMPTY) {
+                brickCount++;
+            }
+        }
+        level.putInt(brickCount);
+        for (int cell = 0; cell < cells; cell++) {
+            level.put(types[cell]);
+            level.put(hitPoints[cell]);
+        }
+        levels.add(level.array());
+    }
+
+    /**
+     * This method adds every level of a text file. The levels are drawn the same way as for addLevel(String...),
+     * one row per line, with an empty line between two levels. Lines starting with "//" are comments.
+     * @return how many levels were added
+     * @throws IOException if the text can't be read
+     */
+    public int addLevels(Reader text) throws IOException {
+        BufferedReader in = new BufferedReader(text);
+        List<String> rows = new ArrayList<>();
+        int added = 0;
+        for (String line = in.readLine(); ; line = in.readLine()) {
+            if (line != null && line.startsWith("//")) {
+                continue;
+            }
+            line = line != null ? line.trim() : null;
+            if (line != null && !line.isEmpty()) {
+                rows.add(line);
+                continue;
+            }
+            if (!rows.isEmpty()) {
+                addLevel(rows.toArray(new String[0]));
+                rows.clear();
+                added++;
+            }
+            if (line == null) {
+                return added;
+            }
+        }
+    }
+
+    /**
+     * This method adds a level that was copied out of a pack with LevelPack.copyLevel()
+     */
+    public void addLevel(byte[] level) {
+        levels.add(level.clone());
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(LevelPack.MAGIC);
+        out.writeByte(LevelPack.VERSION);
+        out.writeInt(levels.size());
+        int offset = LevelPack.HEADER_BYTES + levels.size() * 4;
+        for (byte[] level : levels) {
+            out.writeInt(offset);
+            offset += level.length;
+        }
+        for (byte[] level : levels) {
+            out.write(level);
+        }
+        out.flush();
+    }
+
+    /**
+     * This method writes the pack into memory and opens it, without a file
+     */
+    public LevelPack toLevelPack() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(out);
+        return LevelPack.wrap(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * This method turns a text file of levels (see addLevels()) into a level pack file
+     * Ex: ./gradlew :core:packLevels
+     * @param args the text file and the pack file to write
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelPackWriter <levels.txt> <levels.pack>");
+            System.exit(2);
+        }
+        LevelPackWriter writer = new LevelPackWriter();
+        Reader in = new InputStreamReader(new FileInputStream(args[0]), "UTF-8");
+        int count;
+        try {
+            count = writer.addLevels(in);
+        }
+        finally {
+            in.close();
+        }
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]));
+        try {
+            writer.writeTo(out);
+        }
+        finally {
+            out.close();
+        }
+        System.out.println("Wrote " + count + " levels to " + args[1]);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.breakoutgame;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+public class LevelProgression {
+    /*
+        Note: This plays the levels of a LevelPack one after the other: clearing a wall moves on to the
+              next level (after the last one it goes back to the first). Building a big wall takes a while,
+              so the next level is built ahead of time, on a background thread, into a second BrickStore
+              while the current level is still being played. When the wall is cleared, the World just
+              swaps the two stores (see World.step()): the new level is ready at once, and the old store
+              is reused to build the level after that. After the first two levels no arrays are made.
+              Building a level is also when its cells are first checked (see LevelPack.validate()), so that
+              stays off the simulation thread too.
+
+              Only one thread at a time ever touches the spare store: the background thread while it's
+              building, and the simulation thread after advance() has waited for the build to finish.
+     */
+
+    /**
+     * Told about every level that has been built ahead of time (Ex: so its picture can be drawn ahead of time too)
+     */
+    public interface Listener {
+        /**
+         * This method is called on the background thread, right after the level was built.
+         * The store must not be changed, and must not be used after this method returns.
+         * @param level the index of the level in the pack
+         */
+        void onPrepared(int level, BrickStore bricks);
+    }
+
+    private LevelPack pack;
+
+    //Where the levels are built, or null to build them on the simulation thread when they're needed
+    private Executor executor;
+
+    private Listener listener;
+
+    //The level being played (an index in the pack)
+    private int current;
+
+    //The store the next level is built into, and the build that is running (or done), or null if none was started
+    private BrickStore spare = new BrickStore();
+    private FutureTask<BrickStore> prepared;
+    private int preparedLevel = -1;
+
+    /**
+     * This constructor is called when the progression is created/instantiated
+     * @param pack the levels, played in the order they're in the pack
+     * @param firstLevel the level to start on (Ex: the level of a saved game)
+     * @param executor where the next level is built ahead of time, or null to build it when it's needed
+     */
+    public LevelProgression(LevelPack pack, int firstLevel, Executor executor) {
+        if (firstLevel < 0 || firstLevel >= pack.getLevelCount()) {
+            throw new IllegalArgumentException("No level " + firstLevel + " in a pack of " + pack.getLevelCount());
+        }
+        this.pack = pack;
+        this.current = firstLevel;
+        this.executor = executor;
+    }
+
+    /**
+     * This method sets who is told about the levels built ahead of time. It must be called before the
+     * progression is given to the World.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * This method starts building the level after the current one, if it isn't already
+     * @param brickWidth the width of one brick of that level
+     * @param brickHeight the height of one brick of that level
+     */
+    public void prepareNext(final int brickWidth, final int brickHeight) {
+        final int next = getNextLevel();
+        if (prepared != null && preparedLevel == next) {
+            return;
+        }
+        final BrickStore bricks = spare;
+        prepared = new FutureTask<>(new Callable<BrickStore>() {
+            @Override
+            public BrickStore call() {
+                pack.load(next, bricks, brickWidth, brickHeight);
+                if (listener != null) {
+                    listener.onPrepared(next, bricks);
+                }
+                return bricks;
+            }
+        });
+        preparedLevel = next;
+        if (executor != null) {
+            executor.execute(prepared);
+        }
+    }
+
+    /**
+     * This method moves on to the next level. If it hasn't been built yet it waits for it
+     * (or builds it right here, if it never started).
+     * @param finished the store of the level that was just cleared, it's reused to build a later level
+     * @return the store with the next level in it
+     */
+    public BrickStore advance(BrickStore finished) {
+        if (prepared == null) {
+            throw new IllegalStateException("prepareNext() wasn't called");
+        }
+
+        //Run the build here if the executor hasn't started it, otherwise this does nothing
+        prepared.run();
+        BrickStore next;
+        try {
+            next = prepared.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for level " + preparedLevel, e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Level " + preparedLevel + " couldn't be built", e.getCause());
+        }
+        current = preparedLevel;
+        prepared = null;
+        preparedLevel = -1;
+        spare = finished;
+        return next;
+    }
+
+    public LevelPack getPack() {
+        return pack;
+    }
+
+    /**
+     * This method reports the index (in the pack) of the level being played
+     */
+    public int getCurrentLevel() {
+        return current;
+    }
+
+    /**
+     * This method reports the index (in the pack) of the level that comes after the current one
+     */
+    public int getNextLevel() {
+        return (current + 1) % pack.getLevelCount();
+    }
+
+    /**
+     * This method reports whether the next level is already built (so advance() won't wait)
+     */
+    public boolean isNextReady() {
+        return prepared != null && prepared.isDone();
+    }
+}
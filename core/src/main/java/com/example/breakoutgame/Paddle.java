@@ -0,0 +1,179 @@
+package com.example.breakoutgame;
+
+public class Paddle {
+    //This keeps track of the paddle length
+    private float length;
+
+    //This keeps track of the paddle height
+    private float height;
+
+    //This will be used to hold the horizontal position on the screen of the paddle
+    private float x;
+
+    //This will be used to hold the vertical position (top edge) on the screen of the paddle
+    private float y;
+
+    //Where the paddle was at the end of the previous simulation step
+    //This is used to smooth out the drawing between two steps
+    private float previousX;
+
+    //This keeps track of the paddle's speed, measured by world units per second
+    private float paddleSpeed;
+
+    //The width of the screen, the paddle is dragged no further than its edges
+    private int screenX;
+
+    //Where the player dragged the left edge of the paddle to, see dragTo()
+    private float target;
+
+    //Directions the paddle can move
+    public static final int STOP = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int DRAG = 3; //Follows the player's finger, see dragTo()
+
+    //This keeps track of which way the paddle is moving, which uses the fields above
+    private int paddleMovement = STOP;
+
+    /**
+     * This is the constructor for the paddle. This is called when the key word "new" is used.
+     * For example: Paddle p = new Paddle(parameters);
+     */
+    public Paddle(int screenX, int screenY) {
+        //Specify the dimensions of the paddle (20 x 130 world units, see World)
+        height = 20;
+        length = 130;
+
+        reset(screenX, screenY);
+    }
+
+    /**
+     * This method puts the paddle back to it's starting position and stops it
+     * @param screenX the width of the world
+     * @param screenY the height of the world
+     */
+    public void reset(int screenX, int screenY) {
+        //Start the paddle in the bottom center
+        x = screenX / 2;
+        y = screenY - 20;
+        ///////float y = screenY - (screenY / 12); (Dynamic to every screen, need to test later on before removing above)////////
+        //Note: If 20 isn't subtracted from screenY, the paddle will start offscreen
+        previousX = x;
+
+        this.screenX = screenX;
+
+        //Speed of the paddle movement
+        paddleSpeed = screenX / 3; //It will take 3 seconds for the paddle to get across the screen
+
+        paddleMovement = STOP;
+    }
+
+    public float getLeft() {
+        return x;
+    }
+
+    public float getTop() {
+        return y;
+    }
+
+    public float getRight() {
+        return x + length;
+    }
+
+    public float getBottom() {
+        return y + height;
+    }
+
+    public float getLength() {
+        return length;
+    }
+
+    public void setLength(float length) {
+        this.length = length;
+    }
+
+    /**
+     * This method puts the paddle at the given x position without blending the drawing from the old one
+     * (Ex: when a saved game is restored)
+     */
+    public void moveTo(float x) {
+        this.x = x;
+        previousX = x;
+    }
+
+    /**
+     * This method moves the paddle's left edge and keeps where it was for the drawing (Ex: for FixedPointPhysics)
+     */
+    public void setLeft(float x) {
+        this.x = x;
+    }
+
+    /**
+     * This method reports how fast the paddle slides, in world units per second
+     */
+    public float getSpeed() {
+        return paddleSpeed;
+    }
+
+    /**
+     * This method is used to change the movement direction of the paddle
+     */
+    public void setMovement(int direction) {
+        paddleMovement = direction;
+    }
+
+    public int getMovement() {
+        return paddleMovement;
+    }
+
+    /**
+     * This method makes the paddle follow the player's finger: on the next update its left edge
+     * jumps to the given position (kept on the screen), instead of sliding at paddleSpeed
+     */
+    public void dragTo(float left) {
+        target = left;
+        paddleMovement = DRAG;
+    }
+
+    public float getTarget() {
+        return target;
+    }
+
+    /**
+     * This method is used to remember where the paddle is before it gets moved.
+     * It should be called right before every update.
+     */
+    public void savePosition() {
+        previousX = x;
+    }
+
+    /**
+     * This method works out where to draw the left edge of the paddle between the previous and the current step
+     * @param alpha how far between the two steps we are (0 = previous step, 1 = current step)
+     */
+    public float getInterpolatedLeft(float alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * This update method will be called from the World's step method.
+     * It will determine if the paddle needs to move which will change its x coordinate if necessary
+     * @param dt the length of the simulation step in seconds
+     */
+    public void update(float dt) {
+        if (paddleMovement == LEFT) {
+            x -= paddleSpeed * dt;
+            //Multiply paddleSpeed (world units per second) by the step length,
+            //so that the movement to the left is the same on every device
+        }
+        else if (paddleMovement == RIGHT) {
+            x += paddleSpeed * dt;
+            //Multiply paddleSpeed (world units per second) by the step length,
+            //so that the movement to the right is the same on every device
+        }
+        else if (paddleMovement == DRAG) {
+            //Go straight to where the finger is, but don't go off screen
+            x = Math.max(0, Math.min(target, screenX - length));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.breakoutgame;
+
+public interface PaddleController {
+    /*
+        Note: A paddle controller plays the game instead of a person. It's asked what to do before
+              every step and answers by passing input to World.handleInput(), the same way the
+              touch screen does, so anything a controller does could also have been done by a player.
+     */
+
+    /**
+     * This method is called before every step
+     * @param world the world being played. The controller should only change it through handleInput()
+     */
+    void update(World world);
+
+    /**
+     * This interface makes a new controller for every game, so games never share a controller
+     */
+    interface Factory {
+        /**
+         * @param seed a seed that is different for every game, for controllers that use random numbers
+         */
+        PaddleController create(long seed);
+    }
+}
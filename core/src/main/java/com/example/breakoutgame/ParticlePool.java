@@ -0,0 +1,191 @@
+package com.example.breakoutgame;
+
+public class ParticlePool {
+    /*
+        Note: Particles are only for looks (Ex: the bits that fly off of a destroyed brick), so they
+              live on the render thread and never touch the World. Like BrickStore, every particle is
+              a slot number and its position, speed and remaining life are kept in plain float arrays.
+              The arrays are made once in the constructor, so spawning and updating never create objects.
+
+              When a particle dies, the last particle is moved into its slot ("swap-remove"), so the live
+              particles are always slots 0 to count - 1 and the loops never have to skip dead ones.
+              That means the order of the particles changes, which doesn't matter for drawing.
+
+              fillPoints() writes the positions into one float array per color, so the whole pool can be
+              drawn with a single Canvas.drawPoints() call per color.
+     */
+
+    //How fast the particles fall, in pixels per second per second
+    public static final float GRAVITY = 1200;
+
+    //The position, speed and remaining life (in seconds) of every particle, indexed by slot
+    private float[] x;
+    private float[] y;
+    private float[] xVelocity;
+    private float[] yVelocity;
+    private float[] life;
+
+    //Which color every particle is drawn in, from 0 to colorCount - 1
+    private byte[] color;
+
+    //How many particles are alive, they are in slots 0 to count - 1
+    private int count = 0;
+
+    //The (x, y) pairs of every particle, one array per color, and how many floats of each are in use
+    private float[][] points;
+    private int[] pointCounts;
+
+    private FastRandom random = new FastRandom(1);
+
+    /**
+     * This constructor is called when the pool is created/instantiated
+     * @param capacity the most particles that can be alive at once. Spawning more than this is ignored
+     * @param colorCount how many different colors the particles can be drawn in
+     */
+    public ParticlePool(int capacity, int colorCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (colorCount <= 0 || colorCount > 128) {
+            throw new IllegalArgumentException("colorCount must be from 1 to 128: " + colorCount);
+        }
+        x = new float[capacity];
+        y = new float[capacity];
+        xVelocity = new float[capacity];
+        yVelocity = new float[capacity];
+        life = new float[capacity];
+        color = new byte[capacity];
+        points = new float[colorCount][capacity * 2];
+        pointCounts = new int[colorCount];
+    }
+
+    /**
+     * This method adds one particle
+     * @param lifetime how many seconds the particle stays alive
+     * @return false if the pool is full and the particle wasn't added
+     */
+    public boolean spawn(float startX, float startY, float startXVelocity, float startYVelocity,
+                         float lifetime, int particleColor) {
+        if (count == x.length) {
+            return false;
+        }
+        int slot = count++;
+        x[slot] = startX;
+        y[slot] = startY;
+        xVelocity[slot] = startXVelocity;
+        yVelocity[slot] = startYVelocity;
+        life[slot] = lifetime;
+        color[slot] = (byte) particleColor;
+        return true;
+    }
+
+    /**
+     * This method adds particles that fly out of a point in random directions (Ex: a brick breaking)
+     * @param particles how many particles to add, as many as fit are added
+     * @param speed the fastest a particle moves, in pixels per second
+     * @param lifetime how many seconds the longest lasting particle stays alive
+     */
+    public void burst(float centerX, float centerY, int particles, float speed, float lifetime, int particleColor) {
+        for (int i = 0; i < particles; i++) {
+            float vx = (random.nextFloat() * 2 - 1) * speed;
+            float vy = (random.nextFloat() * 2 - 1) * speed;
+            float t = lifetime * (0.5f + 0.5f * random.nextFloat());
+            if (!spawn(centerX, centerY, vx, vy, t, particleColor)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method moves every particle and removes the ones whose life ran out
+     * @param dt how many seconds passed since the last update
+     */
+    public void update(float dt) {
+        int i = 0;
+        while (i < count) {
+            float left = life[i] - dt;
+            if (left <= 0) {
+                //Swap-remove: the last particle takes this slot, and is updated next time around
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                xVelocity[i] = xVelocity[last];
+                yVelocity[i] = yVelocity[last];
+                life[i] = life[last];
+                color[i] = color[last];
+                continue;
+            }
+            life[i] = left;
+            yVelocity[i] += GRAVITY * dt;
+            x[i] += xVelocity[i] * dt;
+            y[i] += yVelocity[i] * dt;
+            i++;
+        }
+    }
+
+    /**
+     * This method writes the position of every particle into the points array of its color,
+     * ready for Canvas.drawPoints(getPoints(c), 0, getPointCount(c), paint)
+     */
+    public void fillPoints() {
+        for (int c = 0; c < pointCounts.length; c++) {
+            pointCounts[c] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int c = color[i];
+            float[] colorPoints = points[c];
+            int n = pointCounts[c];
+            colorPoints[n] = x[i];
+            colorPoints[n + 1] = y[i];
+            pointCounts[c] = n + 2;
+        }
+    }
+
+    /**
+     * This method returns the (x, y) pairs of the particles of one color, as of the last fillPoints()
+     */
+    public float[] getPoints(int particleColor) {
+        return points[particleColor];
+    }
+
+    /**
+     * This method reports how many floats of getPoints() are in use (two for every particle)
+     */
+    public int getPointCount(int particleColor) {
+        return pointCounts[particleColor];
+    }
+
+    /**
+     * This method removes every particle
+     */
+    public void clear() {
+        count = 0;
+        for (int c = 0; c < pointCounts.length; c++) {
+            pointCounts[c] = 0;
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return x.length;
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    public float getLife(int slot) {
+        return life[slot];
+    }
+
+    public int getColor(int slot) {
+        return color[slot];
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.breakoutgame;
+
+public interface Physics {
+    /*
+        Note: The physics is the number crunching part of a step: moving the paddle and the balls, finding
+              the first thing a ball runs into, and bouncing it off of it. The World decides what a hit
+              means (Ex: a brick takes a hit point, a ball off the bottom costs a life) and tells the
+              physics which way to bounce.
+
+              There are two kinds: FloatPhysics moves everything with floats (the default), and
+              FixedPointPhysics with 16.16 fixed-point ints, which gives the same bits on every device.
+              Either way the balls and paddle can be read from the BallPool and Paddle, see World.setFixedPoint().
+     */
+
+    //The things a ball can hit, see moveToFirstHit()
+    int HIT_NONE = 0;
+    int HIT_BRICK = 1;
+    int HIT_PADDLE = 2;
+    int HIT_LEFT_WALL = 3;
+    int HIT_RIGHT_WALL = 4;
+    int HIT_TOP_WALL = 5;
+    int HIT_BOTTOM_WALL = 6;
+
+    /**
+     * This method is called at the start of every step, before anything is moved. It picks up any
+     * ball or paddle that was placed from outside of the physics (Ex: by restart() or a restored game).
+     * @param dt the length of the step in seconds
+     */
+    void beginStep(float dt);
+
+    /**
+     * This method throws away anything the physics keeps of its own and reads every ball and the paddle back
+     * in from the BallPool and the Paddle (Ex: before a recording starts, so it starts exactly from the
+     * saved floats)
+     */
+    void reload();
+
+    /**
+     * This method moves the paddle by one step, see Paddle.update()
+     */
+    void movePaddle();
+
+    /**
+     * This method is called before a ball is moved, the ball then has the whole step left to move
+     */
+    void beginMove(int ball);
+
+    /**
+     * This method moves a ball with what's left of its step, up to the first thing it hits
+     * @return one of the HIT_ constants, HIT_NONE if the ball used up the rest of its step without hitting anything
+     */
+    int moveToFirstHit(int ball);
+
+    /**
+     * This method reports the slot of the brick found by the last moveToFirstHit()
+     */
+    int getHitSlot();
+
+    /**
+     * This method reports whether the last hit was on a left or right face (false for a top or bottom face)
+     */
+    boolean isHitXFace();
+
+    /**
+     * This method reports whether the last hit happened after the ball had moved (false if the ball was
+     * already touching the thing at the start of its move, Ex: the paddle moved into it)
+     */
+    boolean isHitAfterStart();
+
+    /**
+     * This method is used to reverse the x direction of a ball
+     */
+    void reverseXVelocity(int ball);
+
+    /**
+     * This method is used to reverse the y direction of a ball
+     */
+    void reverseYVelocity(int ball);
+
+    /**
+     * This method puts a ball back on top of the paddle, if it's lower than the top of the paddle
+     */
+    void putOnPaddle(int ball);
+
+    /**
+     * This method takes a ball out of play, see BallPool.deactivate()
+     */
+    void deactivate(int ball);
+
+    /**
+     * These methods report how many ball moves checked the bricks, and how many skipped them
+     * because the ball wasn't near the bricks that are left, see World.getBroadPhaseHits()
+     */
+    long getBroadPhaseHits();
+
+    long getBroadPhaseMisses();
+
+    void resetBroadPhaseCounters();
+}
@@ -0,0 +1,124 @@
+package com.example.breakoutgame;
+
+public class PredictiveController implements PaddleController {
+    /*
+        Note: This controller works out where a ball is going to land instead of chasing where it is
+              (see TrackingController), so the paddle is already waiting when the ball gets there.
+
+              A falling ball below the wall only bounces off of the side walls, so its path can be
+              worked out in one go instead of step by step: the time it takes to fall to the top of the
+              paddle is (paddleTop - ballBottom) / yVelocity, and in that time it moves
+              xVelocity * time sideways. Bouncing between two walls is the same as moving in a straight
+              line across a row of mirrored screens, so the landing spot is that straight-line position
+              "folded" back onto the screen (see fold()). That's a handful of float operations per ball,
+              no matter how far the ball has to go or how many times it bounces, and nothing is created.
+
+              A ball that is going up is projected off of the top of the screen the same way. The bricks
+              will usually bounce it back sooner, but it's a good place to wait until it starts falling.
+     */
+
+    //How far (in pixels) the landing spot can be from the middle of the paddle before the paddle moves
+    private static final float DEAD_ZONE = 8;
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public PaddleController create(long seed) {
+            return new PredictiveController();
+        }
+    };
+
+    @Override
+    public void update(World world) {
+        //Touch the screen to start the game
+        if (world.isPaused()) {
+            world.handleInput(World.INPUT_PRESS, world.getScreenX() / 2);
+        }
+
+        Paddle paddle = world.getPaddle();
+        float landing = predictLanding(world.getBalls(), paddle.getTop(), world.getScreenX());
+        if (Float.isNaN(landing)) {
+            return;
+        }
+
+        int direction = Paddle.STOP;
+        float paddleMiddle = (paddle.getLeft() + paddle.getRight()) / 2;
+        if (landing < paddleMiddle - DEAD_ZONE) {
+            direction = Paddle.LEFT;
+        }
+        else if (landing > paddleMiddle + DEAD_ZONE) {
+            direction = Paddle.RIGHT;
+        }
+
+        //Wait at the side of the screen if the ball lands past the middle of the paddle there
+        if ((direction == Paddle.LEFT && paddle.getLeft() <= 0)
+                || (direction == Paddle.RIGHT && paddle.getRight() >= world.getScreenX())) {
+            direction = Paddle.STOP;
+        }
+
+        //Only touch the screen when the paddle isn't already doing what it should
+        //Note: The World stops the paddle when it reaches a side of the screen, so this also gets it going again
+        if (direction != paddle.getMovement()) {
+            if (direction == Paddle.STOP) {
+                world.handleInput(World.INPUT_RELEASE, 0);
+            }
+            else {
+                //Touch the left or right edge of the screen
+                world.handleInput(World.INPUT_PRESS, direction == Paddle.LEFT ? 0 : world.getScreenX());
+            }
+        }
+    }
+
+    /**
+     * This method works out where the next ball to reach the paddle will be when it gets there
+     * @param paddleTop the height the balls are projected down to
+     * @param screenX the width of the screen, the balls bounce off of both sides of it
+     * @return the x position of the middle of the ball that lands first, or NaN if no ball is moving up or down
+     */
+    public static float predictLanding(BallPool balls, float paddleTop, int screenX) {
+        float best = Float.NaN;
+        float bestTime = Float.POSITIVE_INFINITY;
+        boolean bestFalling = false;
+        float range = screenX - balls.getWidth();
+        for (int i = 0; i < balls.getActiveCount(); i++) {
+            float yVelocity = balls.getYVelocity(i);
+            float distance;
+            if (yVelocity > 0) {
+                //Falling: straight down to the top of the paddle
+                distance = paddleTop - balls.getBottom(i);
+            }
+            else if (yVelocity < 0) {
+                //Going up: to the top of the screen and back down
+                distance = balls.getTop(i) + paddleTop - balls.getHeight();
+            }
+            else {
+                continue;
+            }
+            float time = Math.max(distance, 0) / Math.abs(yVelocity);
+
+            //A falling ball always goes first, it's the one that can be lost
+            boolean falling = yVelocity > 0;
+            if (falling == bestFalling ? time < bestTime : falling) {
+                bestTime = time;
+                bestFalling = falling;
+                best = fold(balls.getLeft(i) + balls.getXVelocity(i) * time, range) + balls.getWidth() / 2f;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * This method turns a position on a row of mirrored screens into the position on the real screen,
+     * which is where a ball that bounces off of both sides ends up
+     * @param x the left edge of the ball, as if there were no walls
+     * @param range how far the left edge can go (the width of the screen minus the width of the ball)
+     */
+    static float fold(float x, float range) {
+        if (range <= 0) {
+            return 0;
+        }
+        //Note: floor() is used instead of %, which is a lot slower for floats
+        float period = 2 * range;
+        float folded = x - (float) Math.floor(x / period) * period;
+        return folded <= range ? folded : period - folded;
+    }
+}
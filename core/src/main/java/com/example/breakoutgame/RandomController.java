@@ -0,0 +1,37 @@
+package com.example.breakoutgame;
+
+public class RandomController implements PaddleController {
+    /*
+        Note: This controller taps the screen at random: now and then it touches a random spot or
+              lets go. It plays badly, but it's cheap and gives a baseline to compare other
+              controllers (and paddle lengths, ball speeds and walls) against.
+     */
+
+    //On average, how many steps go by between two taps
+    private static final int STEPS_PER_TAP = 40;
+
+    private FastRandom random;
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public PaddleController create(long seed) {
+            return new RandomController(seed);
+        }
+    };
+
+    public RandomController(long seed) {
+        random = new FastRandom(seed);
+    }
+
+    @Override
+    public void update(World world) {
+        if (world.isPaused() || random.nextInt(STEPS_PER_TAP) == 0) {
+            if (!world.isPaused() && random.nextInt(3) == 0) {
+                world.handleInput(World.INPUT_RELEASE, 0);
+            }
+            else {
+                world.handleInput(World.INPUT_PRESS, random.nextFloat() * world.getScreenX());
+            }
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.breakoutgame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ReplayLog {
+    /*
+        Note: The World is deterministic: with the same screen size, wall size and random seed,
+              the same input before the same steps always gives exactly the same game. So a replay
+              doesn't need to store any positions, only the state the game started in (see GameState),
+              the seed and the player's input.
+              Every input is stored as the number of steps since the previous input (1 to 5 bytes),
+              its type (1 byte) and where the screen was touched (4 bytes).
+
+              File layout (big-endian, see DataOutputStream):
+                int magic, byte version,
+                long seed, int screenX, int screenY, int maxBalls, int wallRows, int wallColumns,
+                float paddleLength, float startXVelocity, float startYVelocity, int stepsPerSecond, boolean fixedPoint,
+                int levelBytes, byte[levelBytes] levelPack (0 bytes for a full wall, see LevelPackWriter.writeTo()),
+                int level, boolean progression,
+                the GameState the recording started from (see GameState.writeTo()),
+                int eventCount, int eventBytes, byte[eventBytes] events,
+                long finalStep, long finalHash
+     */
+
+    //"BRKR", so other files aren't mistaken for replays
+    private static final int MAGIC = 0x42524B52;
+    private static final int VERSION = 7;
+
+    //Everything that is needed to build the same world again
+    private long seed;
+    private int screenX;
+    private int screenY;
+    private int maxBalls;
+    private int wallRows;
+    private int wallColumns;
+    private float paddleLength;
+    private float startXVelocity;
+    private float startYVelocity;
+    private int stepsPerSecond;
+
+    //Whether the world was moved with FixedPointPhysics
+    private boolean fixedPoint;
+
+    //A copy of the level pack the wall was built from (or null for a full wall), the level of it that was
+    //being played, and whether clearing the wall moved on to the next level (see LevelProgression)
+    private LevelPack levelPack;
+    private int level;
+    private boolean progression;
+
+    //The state of the world when the recording started
+    private GameState start = new GameState();
+
+    //The recorded input, encoded as described above
+    private byte[] events = new byte[256];
+    private int eventBytes = 0;
+    private int eventCount = 0;
+
+    //The step count of the world when the recording started, and at the last input
+    private long startStep;
+    private long lastEventStep;
+
+    //Where the world was when the recording was finished, so a replay can be checked
+    private long finalStep;
+    private long finalHash;
+
+    private ReplayLog() {
+    }
+
+    /**
+     * This method starts recording a world. The world is seeded and its current state is saved,
+     * so the replay starts from exactly the same place (Ex: a game that was restored after the app restarted).
+     * @param world the world to record. Only its input has to be passed to record() from now on
+     * @param seed the random seed the world is given
+     * @param stepsPerSecond how many steps the world runs per second, so the replay uses the same step length
+     * @return the new, empty recording
+     */
+    public static ReplayLog begin(World world, long seed, int stepsPerSecond) {
+        ReplayLog log = new ReplayLog();
+        log.seed = seed;
+        log.screenX = world.getScreenX();
+        log.screenY = world.getScreenY();
+        log.maxBalls = world.getBalls().getCapacity();
+        log.wallRows = world.getWallRows();
+        log.wallColumns = world.getWallColumns();
+        log.paddleLength = world.getPaddle().getLength();
+        log.startXVelocity = world.getStartXVelocity();
+        log.startYVelocity = world.getStartYVelocity();
+        log.stepsPerSecond = stepsPerSecond;
+        log.fixedPoint = world.isFixedPoint();
+        if (world.getLevelPack() != null) {
+            //The pack is copied, the file it came from might change or go away
+            LevelPack pack = world.getLevelPack();
+            LevelPackWriter writer = new LevelPackWriter();
+            for (int i = 0; i < pack.getLevelCount(); i++) {
+                writer.addLevel(pack.copyLevel(i));
+            }
+            try {
+                log.levelPack = writer.toLevelPack();
+            }
+            catch (IOException e) {
+                //Levels copied out of a pack that opened are always valid
+                throw new IllegalStateException(e);
+            }
+            log.level = world.getLevel();
+            log.progression = world.getProgression() != null;
+        }
+
+        world.setSeed(seed);
+        log.start.capture(world);
+        log.startStep = world.getStepCount();
+        log.lastEventStep = log.startStep;
+        log.finish(world);
+        return log;
+    }
+
+    /**
+     * This method records one input. Call it every time the input is passed to World.handleInput().
+     */
+    public void record(World world, int type, float x) {
+        ensureRoom(10);
+        long step = world.getStepCount();
+        eventBytes = writeVarLong(events, eventBytes, step - lastEventStep);
+        lastEventStep = step;
+        events[eventBytes++] = (byte) type;
+        int bits = Float.floatToRawIntBits(x);
+        events[eventBytes++] = (byte) (bits >>> 24);
+        events[eventBytes++] = (byte) (bits >>> 16);
+        events[eventBytes++] = (byte) (bits >>> 8);
+        events[eventBytes++] = (byte) bits;
+        eventCount++;
+    }
+
+    private void ensureRoom(int bytes) {
+        if (eventBytes + bytes > events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+    }
+
+    /**
+     * This method marks where the recording ends: how many steps ran and the world's hash at that point.
+     * It can be called again if the recording carries on.
+     */
+    public void finish(World world) {
+        finalStep = world.getStepCount() - startStep;
+        finalHash = world.getStateHash();
+    }
+
+    /**
+     * This method writes the recording. Call finish() first.
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeInt(screenX);
+        out.writeInt(screenY);
+        out.writeInt(maxBalls);
+        out.writeInt(wallRows);
+        out.writeInt(wallColumns);
+        out.writeFloat(paddleLength);
+        out.writeFloat(startXVelocity);
+        out.writeFloat(startYVelocity);
+        out.writeInt(stepsPerSecond);
+        out.writeBoolean(fixedPoint);
+        byte[] levelBytes = new byte[0];
+        if (levelPack != null) {
+            LevelPackWriter writer = new LevelPackWriter();
+            for (int i = 0; i < levelPack.getLevelCount(); i++) {
+                writer.addLevel(levelPack.copyLevel(i));
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            writer.writeTo(bytes);
+            levelBytes = bytes.toByteArray();
+        }
+        out.writeInt(levelBytes.length);
+        out.write(levelBytes);
+        out.writeInt(level);
+        out.writeBoolean(progression);
+        start.writeTo(out);
+        out.writeInt(eventCount);
+        out.writeInt(eventBytes);
+        out.write(events, 0, eventBytes);
+        out.writeLong(finalStep);
+        out.writeLong(finalHash);
+        out.flush();
+    }
+
+    /**
+     * This method reads a recording that was written by writeTo()
+     * @throws IOException if the stream can't be read or isn't a replay
+     */
+    public static ReplayLog readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        ReplayLog log = new ReplayLog();
+        log.seed = in.readLong();
+        log.screenX = in.readInt();
+        log.screenY = in.readInt();
+        log.maxBalls = in.readInt();
+        log.wallRows = in.readInt();
+        log.wallColumns = in.readInt();
+        log.paddleLength = in.readFloat();
+        log.startXVelocity = in.readFloat();
+        log.startYVelocity = in.readFloat();
+        log.stepsPerSecond = in.readInt();
+        log.fixedPoint = in.readBoolean();
+        int levelBytes = in.readInt();
+        if (levelBytes < 0) {
+            throw new IOException("Corrupt replay");
+        }
+        if (levelBytes > 0) {
+            byte[] bytes = new byte[levelBytes];
+            in.readFully(bytes);
+            log.levelPack = LevelPack.wrap(ByteBuffer.wrap(bytes));
+        }
+        log.level = in.readInt();
+        log.progression = in.readBoolean();
+        if (log.levelPack != null && (log.level < 0 || log.level >= log.levelPack.getLevelCount())) {
+            throw new IOException("Corrupt replay: no level " + log.level);
+        }
+        if (log.levelPack != null) {
+            //The replay starts on this level, so a corrupt one is refused here instead of while playing it back
+            log.levelPack.validate(log.level);
+        }
+        log.start = GameState.readFrom(in);
+        log.eventCount = in.readInt();
+        log.eventBytes = in.readInt();
+        if (log.eventCount < 0 || log.eventBytes < 0) {
+            throw new IOException("Corrupt replay");
+        }
+        log.events = new byte[log.eventBytes];
+        in.readFully(log.events);
+        log.finalStep = in.readLong();
+        log.finalHash = in.readLong();
+        return log;
+    }
+
+    /**
+     * This method writes a number 7 bits at a time, so small numbers (the usual gap between two
+     * inputs) only take one byte
+     */
+    private static int writeVarLong(byte[] out, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * This class reads the recorded input back one event at a time
+     */
+    public class Cursor {
+        private int position = 0;
+        private int read = 0;
+        private long step;
+        private int type;
+        private float x;
+
+        /**
+         * This method moves on to the next input
+         * @return false if there are no more
+         */
+        public boolean next() {
+            if (read == eventCount) {
+                return false;
+            }
+            long gap = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = events[position++];
+                gap |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            step += gap;
+            type = events[position++];
+            int bits = (events[position] & 0xFF) << 24 | (events[position + 1] & 0xFF) << 16
+                    | (events[position + 2] & 0xFF) << 8 | (events[position + 3] & 0xFF);
+            position += 4;
+            x = Float.intBitsToFloat(bits);
+            read++;
+            return true;
+        }
+
+        /**
+         * This method reports how many steps after the start of the recording the input was given
+         */
+        public long getStep() {
+            return step;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public float getX() {
+            return x;
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScreenX() {
+        return screenX;
+    }
+
+    public int getScreenY() {
+        return screenY;
+    }
+
+    public int getMaxBalls() {
+        return maxBalls;
+    }
+
+    public int getWallRows() {
+        return wallRows;
+    }
+
+    public int getWallColumns() {
+        return wallColumns;
+    }
+
+    public float getPaddleLength() {
+        return paddleLength;
+    }
+
+    public float getStartXVelocity() {
+        return startXVelocity;
+    }
+
+    public float getStartYVelocity() {
+        return startYVelocity;
+    }
+
+    /**
+     * This method reports whether the recorded world was moved with FixedPointPhysics
+     */
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * This method reports (a copy of) the level pack the recording was played on,
+     * or null if it was played on a full wall of getWallRows() x getWallColumns()
+     */
+    public LevelPack getLevelPack() {
+        return levelPack;
+    }
+
+    /**
+     * This method reports the level of getLevelPack() the recording started on
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * This method reports whether the recording moved on to the next level of the pack every time
+     * a wall was cleared (see LevelProgression), instead of playing the same level again
+     */
+    public boolean isProgression() {
+        return progression;
+    }
+
+    /**
+     * This method reports the state of the world when the recording started
+     */
+    public GameState getStart() {
+        return start;
+    }
+
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * This method reports how many steps (not counting paused ones) the recording lasts
+     */
+    public long getFinalStep() {
+        return finalStep;
+    }
+
+    /**
+     * This method reports World.getStateHash() at the end of the recording
+     */
+    public long getFinalHash() {
+        return finalHash;
+    }
+}
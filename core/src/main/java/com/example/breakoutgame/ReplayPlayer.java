@@ -0,0 +1,77 @@
+package com.example.breakoutgame;
+
+public class ReplayPlayer {
+    /*
+        Note: This plays a ReplayLog back without a screen or a clock. The steps run back to back
+              as fast as the computer can go, so minutes of play take a few milliseconds.
+              This makes bugs that were recorded on a phone easy to reproduce in a test or a debugger.
+     */
+
+    private ReplayPlayer() {
+    }
+
+    /**
+     * This method builds the recorded world and plays the whole recording back
+     * @return the world, as it was when the recording was finished
+     * @throws IllegalStateException if the replay didn't end up where the recording did
+     */
+    public static World play(ReplayLog log) {
+        World world = new World(log.getScreenX(), log.getScreenY(), log.getMaxBalls());
+        if (log.getLevelPack() != null && log.isProgression()) {
+            world.setProgression(new LevelProgression(log.getLevelPack(), log.getLevel(), null));
+        }
+        else if (log.getLevelPack() != null) {
+            world.loadLevel(log.getLevelPack(), log.getLevel());
+        }
+        else {
+            world.setWallSize(log.getWallRows(), log.getWallColumns());
+        }
+        world.setPaddleLength(log.getPaddleLength());
+        world.setStartVelocity(log.getStartXVelocity(), log.getStartYVelocity());
+        world.setFixedPoint(log.isFixedPoint());
+        world.setSeed(log.getSeed());
+        world.restart();
+        if (!log.getStart().restoreInto(world)) {
+            throw new IllegalStateException("The replay's starting state doesn't fit its wall");
+        }
+
+        //restoreInto() always pauses, but the recording may have started in the middle of play
+        world.setPaused(log.getStart().isPaused());
+        play(log, world, log.getFinalStep());
+
+        if (world.getStateHash() != log.getFinalHash()) {
+            throw new IllegalStateException("Replay ended in a different state than the recording");
+        }
+        return world;
+    }
+
+    /**
+     * This method plays a recording into a world that was set up the same way as the recorded one,
+     * stopping after the given number of steps (Ex: just before a bug happens)
+     * @param world a world with the recording's size, wall and seed, in the recording's starting state
+     * @param steps how many steps (not counting paused ones) to play
+     */
+    public static void play(ReplayLog log, World world, long steps) {
+        float dt = new FixedTimestep(log.getStepsPerSecond(), 1).getStepSeconds();
+        long start = world.getStepCount();
+
+        ReplayLog.Cursor input = log.cursor();
+        while (input.next() && input.getStep() <= steps) {
+            runUntil(world, start + input.getStep(), dt);
+            world.handleInput(input.getType(), input.getX());
+        }
+        runUntil(world, start + steps, dt);
+    }
+
+    private static void runUntil(World world, long step, float dt) {
+        while (world.getStepCount() < step) {
+            //A paused world doesn't step, and only input can unpause it. If the recording
+            //expects more steps here, the replay has gone differently than the recording.
+            if (world.isPaused()) {
+                throw new IllegalStateException("Replay paused at step " + world.getStepCount()
+                        + " but the recording carried on to step " + step);
+            }
+            world.step(dt);
+        }
+    }
+}
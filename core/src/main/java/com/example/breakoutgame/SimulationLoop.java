@@ -0,0 +1,178 @@
+package com.example.breakoutgame;
+
+import java.util.concurrent.locks.LockSupport;
+
+public class SimulationLoop implements Runnable {
+    /*
+        Note: This runs the World on its own thread, separate from the thread that draws.
+              Every time around the loop it:
+                1. runs as many fixed steps as are due. Before every step it applies the input that arrived
+                   from the UI thread (through the InputQueue) up to the time of that step,
+                2. applies the rest of the input, so the next step sees it,
+                3. copies the world into a WorldSnapshot and publishes it through the TripleBuffer,
+                4. sleeps until the next step is due (or until new input wakes it up).
+              Nothing here ever waits for the render thread, and the render thread never waits for this.
+
+              A finger moving across the screen sends many INPUT_DRAG events (a touch screen can report
+              a few hundred per second). Only the last one before a step can change the step, so the
+              ones in between are coalesced: they are skipped, and never reach the World or the replay.
+     */
+
+    private World world;
+    private FixedTimestep timestep;
+    private InputQueue input;
+    private TripleBuffer<WorldSnapshot> snapshots;
+
+    //If this isn't null, every input is recorded into it so the game can be replayed
+    private ReplayLog replay;
+
+    //The most steps to run each time around the loop, or 0 to keep the timestep's own limit
+    //Note: This is volatile because it's changed from the render thread, see FrameGovernor
+    private volatile int maxStepsPerFrame;
+
+    //How many inputs have been taken out of the queue, and when the newest of them happened
+    //These are passed on in every snapshot, see WorldSnapshot.setInput()
+    private long inputCount;
+    private long inputTime;
+
+    //Set to false to make run() return
+    private volatile boolean running;
+
+    //The thread run() is running on, so that wake() can wake it up
+    private volatile Thread thread;
+
+    /**
+     * This constructor is called when the loop is created/instantiated
+     * @param world the world to simulate. Only this loop may touch it while it's running
+     * @param timestep the clock that decides how many steps to run
+     * @param input the queue the player's input arrives in
+     * @param snapshots where the copies of the world are published for the render thread
+     */
+    public SimulationLoop(World world, FixedTimestep timestep, InputQueue input,
+                          TripleBuffer<WorldSnapshot> snapshots) {
+        this.world = world;
+        this.timestep = timestep;
+        this.input = input;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * This method records every input from now on into the given replay.
+     * It must be called while the loop's thread isn't running.
+     */
+    public void setReplay(ReplayLog replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * This method changes the most steps that run each time around the loop. It can be called
+     * from any thread, and takes effect the next time around the loop.
+     */
+    public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("maxStepsPerFrame must be positive: " + maxStepsPerFrame);
+        }
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * This method must be called before the loop's thread is started
+     */
+    public void prepare() {
+        running = true;
+    }
+
+    /**
+     * This method asks run() to return. The caller should then join() the loop's thread.
+     */
+    public void stop() {
+        running = false;
+        wake();
+    }
+
+    /**
+     * This method wakes the loop up early, so new input is applied right away
+     */
+    public void wake() {
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        timestep.start(System.nanoTime());
+
+        while (running) {
+            long frameStart = System.nanoTime();
+
+            //Run the steps that are due, as long as the game isn't paused
+            int maxSteps = maxStepsPerFrame;
+            if (maxSteps > 0 && maxSteps != timestep.getMaxStepsPerFrame()) {
+                timestep.setMaxStepsPerFrame(maxSteps);
+            }
+            int steps = timestep.advance(frameStart);
+
+            //The latest step happened when the time that is still waiting to be simulated started,
+            //and every step before it happened one step length earlier
+            long stepTime = frameStart - (timestep.getStepNanos() - timestep.getNanosUntilNextStep());
+            for (int i = 0; i < steps && !world.isPaused(); i++) {
+                //Apply what the player did before this step, so each step sees the touches from its own slice of time
+                applyInput(stepTime - (steps - 1 - i) * timestep.getStepNanos());
+                world.step(timestep.getStepSeconds());
+            }
+
+            //Apply everything else the player did, so the next step (or unpausing) doesn't wait for it
+            applyInput(Long.MAX_VALUE);
+            long frameEnd = System.nanoTime();
+
+            //Publish a copy of the world for the render thread
+            WorldSnapshot snapshot = snapshots.getWriteBuffer();
+            snapshot.copyFrom(world, stepTime, timestep.getStepNanos(), frameEnd - frameStart);
+            snapshot.setInput(inputCount, inputTime);
+            snapshots.publish();
+
+            //Sleep until the next step is due
+            LockSupport.parkNanos(timestep.getNanosUntilNextStep());
+        }
+        thread = null;
+    }
+
+    /**
+     * This method applies the input that happened up to the given time. Drags in a row are coalesced,
+     * only the last one is applied.
+     * @param until the latest time (from System.nanoTime()) of the input to apply
+     */
+    private void applyInput(long until) {
+        boolean dragging = false;
+        float dragX = 0;
+        while (input.pollUntil(until)) {
+            inputCount++;
+            inputTime = Math.max(inputTime, input.getTime());
+            if (input.getType() == World.INPUT_DRAG) {
+                dragging = true;
+                dragX = input.getX();
+                continue;
+            }
+
+            //Anything else has to come after the drag before it
+            if (dragging) {
+                apply(World.INPUT_DRAG, dragX);
+                dragging = false;
+            }
+            apply(input.getType(), input.getX());
+        }
+        if (dragging) {
+            apply(World.INPUT_DRAG, dragX);
+        }
+    }
+
+    private void apply(int type, float x) {
+        world.handleInput(type, x);
+        if (replay != null) {
+            replay.record(world, type, x);
+        }
+    }
+}
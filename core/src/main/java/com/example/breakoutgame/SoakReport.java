@@ -0,0 +1,212 @@
+package com.example.breakoutgame;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+public class SoakReport {
+    /*
+        Note: This keeps what a SoakTester run found: the first broken rule (if any), how the game went,
+              and how much memory was allocated and in use after every window of steps.
+              The first window is the warm up (classes are loaded and the JIT compiler is still busy),
+              so it's only used as the starting point. After it, a window that allocates more than a
+              little, or a heap that keeps growing, is drift: something is created in every frame,
+              or something is kept that should have been let go.
+     */
+
+    //How much a window after the first one may allocate, and how much the heap may grow, before it's drift
+    private long maxAllocatedBytesPerWindow;
+    private long maxHeapGrowthBytes;
+
+    //Every window: how many steps it had, how many bytes this thread allocated during it (-1 if the JVM
+    //can't tell), and how many bytes of the heap were in use at its end
+    private int windowCount = 0;
+    private long[] windowSteps = new long[16];
+    private long[] allocatedBytes = new long[16];
+    private long[] heapBytes = new long[16];
+
+    //The first rule the world broke, and the step it broke it in, or null if every step kept every rule
+    private String violation;
+    private long violationStep = -1;
+
+    //How the session went (set by the SoakTester when it's done)
+    private long steps = 0;
+    private long bricksDestroyed = 0;
+    private long livesLost = 0;
+    private int wallsCleared = 0;
+    private int gamesLost = 0;
+    private long elapsedNanos = 0;
+
+    /**
+     * This constructor is called when the report is created/instantiated
+     * @param maxAllocatedBytesPerWindow how many bytes a window after the first one may allocate
+     * @param maxHeapGrowthBytes how many bytes the heap may grow by after the first window
+     */
+    public SoakReport(long maxAllocatedBytesPerWindow, long maxHeapGrowthBytes) {
+        this.maxAllocatedBytesPerWindow = maxAllocatedBytesPerWindow;
+        this.maxHeapGrowthBytes = maxHeapGrowthBytes;
+    }
+
+    /**
+     * This method records one window of steps
+     * @param steps how many steps the window had
+     * @param allocated how many bytes were allocated during it, or -1 if that isn't known
+     * @param heap how many bytes of the heap were in use at the end of it
+     */
+    void addWindow(long steps, long allocated, long heap) {
+        if (windowCount == windowSteps.length) {
+            windowSteps = Arrays.copyOf(windowSteps, windowCount * 2);
+            allocatedBytes = Arrays.copyOf(allocatedBytes, windowCount * 2);
+            heapBytes = Arrays.copyOf(heapBytes, windowCount * 2);
+        }
+        windowSteps[windowCount] = steps;
+        allocatedBytes[windowCount] = allocated;
+        heapBytes[windowCount] = heap;
+        windowCount++;
+    }
+
+    /**
+     * This method records the first rule the world broke
+     */
+    void setViolation(long step, String violation) {
+        this.violationStep = step;
+        this.violation = violation;
+    }
+
+    /**
+     * This method records how the session went
+     */
+    void finish(World world, long steps, long elapsedNanos) {
+        this.steps = steps;
+        this.elapsedNanos = elapsedNanos;
+        bricksDestroyed = world.getBricksDestroyed();
+        livesLost = world.getLivesLost();
+        wallsCleared = world.getWallsCleared();
+        gamesLost = world.getGamesLost();
+    }
+
+    /**
+     * This method looks for drift between the windows
+     * @return what drifted, or null if nothing did
+     */
+    public String getDrift() {
+        for (int w = 1; w < windowCount; w++) {
+            if (allocatedBytes[w] > maxAllocatedBytesPerWindow) {
+                return "Window " + w + " allocated " + allocatedBytes[w] + " bytes in " + windowSteps[w] + " steps";
+            }
+        }
+        if (getHeapGrowth() > maxHeapGrowthBytes) {
+            return "The heap grew by " + getHeapGrowth() + " bytes after the first window";
+        }
+        return null;
+    }
+
+    /**
+     * This method reports whether every step kept every rule and nothing drifted
+     */
+    public boolean isPassed() {
+        return violation == null && getDrift() == null;
+    }
+
+    /**
+     * This method reports how much more of the heap was in use at the end of the biggest window than
+     * at the end of the first one (0 if there is only one window, or it never got bigger)
+     */
+    public long getHeapGrowth() {
+        long growth = 0;
+        for (int w = 1; w < windowCount; w++) {
+            growth = Math.max(growth, heapBytes[w] - heapBytes[0]);
+        }
+        return growth;
+    }
+
+    /**
+     * This method reports how many bytes were allocated per step after the first window,
+     * or -1 if the JVM can't tell
+     */
+    public double getAllocatedBytesPerStep() {
+        long allocated = 0;
+        long windowed = 0;
+        for (int w = 1; w < windowCount; w++) {
+            if (allocatedBytes[w] < 0) {
+                return -1;
+            }
+            allocated += allocatedBytes[w];
+            windowed += windowSteps[w];
+        }
+        return windowed == 0 ? 0 : (double) allocated / windowed;
+    }
+
+    /**
+     * This method writes the report as a few lines of text (Ex: to System.out)
+     */
+    public void writeReport(Appendable out) throws IOException {
+        out.append("steps            ").append(Long.toString(steps)).append('\n');
+        out.append("bricks destroyed ").append(Long.toString(bricksDestroyed)).append('\n');
+        out.append("lives lost       ").append(Long.toString(livesLost)).append('\n');
+        out.append("walls cleared    ").append(Integer.toString(wallsCleared)).append('\n');
+        out.append("games lost       ").append(Integer.toString(gamesLost)).append('\n');
+        out.append("windows          ").append(Integer.toString(windowCount)).append('\n');
+        out.append("bytes per step   ").append(format(getAllocatedBytesPerStep())).append('\n');
+        out.append("heap growth KB   ").append(format(getHeapGrowth() / 1024.0)).append('\n');
+        out.append("elapsed seconds  ").append(format(elapsedNanos / 1e9)).append('\n');
+        out.append("steps per second ").append(format(elapsedNanos == 0 ? 0 : steps * 1e9 / elapsedNanos)).append('\n');
+        if (violation != null) {
+            out.append("FAILED at step ").append(Long.toString(violationStep)).append(": ").append(violation).append('\n');
+        }
+        else if (getDrift() != null) {
+            out.append("DRIFT: ").append(getDrift()).append('\n');
+        }
+        else {
+            out.append("passed\n");
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    public String getViolation() {
+        return violation;
+    }
+
+    public long getViolationStep() {
+        return violationStep;
+    }
+
+    public int getWindowCount() {
+        return windowCount;
+    }
+
+    public long getAllocatedBytes(int window) {
+        return allocatedBytes[window];
+    }
+
+    public long getHeapBytes(int window) {
+        return heapBytes[window];
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getBricksDestroyed() {
+        return bricksDestroyed;
+    }
+
+    public long getLivesLost() {
+        return livesLost;
+    }
+
+    public int getWallsCleared() {
+        return wallsCleared;
+    }
+
+    public int getGamesLost() {
+        return gamesLost;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.breakoutgame;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public class SoakTester {
+    /*
+        Note: This plays one very long session (tens of millions of steps) to find the bugs that only
+              show up after a long time: a ball that gets stuck bouncing in a loop, lives or brick counts
+              that slowly go wrong, or memory that's never given back.
+              The paddle is played by a PredictiveController, so walls really get cleared and the levels
+              move on (give it a level pack to play them with a LevelProgression). Now and then a random
+              touch, let go or drag is thrown in instead, so every kind of input is covered too.
+
+              After every step the world is checked against the rules that must always hold (see
+              checkWorld()), and the session stops at the first step that breaks one. The steps are run
+              in windows, and after every window the bytes this thread allocated and the size of the heap
+              are recorded, so a slow leak shows up as drift between the windows (see SoakReport).
+
+              Run it from the command line with:
+              ./gradlew :core:soak --args="--steps 50000000 --levels app/src/main/assets/levels.pack"
+     */
+
+    //How far (in world units) a ball can be past an edge of the world before it counts as outside of it
+    //Note: The bounces are worked out with floats, so the ball can end up a tiny bit past a wall
+    private static final float BOUNDS_SLACK = 0.5f;
+
+    //On average, the player does something random instead of what the controller would once in this many steps
+    private static final int INPUT_EVERY = 80;
+
+    //On average, another ball is thrown in (like a multiball powerup) once in this many steps
+    private static final int EXTRA_BALL_EVERY = 5000;
+
+    //The session's settings. They must not be changed while run() is running
+    private long steps = 20000000;
+    private int windowSteps = 1000000;
+    private long seed = 1;
+    private int maxBalls = 4;
+    private boolean fixedPoint = false;
+    private int stepsPerSecond = 120;
+
+    //The levels to play one after the other, or null to play the full wall every time
+    private LevelPack levelPack;
+
+    //The longest the balls can go without destroying a brick, losing a life or coming back to the paddle,
+    //in seconds of play. Longer than this and a ball is most likely stuck in a loop
+    //Note: Coming back to the paddle counts, because a player who doesn't miss can take minutes to hit the last bricks
+    private int maxQuietSeconds = 120;
+
+    //How much a window after the first one may allocate, and how much the heap may grow, see SoakReport
+    private long maxAllocatedBytesPerWindow = 64 * 1024;
+    private long maxHeapGrowthBytes = 4 * 1024 * 1024;
+
+    /**
+     * This method plays the session and checks the world after every step
+     * @return what was found, see SoakReport.isPassed()
+     */
+    public SoakReport run() {
+        World world = new World();
+        world.setSeed(seed);
+        world.setFixedPoint(fixedPoint);
+        FastRandom player = new FastRandom(seed ^ 0x50A4L);
+        PaddleController controller = new PredictiveController();
+
+        //The next level is built on a background thread, the same as in the app
+        ExecutorService levelLoader = null;
+        if (levelPack != null) {
+            levelLoader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "SoakLevelLoader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            world.setProgression(new LevelProgression(levelPack, 0, levelLoader));
+        }
+        float dt = new FixedTimestep(stepsPerSecond, 1).getStepSeconds();
+        long maxQuietSteps = (long) maxQuietSeconds * stepsPerSecond;
+
+        SoakReport report = new SoakReport(maxAllocatedBytesPerWindow, maxHeapGrowthBytes);
+        long start = System.nanoTime();
+        long step = 0;
+        long lastEvents = 0;
+        long lastEventStep = 0;
+        while (step < steps && report.getViolation() == null) {
+            long windowStart = step;
+            long windowEnd = Math.min(step + windowSteps, steps);
+            long allocatedBefore = allocatedBytes();
+            for (; step < windowEnd; step++) {
+                playInput(world, controller, player);
+                world.step(dt);
+
+                String broken = checkWorld(world);
+
+                //Something has to happen every now and then, or a ball is stuck
+                long events = world.getBricksDestroyed() + world.getLivesLost() + world.getPaddleHits();
+                if (events != lastEvents || world.isPaused()) {
+                    lastEvents = events;
+                    lastEventStep = step;
+                }
+                else if (broken == null && step - lastEventStep > maxQuietSteps) {
+                    broken = "No brick was destroyed, no life was lost and no ball hit the paddle for "
+                            + maxQuietSeconds + " seconds";
+                }
+
+                if (broken != null) {
+                    report.setViolation(step, broken);
+                    step++;
+                    break;
+                }
+            }
+            long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+            report.addWindow(step - windowStart, allocated, heapBytes());
+        }
+        report.finish(world, step, System.nanoTime() - start);
+        if (levelLoader != null) {
+            levelLoader.shutdown();
+        }
+        return report;
+    }
+
+    /**
+     * This method plays the paddle with the controller, and now and then touches the screen at random instead
+     */
+    private void playInput(World world, PaddleController controller, FastRandom player) {
+        if (player.nextInt(INPUT_EVERY) == 0) {
+            int type = 1 + player.nextInt(3);
+            world.handleInput(type, player.nextFloat() * world.getScreenX());
+        }
+        else {
+            controller.update(world);
+        }
+
+        //Now and then throw in another ball below the wall, going up
+        if (player.nextInt(EXTRA_BALL_EVERY) == 0 && world.getBalls().getActiveCount() < maxBalls) {
+            float x = player.nextFloat() * (world.getScreenX() - world.getBalls().getWidth());
+            world.addBall(x, world.getScreenY() / 2f, player.nextFloat() * 800 - 400, -200 - player.nextFloat() * 400);
+        }
+    }
+
+    /**
+     * This method checks the rules that must hold after every step
+     * Note: Nothing is created unless a rule is broken, so this can run after every step
+     * @return what's wrong, or null if every rule holds
+     */
+    public static String checkWorld(World world) {
+        if (world.getLives() < 0) {
+            return "Lives went negative: " + world.getLives();
+        }
+
+        //The counts the store keeps must match the bricks that are really there
+        BrickStore bricks = world.getBricks();
+        int live = 0;
+        for (int w = 0; w < bricks.getLiveWordCount(); w++) {
+            live += Long.bitCount(bricks.getLiveWord(w));
+        }
+        if (live != bricks.getLiveCount() || live != world.getBrickCount()) {
+            return "The brick count is " + world.getBrickCount() + " but " + live + " bricks are live";
+        }
+        int destructible = 0;
+        for (int slot = bricks.nextLive(0); slot >= 0; slot = bricks.nextLive(slot + 1)) {
+            if (bricks.getType(slot) != BrickStore.INDESTRUCTIBLE) {
+                destructible++;
+            }
+        }
+        if (destructible != bricks.getDestructibleCount()) {
+            return "The destructible count is " + bricks.getDestructibleCount() + " but " + destructible + " are live";
+        }
+
+        BallPool balls = world.getBalls();
+        if (balls.getActiveCount() < 1) {
+            return "There is no ball in play";
+        }
+        for (int i = 0; i < balls.getActiveCount(); i++) {
+            float left = balls.getLeft(i);
+            float top = balls.getTop(i);
+            float xVelocity = balls.getXVelocity(i);
+            float yVelocity = balls.getYVelocity(i);
+            if (!isFinite(left) || !isFinite(top) || !isFinite(xVelocity) || !isFinite(yVelocity)) {
+                return "Ball " + i + " isn't a number: " + left + ", " + top + " at " + xVelocity + ", " + yVelocity;
+            }
+            if (left < -BOUNDS_SLACK || top < -BOUNDS_SLACK
+                    || balls.getRight(i) > world.getScreenX() + BOUNDS_SLACK
+                    || balls.getBottom(i) > world.getScreenY() + BOUNDS_SLACK) {
+                return "Ball " + i + " left the world: " + left + ", " + top;
+            }
+
+            //A ball that doesn't move up or down never comes back to the paddle
+            if (yVelocity == 0) {
+                return "Ball " + i + " isn't moving up or down";
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFinite(float value) {
+        return !Float.isNaN(value) && !Float.isInfinite(value);
+    }
+
+    /**
+     * This method reports how many bytes this thread has allocated so far, or -1 if the JVM can't tell
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if (!counter.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * This method reports how many bytes of the heap are in use
+     * Note: It collects the garbage first, otherwise most of the heap is garbage that hasn't been collected yet
+     */
+    private static long heapBytes() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public void setSteps(long steps) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("steps must be positive: " + steps);
+        }
+        this.steps = steps;
+    }
+
+    public void setWindowSteps(int windowSteps) {
+        if (windowSteps <= 0) {
+            throw new IllegalArgumentException("windowSteps must be positive: " + windowSteps);
+        }
+        this.windowSteps = windowSteps;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setMaxBalls(int maxBalls) {
+        if (maxBalls <= 0 || maxBalls > World.DEFAULT_MAX_BALLS) {
+            throw new IllegalArgumentException("maxBalls must be between 1 and " + World.DEFAULT_MAX_BALLS + ": " + maxBalls);
+        }
+        this.maxBalls = maxBalls;
+    }
+
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+
+    /**
+     * This method sets the levels to play one after the other, or null to play the full wall every time
+     */
+    public void setLevelPack(LevelPack levelPack) {
+        this.levelPack = levelPack;
+    }
+
+    public void setMaxQuietSeconds(int maxQuietSeconds) {
+        if (maxQuietSeconds <= 0) {
+            throw new IllegalArgumentException("maxQuietSeconds must be positive: " + maxQuietSeconds);
+        }
+        this.maxQuietSeconds = maxQuietSeconds;
+    }
+
+    /**
+     * This method sets how much drift is allowed, see SoakReport
+     */
+    public void setDriftLimits(long maxAllocatedBytesPerWindow, long maxHeapGrowthBytes) {
+        this.maxAllocatedBytesPerWindow = maxAllocatedBytesPerWindow;
+        this.maxHeapGrowthBytes = maxHeapGrowthBytes;
+    }
+
+    /**
+     * This method runs the soak test from the command line and exits with 1 if it failed. Every option is optional:
+     * --steps N, --window N (steps per window), --seed SEED, --balls MAX, --quiet-seconds MAX, --levels PACK_FILE
+     * and --fixed-point
+     */
+    public static void main(String[] args) throws IOException {
+        SoakTester tester = new SoakTester();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--steps":
+                        tester.setSteps(Long.parseLong(args[++i]));
+                        break;
+                    case "--window":
+                        tester.setWindowSteps(Integer.parseInt(args[++i]));
+                        break;
+                    case "--seed":
+                        tester.setSeed(Long.parseLong(args[++i]));
+                        break;
+                    case "--balls":
+                        tester.setMaxBalls(Integer.parseInt(args[++i]));
+                        break;
+                    case "--quiet-seconds":
+                        tester.setMaxQuietSeconds(Integer.parseInt(args[++i]));
+                        break;
+                    case "--levels":
+                        tester.setLevelPack(LevelPack.open(new File(args[++i])));
+                        break;
+                    case "--fixed-point":
+                        tester.setFixedPoint(true);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        }
+        catch (RuntimeException | IOException e) {
+            //Covers bad numbers, missing values, unknown options and level packs that can't be opened
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Options: --steps N --window N --seed SEED --balls MAX --quiet-seconds MAX --levels PACK_FILE --fixed-point");
+            System.exit(1);
+            return;
+        }
+
+        SoakReport report = tester.run();
+        report.writeReport(System.out);
+        if (!report.isPassed()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.breakoutgame;
+
+public class SweptAabb {
+    /*
+        Note: Instead of moving the ball and then checking if it overlaps something (which misses
+              anything the ball jumps completely over in one step), this works out *when* during
+              the step a moving box first touches a still box. The time is a fraction of the
+              movement: 0 means at the start of the step and 1 means at the end of it.
+              https://www.gamedev.net/tutorials/programming/general-and-gameplay-programming/swept-aabb-collision-detection-and-response-r3084/
+     */
+
+    //The time of impact found by the last call to sweep(), from 0 to 1
+    private float time;
+
+    //True if the last hit was on a left or right face (so the x velocity should be reversed),
+    //false if it was on a top or bottom face (so the y velocity should be reversed)
+    private boolean xFace;
+
+    /**
+     * This method checks if a box moving by (dx, dy) touches a still box before the end of the move.
+     * Boxes that are only touching edges, or that are moving away from each other, don't count.
+     * If the boxes already overlap at the start of the move it's a hit at time 0.
+     * @return true if the boxes hit. The time and face can then be read with getTime() and isXFace()
+     */
+    public boolean sweep(float left, float top, float right, float bottom, float dx, float dy,
+                         float targetLeft, float targetTop, float targetRight, float targetBottom) {
+        //Work out when the moving box starts and stops overlapping the target on each axis
+        float xEntry;
+        float xExit;
+        if (dx > 0) {
+            xEntry = (targetLeft - right) / dx;
+            xExit = (targetRight - left) / dx;
+        }
+        else if (dx < 0) {
+            xEntry = (targetRight - left) / dx;
+            xExit = (targetLeft - right) / dx;
+        }
+        else if (left < targetRight && targetLeft < right) {
+            //Not moving sideways, but already in line with the target
+            xEntry = Float.NEGATIVE_INFINITY;
+            xExit = Float.POSITIVE_INFINITY;
+        }
+        else {
+            return false;
+        }
+
+        float yEntry;
+        float yExit;
+        if (dy > 0) {
+            yEntry = (targetTop - bottom) / dy;
+            yExit = (targetBottom - top) / dy;
+        }
+        else if (dy < 0) {
+            yEntry = (targetBottom - top) / dy;
+            yExit = (targetTop - bottom) / dy;
+        }
+        else if (top < targetBottom && targetTop < bottom) {
+            //Not moving up or down, but already in line with the target
+            yEntry = Float.NEGATIVE_INFINITY;
+            yExit = Float.POSITIVE_INFINITY;
+        }
+        else {
+            return false;
+        }
+
+        //The boxes overlap while they overlap on both axes at the same time
+        float entry = Math.max(xEntry, yEntry);
+        float exit = Math.min(xExit, yExit);
+        if (entry >= exit || exit <= 0 || entry > 1) {
+            return false;
+        }
+
+        //The last axis to start overlapping is the face that was hit
+        //If the boxes already overlap (entry < 0) it's a hit at the start of the move
+        time = Math.max(entry, 0);
+        xFace = xEntry > yEntry;
+        return true;
+    }
+
+    public float getTime() {
+        return time;
+    }
+
+    public boolean isXFace() {
+        return xFace;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.breakoutgame;
+
+public class TrackingController implements PaddleController {
+    /*
+        Note: This controller keeps the middle of the paddle under the lowest ball that is falling.
+              It only reacts to where the ball is now, it doesn't work out where the ball is going to land.
+     */
+
+    //How far (in pixels) the ball can be from the middle of the paddle before the paddle moves
+    private static final float DEAD_ZONE = 10;
+
+    //The input that was passed to the world last, so the same input isn't sent every step
+    private int lastDirection = Paddle.STOP;
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public PaddleController create(long seed) {
+            return new TrackingController();
+        }
+    };
+
+    @Override
+    public void update(World world) {
+        //Touch the screen to start the game
+        if (world.isPaused()) {
+            world.handleInput(World.INPUT_PRESS, world.getScreenX() / 2);
+            lastDirection = Paddle.LEFT;
+        }
+
+        //Find the lowest ball that is falling
+        BallPool balls = world.getBalls();
+        int lowest = -1;
+        for (int i = 0; i < balls.getActiveCount(); i++) {
+            if (balls.getYVelocity(i) > 0 && (lowest < 0 || balls.getTop(i) > balls.getTop(lowest))) {
+                lowest = i;
+            }
+        }
+
+        int direction = Paddle.STOP;
+        if (lowest >= 0) {
+            Paddle paddle = world.getPaddle();
+            float ballMiddle = (balls.getLeft(lowest) + balls.getRight(lowest)) / 2;
+            float paddleMiddle = (paddle.getLeft() + paddle.getRight()) / 2;
+            if (ballMiddle < paddleMiddle - DEAD_ZONE) {
+                direction = Paddle.LEFT;
+            }
+            else if (ballMiddle > paddleMiddle + DEAD_ZONE) {
+                direction = Paddle.RIGHT;
+            }
+        }
+
+        if (direction != lastDirection) {
+            lastDirection = direction;
+            if (direction == Paddle.STOP) {
+                world.handleInput(World.INPUT_RELEASE, 0);
+            }
+            else {
+                //Touch the left or right edge of the screen
+                world.handleInput(World.INPUT_PRESS, direction == Paddle.LEFT ? 0 : world.getScreenX());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.breakoutgame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TripleBuffer<T> {
+    /*
+        Note: This passes the latest copy of something (Ex: a WorldSnapshot) from one thread (the
+              producer) to another (the consumer) without either of them ever waiting for the other.
+              There are three buffers: the producer writes into its "back" buffer, the consumer reads
+              its "front" buffer, and the third one sits in the "middle". Publishing swaps the back
+              buffer with the middle one, and reading the latest swaps the front buffer with the middle
+              one. Each swap is one atomic instruction, so no locks are needed.
+
+              Only one thread may call the producer methods and only one thread may call the
+              consumer methods.
+     */
+
+    //Set in the middle value when the middle buffer holds something the consumer hasn't seen yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private Object[] buffers;
+
+    //The buffer the producer is writing (only used by the producer thread)
+    private int back = 0;
+
+    //The buffer the consumer is reading (only used by the consumer thread)
+    private int front = 1;
+
+    //The index of the middle buffer, plus the FRESH flag
+    private AtomicInteger middle = new AtomicInteger(2);
+
+    /**
+     * This constructor is called when the buffer is created/instantiated
+     * @param first three different objects to use as the buffers. They must all start out the same
+     */
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[] {first, second, third};
+    }
+
+    /**
+     * Producer: the buffer to write the next copy into
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Producer: hands the write buffer over to the consumer. After this the producer
+     * must write into the (different) buffer returned by getWriteBuffer().
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Consumer: switches the read buffer to the most recently published copy, if there is a new one
+     * @return true if the read buffer changed, false if nothing new was published since the last call
+     */
+    public boolean acquireLatest() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * Consumer: the buffer to read. It doesn't change until the next call to acquireLatest()
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.breakoutgame;
+
+public class Viewport {
+    /*
+        Note: The World is always the same size (World.WIDTH x World.HEIGHT world units), no matter what
+              device it's played on, so the game plays (and replays) exactly the same everywhere.
+              This works out how to fit that world onto a view of any size: it's scaled by the same
+              amount in both directions, so nothing gets stretched, and centered, so the space that's
+              left over is split evenly between both sides (or the top and the bottom).
+
+              The drawing is scaled with one Canvas matrix made from getScale(), getOffsetX() and
+              getOffsetY(), and touches go the other way with toWorldX() and toWorldY().
+              When the view is resized or rotated only these numbers change, the game objects don't.
+     */
+
+    //The size of the world, in world units
+    private float worldWidth;
+    private float worldHeight;
+
+    //The size of the view, in pixels
+    private int viewWidth;
+    private int viewHeight;
+
+    //How many pixels one world unit takes up, and where the world's top left corner is on the view
+    private float scale = 1;
+    private float offsetX;
+    private float offsetY;
+
+    /**
+     * This constructor is called when the viewport is created/instantiated
+     * @param worldWidth the width of the world, in world units
+     * @param worldHeight the height of the world, in world units
+     */
+    public Viewport(float worldWidth, float worldHeight) {
+        if (worldWidth <= 0 || worldHeight <= 0) {
+            throw new IllegalArgumentException("World size must be positive: " + worldWidth + " x " + worldHeight);
+        }
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /**
+     * This method fits the world onto a view of the given size (Ex: when the screen is rotated)
+     * @param viewWidth the width of the view, in pixels
+     * @param viewHeight the height of the view, in pixels
+     */
+    public void resize(int viewWidth, int viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+
+        //A view with no size yet (Ex: before it's laid out) keeps the world at its own size
+        if (viewWidth <= 0 || viewHeight <= 0) {
+            scale = 1;
+            offsetX = 0;
+            offsetY = 0;
+            return;
+        }
+
+        //Use whichever side runs out of room first
+        scale = Math.min(viewWidth / worldWidth, viewHeight / worldHeight);
+        offsetX = (viewWidth - worldWidth * scale) / 2;
+        offsetY = (viewHeight - worldHeight * scale) / 2;
+    }
+
+    /**
+     * This method reports whether the viewport was already fitted to a view of the given size
+     */
+    public boolean isSize(int viewWidth, int viewHeight) {
+        return this.viewWidth == viewWidth && this.viewHeight == viewHeight;
+    }
+
+    /**
+     * This method turns an x position on the view (Ex: a touch) into an x position in the world
+     */
+    public float toWorldX(float viewX) {
+        return (viewX - offsetX) / scale;
+    }
+
+    /**
+     * This method turns a y position on the view into a y position in the world
+     */
+    public float toWorldY(float viewY) {
+        return (viewY - offsetY) / scale;
+    }
+
+    /**
+     * This method turns an x position in the world into an x position on the view
+     */
+    public float toViewX(float worldX) {
+        return worldX * scale + offsetX;
+    }
+
+    /**
+     * This method turns a y position in the world into a y position on the view
+     */
+    public float toViewY(float worldY) {
+        return worldY * scale + offsetY;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public float getOffsetX() {
+        return offsetX;
+    }
+
+    public float getOffsetY() {
+        return offsetY;
+    }
+
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    public int getViewHeight() {
+        return viewHeight;
+    }
+}
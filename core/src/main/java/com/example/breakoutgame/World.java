@@ -0,0 +1,689 @@
+package com.example.breakoutgame;
+
+public class World {
+    /*
+        Note: The World holds every game object and all of the game rules (movement, collisions,
+              lives, etc). It doesn't know anything about Android, drawing or touch screens, so it
+              can be run on a normal computer for tests and benchmarks. GameEngine just draws it
+              and passes the player's input into it.
+
+              Every size, position and speed is in world units, not in the pixels of a screen. The game
+              is played in a world of WIDTH x HEIGHT units on every device, and GameEngine scales it to
+              fit the screen (see Viewport). So the game plays, and replays, the same everywhere.
+     */
+
+    //The size of the world the game is played in, unless another size is given to the constructor
+    //Note: This is the size of the screen the game was first made for, so every speed and size still fits it
+    public static final int WIDTH = 1080;
+    public static final int HEIGHT = 1920;
+
+    //The size of this world, in world units (the "screen" the game is played in)
+    private int screenX;
+    private int screenY;
+
+    //This will point out weather the game is running or not. By default, it's set to true
+    //until the player touches the screen to start the game.
+    private boolean paused = true;
+
+    //Declare the paddle
+    private Paddle paddle;
+
+    //Declare the balls. There is normally one, but powerups and stress levels can add more
+    //The balls are kept in arrays inside the pool instead of in one object per ball
+    private BallPool balls;
+
+    //Declare the bricks. Their edges and whether they're still present are kept in arrays
+    //inside the store instead of in one object per brick
+    private BrickStore bricks = new BrickStore();
+
+    //The size of the brick wall that restart() builds (3 rows of 10 bricks by default)
+    private int wallRows = 3;
+    private int wallColumns = 10;
+
+    //The level restart() builds the wall from, or null for a full wall of wallRows x wallColumns
+    private LevelPack levelPack;
+    private int level;
+
+    //Moves on to the next level of the pack when a wall is cleared, or null to build the same wall again
+    private LevelProgression progression;
+
+    //Declare the lives
+    private int lives = 3;
+
+    //The kinds of input the player can give, see handleInput()
+    public static final int INPUT_PRESS = 1;   //The player touched the screen
+    public static final int INPUT_RELEASE = 2; //The player took their finger off of the screen
+    public static final int INPUT_DRAG = 3;    //The player moved their finger, the paddle follows it
+
+    //The most balls that can be in play at the same time, unless another capacity is given to the constructor
+    public static final int DEFAULT_MAX_BALLS = 512;
+
+    //The speed and direction every new game's ball starts with, unless setStartVelocity() is called
+    //These x and y values set means that it will be traveling right, and up the screen
+    public static final float START_X_VELOCITY = 200;
+    public static final float START_Y_VELOCITY = -400;
+    private float startXVelocity = START_X_VELOCITY;
+    private float startYVelocity = START_Y_VELOCITY;
+
+    //The most times the ball can bounce in a single step. Any movement that is left over
+    //after this many bounces is dropped, so a ball wedged in a corner can't freeze the game
+    private static final int MAX_BOUNCES_PER_STEP = 4;
+
+    //What happened to a ball after it bounced
+    private static final int BALL_IN_PLAY = 0;
+    private static final int BALL_LOST = 1;
+    private static final int GAME_RESTARTED = 2;
+
+    //Moves the paddle and the balls and finds what they run into, with floats unless setFixedPoint() is called
+    private Physics physics;
+
+    //Keeps track of the bricks destroyed during a step and sets off the explosive ones
+    private ChainReaction chain = new ChainReaction();
+
+    //One random number generator is shared by everything in the world, so that
+    //nothing has to be created in the middle of a frame
+    //It's seeded from the clock unless setSeed() is called, see ReplayLog
+    private FastRandom random = new FastRandom(System.nanoTime());
+
+    //How many steps have run while the game wasn't paused. Replays use it to know
+    //exactly which step each input has to be applied before
+    private long stepCount = 0;
+
+    //Totals since the world was created, used to measure how well a game went (see BatchSimulator)
+    private long bricksDestroyed = 0;
+    private long livesLost = 0;
+    private int wallsCleared = 0;
+    private int gamesLost = 0;
+    private long paddleHits = 0;
+
+    /**
+     * This constructor is called when the world is first created, at the normal size of WIDTH x HEIGHT
+     */
+    public World() {
+        this(WIDTH, HEIGHT);
+    }
+
+    /**
+     * This constructor is called when the world is first created
+     * @param screenX the width of the world, in world units
+     * @param screenY the height of the world, in world units
+     */
+    public World(int screenX, int screenY) {
+        this(screenX, screenY, DEFAULT_MAX_BALLS);
+    }
+
+    /**
+     * This constructor is called when the world is first created
+     * @param screenX the width of the world, in world units
+     * @param screenY the height of the world, in world units
+     * @param maxBalls the most balls that can be in play at the same time
+     */
+    public World(int screenX, int screenY, int maxBalls) {
+        this.screenX = screenX;
+        this.screenY = screenY;
+
+        //Initialize the paddle
+        paddle = new Paddle(screenX, screenY);
+
+        //Initialize the balls
+        balls = new BallPool(maxBalls);
+
+        physics = new FloatPhysics(this);
+
+        //Reset the position of the ball, paddle and bricks
+        restart();
+    }
+
+    /**
+     * This method moves every game object by one simulation step and checks for collisions.
+     * Nothing happens while the game is paused.
+     * @param dt the length of the step in seconds
+     */
+    public void step(float dt) {
+        if (paused) {
+            return;
+        }
+        stepCount++;
+        physics.beginStep(dt);
+
+        //Remember where the paddle was so the drawing can blend between the two steps
+        paddle.savePosition();
+
+        //Move the paddle by the step length
+        physics.movePaddle();
+
+        //if the paddle hits the right side of the screen
+        if (paddle.getRight() > screenX) {
+            //Stops the paddle from going off screen
+            paddle.setMovement(Paddle.STOP);
+        }
+
+        //If the paddle hits the left side of the screen
+        if (paddle.getLeft() < 0) {
+            //Stops the paddle from going off screen
+            paddle.setMovement(Paddle.STOP);
+        }
+
+        //Move every ball, bouncing it off of whatever it hits on the way\\
+        //Note: The loop goes backwards because a lost ball is replaced by the last ball in the pool
+        for (int i = balls.getActiveCount() - 1; i >= 0; i--) {
+            if (moveBall(i) == GAME_RESTARTED) {
+                return;
+            }
+        }
+
+        //Set off the explosions and remove every brick that was destroyed during the step
+        bricksDestroyed += chain.resolve(bricks);
+
+        //If the player destroys all of the bricks (indestructible ones don't count)
+        if (bricks.getDestructibleCount() == 0) {
+            wallsCleared++;
+            paused = true;
+            if (progression != null) {
+                nextLevel();
+            }
+            else {
+                restart();
+            }
+        }
+    }
+
+    /**
+     * This method moves on to the next level of the progression. The level was built ahead of time,
+     * so this only swaps the brick stores, and the player keeps their lives.
+     */
+    private void nextLevel() {
+        bricks = progression.advance(bricks);
+        level = progression.getCurrentLevel();
+        wallRows = levelPack.getRows(level);
+        wallColumns = levelPack.getColumns(level);
+        chain.reset(bricks);
+        resetBallAndPaddle();
+        prepareNextLevel();
+    }
+
+    /**
+     * This method starts building the level after the current one, with bricks sized the same way restart() does
+     */
+    private void prepareNextLevel() {
+        int next = progression.getNextLevel();
+        progression.prepareNext(screenX / levelPack.getColumns(next),
+                screenY * 3 / 10 / levelPack.getRows(next));
+    }
+
+    /**
+     * This method moves one ball by one simulation step. The physics moves it up to the first thing
+     * it hits, it's bounced, and then the rest of the step is used up the same way.
+     * @param i the index of the ball in the pool
+     * @return BALL_IN_PLAY, BALL_LOST or GAME_RESTARTED
+     */
+    private int moveBall(int i) {
+        //Remember where the ball was so the drawing can blend between the two steps
+        balls.savePosition(i);
+
+        physics.beginMove(i);
+        for (int bounce = 0; bounce < MAX_BOUNCES_PER_STEP; bounce++) {
+            int hit = physics.moveToFirstHit(i);
+            if (hit == Physics.HIT_NONE) {
+                break;
+            }
+            int result = bounce(i, hit);
+            if (result != BALL_IN_PLAY) {
+                return result;
+            }
+        }
+        return BALL_IN_PLAY;
+    }
+
+    /**
+     * This method bounces a ball off of the thing the physics found it hitting
+     * @param hit one of the Physics.HIT_ constants
+     * @return BALL_IN_PLAY, BALL_LOST if the ball fell off the bottom of the screen while other balls
+     *         are still in play, or GAME_RESTARTED if the last ball fell off on the last life
+     */
+    private int bounce(int ball, int hit) {
+        switch (hit) {
+            case Physics.HIT_BRICK:
+                //Take a hit point off of the brick. If that destroys it, it's removed at the end of the step
+                //(along with anything its explosion destroys), see ChainReaction
+                chain.hit(bricks, physics.getHitSlot());
+
+                //Bounce the ball off of the side of the brick it hit
+                if (physics.isHitXFace()) {
+                    physics.reverseXVelocity(ball);
+                }
+                else {
+                    physics.reverseYVelocity(ball);
+                }
+                break;
+
+            case Physics.HIT_PADDLE:
+                if (physics.isHitXFace() && physics.isHitAfterStart()) {
+                    //The ball hit the end of the paddle, bounce it sideways
+                    physics.reverseXVelocity(ball);
+                }
+                else {
+                    //If the paddle moved into the ball, put the ball back on top of it
+                    physics.putOnPaddle(ball);
+
+                    //Pick a random x direction for the ball so it will go left or right
+                    if (random.nextInt(2) == 0) {
+                        physics.reverseXVelocity(ball);
+                    }
+
+                    //Reverse the y velocity so the ball goes back up
+                    physics.reverseYVelocity(ball);
+                    paddleHits++;
+                }
+                break;
+
+            case Physics.HIT_LEFT_WALL:
+            case Physics.HIT_RIGHT_WALL:
+                //Move the ball in the opposite direction
+                physics.reverseXVelocity(ball);
+                break;
+
+            case Physics.HIT_TOP_WALL:
+                //Move the ball in the opposite direction
+                physics.reverseYVelocity(ball);
+                break;
+
+            case Physics.HIT_BOTTOM_WALL:
+                //If there are other balls still in play, this ball is just taken out
+                if (balls.getActiveCount() > 1) {
+                    physics.deactivate(ball);
+                    return BALL_LOST;
+                }
+
+                //Reverse the balls y velocity to move it back up
+                //since it hit the bottom of the screen
+                physics.reverseYVelocity(ball);
+
+                //Decrement lives
+                lives--;
+                livesLost++;
+
+                //If the player hits 0 lives
+                if (lives == 0) {
+                    gamesLost++;
+                    paused = true;
+                    restart();
+                    return GAME_RESTARTED;
+                }
+                break;
+        }
+        return BALL_IN_PLAY;
+    }
+
+    /**
+     * This method will be used to restart/reset the ball, score, etc
+     */
+    public void restart() {
+        //Reset lives
+        lives = 3;
+
+        resetBallAndPaddle();
+
+        //Specify the brick's size
+        //The wall fills the width of the screen and the top 3/10ths of its height,
+        //so the default 3 x 10 wall has bricks that are 1/10th of the width and height of the screen
+        int brickWidth = screenX / wallColumns;
+        int brickHeight = screenY * 3 / 10 / wallRows;
+
+        //Build the wall from the level, if there is one
+        //Note: The store is cleared and refilled in place, no new objects are created
+        if (levelPack != null) {
+            levelPack.load(level, bricks, brickWidth, brickHeight);
+            chain.reset(bricks);
+            return;
+        }
+
+        //Nested for loop to create a brick wall
+        bricks.reset(wallRows, wallColumns, brickWidth, brickHeight);
+        for (int row = 0; row < wallRows; row++) {
+            for (int col = 0; col < wallColumns; col++) {
+                bricks.add(row, col, brickWidth, brickHeight);
+            }
+        }
+        chain.reset(bricks);
+    }
+
+    private void resetBallAndPaddle() {
+        //Take every ball out of play and put one ball back at the bottom center of the screen, just above the paddle
+        balls.clear();
+        balls.activate(screenX / 2, screenY - 25 - balls.getHeight(), startXVelocity, startYVelocity);
+
+        //Put the paddle back to it's starting position
+        paddle.reset(screenX, screenY);
+    }
+
+    /**
+     * This method changes the size of the brick wall and rebuilds it by calling restart()
+     * @param rows how many rows of bricks the wall has
+     * @param columns how many bricks each row has
+     */
+    public void setWallSize(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Wall size must be positive: " + rows + " x " + columns);
+        }
+        wallRows = rows;
+        wallColumns = columns;
+        levelPack = null;
+        progression = null;
+        restart();
+    }
+
+    /**
+     * This method builds the brick wall from a level of a level pack, from now on,
+     * and rebuilds it by calling restart()
+     * @param pack the level pack
+     * @param level the index of the level in the pack
+     */
+    public void loadLevel(LevelPack pack, int level) {
+        if (level < 0 || level >= pack.getLevelCount()) {
+            throw new IllegalArgumentException("No level " + level + " in a pack of " + pack.getLevelCount());
+        }
+        levelPack = pack;
+        this.level = level;
+        wallRows = pack.getRows(level);
+        wallColumns = pack.getColumns(level);
+        progression = null;
+        restart();
+    }
+
+    /**
+     * This method plays the levels of a progression from now on: the wall is rebuilt from its current
+     * level, and every cleared wall moves on to the next one. Losing every life plays the same level again.
+     */
+    public void setProgression(LevelProgression progression) {
+        loadLevel(progression.getPack(), progression.getCurrentLevel());
+        this.progression = progression;
+        prepareNextLevel();
+    }
+
+    /**
+     * This method reports the progression the levels come from, or null if the same wall is played every time
+     */
+    public LevelProgression getProgression() {
+        return progression;
+    }
+
+    /**
+     * This method changes the speed and direction the ball starts every game with.
+     * The ball keeps the same speed after bouncing, so this sets how fast the game is.
+     * It takes effect the next time restart() is called.
+     */
+    public void setStartVelocity(float xVelocity, float yVelocity) {
+        if (yVelocity >= 0) {
+            throw new IllegalArgumentException("The ball must start going up: " + yVelocity);
+        }
+        startXVelocity = xVelocity;
+        startYVelocity = yVelocity;
+    }
+
+    /**
+     * This method changes the length of the paddle (130 by default). The paddle keeps its left edge.
+     */
+    public void setPaddleLength(float length) {
+        if (length <= 0 || length > screenX) {
+            throw new IllegalArgumentException("Paddle length must be between 0 and the screen width: " + length);
+        }
+        paddle.setLength(length);
+    }
+
+    /**
+     * This method picks the physics the paddle and balls are moved with: 16.16 fixed-point ints, which
+     * give the same bits on every device (see FixedPointPhysics), or floats (the default, see FloatPhysics).
+     * The balls and paddle stay where they are.
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        if (fixedPoint != isFixedPoint()) {
+            physics = fixedPoint ? new FixedPointPhysics(this) : new FloatPhysics(this);
+        }
+    }
+
+    public boolean isFixedPoint() {
+        return physics instanceof FixedPointPhysics;
+    }
+
+    public Physics getPhysics() {
+        return physics;
+    }
+
+    /**
+     * This method restarts the random numbers from the given seed. Two worlds with the same size and
+     * seed that get the same input before the same steps end up exactly the same, bit for bit.
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * This method adds another ball to the game (Ex: for a multiball powerup)
+     * @return true if the ball was added, false if the most balls are already in play
+     */
+    public boolean addBall(float x, float y, float xVelocity, float yVelocity) {
+        return balls.activate(x, y, xVelocity, yVelocity) >= 0;
+    }
+
+    /**
+     * This method applies the player's input to the world
+     * @param type INPUT_PRESS, INPUT_RELEASE or INPUT_DRAG
+     * @param x where in the world the player touched (see Viewport.toWorldX())
+     */
+    public void handleInput(int type, float x) {
+        switch (type) {
+            //This case occurs when the player touches the screen
+            case INPUT_PRESS:
+                //Set the game's state to resume because the case statement means
+                //"the player touched the screen, resume/start the game"
+                paused = false;
+
+                //If the player touched the right hand side of the screen, move the paddle
+                //to the right, otherwise move it to the left
+                if (x > screenX / 2) {
+                    paddle.setMovement(Paddle.RIGHT);
+                }
+                else {
+                    paddle.setMovement(Paddle.LEFT);
+                }
+                break;
+
+            //This case occurs when the player removes their finger off of the screen
+            case INPUT_RELEASE:
+                //Stop the paddle
+                paddle.setMovement(Paddle.STOP);
+                break;
+
+            //This case occurs when the player drags their finger across the screen
+            case INPUT_DRAG:
+                //Center the paddle under the finger on the next step
+                paddle.dragTo(x - paddle.getLength() / 2);
+                break;
+        }
+    }
+
+    /**
+     * This method is called when the player touches the screen to start/resume the game
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public Paddle getPaddle() {
+        return paddle;
+    }
+
+    public BallPool getBalls() {
+        return balls;
+    }
+
+    /**
+     * The physics uses it to skip the bricks that were destroyed earlier in the step
+     */
+    ChainReaction getChain() {
+        return chain;
+    }
+
+    public BrickStore getBricks() {
+        return bricks;
+    }
+
+    /**
+     * This method reports how many bricks are left
+     */
+    public int getBrickCount() {
+        return bricks.getLiveCount();
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * This method is used by GameState to put back the lives of a saved game
+     */
+    void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    /**
+     * This method is used by GameState to put back the step count of a saved game
+     */
+    void setStepCount(long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    /**
+     * This method reports how many bricks have been destroyed since the world was created
+     */
+    public long getBricksDestroyed() {
+        return bricksDestroyed;
+    }
+
+    /**
+     * This method reports how many lives have been lost since the world was created
+     */
+    public long getLivesLost() {
+        return livesLost;
+    }
+
+    /**
+     * This method reports how many times every brick was destroyed since the world was created
+     */
+    public int getWallsCleared() {
+        return wallsCleared;
+    }
+
+    /**
+     * This method reports how many times the last life was lost since the world was created
+     */
+    public int getGamesLost() {
+        return gamesLost;
+    }
+
+    /**
+     * This method reports how many times a ball was bounced back up by the paddle since the world was created
+     */
+    public long getPaddleHits() {
+        return paddleHits;
+    }
+
+    /**
+     * This method reports how many ball moves had to check the bricks, since the counters were reset
+     */
+    public long getBroadPhaseHits() {
+        return physics.getBroadPhaseHits();
+    }
+
+    /**
+     * This method reports how many ball moves skipped the bricks, since the counters were reset
+     */
+    public long getBroadPhaseMisses() {
+        return physics.getBroadPhaseMisses();
+    }
+
+    public void resetBroadPhaseCounters() {
+        physics.resetBroadPhaseCounters();
+    }
+
+    /**
+     * This method reports how many steps have run while the game wasn't paused
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public float getStartXVelocity() {
+        return startXVelocity;
+    }
+
+    public float getStartYVelocity() {
+        return startYVelocity;
+    }
+
+    /**
+     * This method reports the level pack the wall is built from, or null for a full wall
+     */
+    public LevelPack getLevelPack() {
+        return levelPack;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getWallRows() {
+        return wallRows;
+    }
+
+    public int getWallColumns() {
+        return wallColumns;
+    }
+
+    /**
+     * This method works out a hash of everything that changes while playing: the paddle, the balls,
+     * the bricks that are left, the lives and whether the game is paused. The exact bits of every
+     * float go into it, so two worlds only have the same hash if they are the same bit for bit.
+     * It's used to check that a replay ended up where the recording did.
+     */
+    public long getStateHash() {
+        long hash = stepCount;
+        hash = mix(hash, Float.floatToRawIntBits(paddle.getLeft()));
+        hash = mix(hash, paddle.getMovement());
+        if (paddle.getMovement() == Paddle.DRAG) {
+            hash = mix(hash, Float.floatToRawIntBits(paddle.getTarget()));
+        }
+        for (int i = 0; i < balls.getActiveCount(); i++) {
+            hash = mix(hash, Float.floatToRawIntBits(balls.getLeft(i)));
+            hash = mix(hash, Float.floatToRawIntBits(balls.getTop(i)));
+            hash = mix(hash, Float.floatToRawIntBits(balls.getXVelocity(i)));
+            hash = mix(hash, Float.floatToRawIntBits(balls.getYVelocity(i)));
+        }
+        for (int w = 0; w < bricks.getLiveWordCount(); w++) {
+            hash = mix(hash, bricks.getLiveWord(w));
+        }
+        for (int slot = bricks.nextLive(0); slot >= 0; slot = bricks.nextLive(slot + 1)) {
+            hash = mix(hash, bricks.getHitPoints(slot));
+        }
+        hash = mix(hash, lives);
+        return mix(hash, paused ? 1 : 0);
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x100000001B3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    public int getScreenX() {
+        return screenX;
+    }
+
+    public int getScreenY() {
+        return screenY;
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.breakoutgame;
+
+public class WorldSnapshot {
+    /*
+        Note: This is a copy of everything needed to draw one frame of the World. The simulation
+              thread fills one in after every batch of steps and hands it to the render thread through
+              a TripleBuffer, so the render thread never reads the World while it's being changed.
+              Once published, a snapshot isn't changed again until the render thread hands it back.
+              Every array is made up front (or grown when the wall gets bigger), so taking a snapshot
+              doesn't create objects.
+     */
+
+    //When the latest simulation step happened (System.nanoTime()), and how long a step is
+    //These are used to blend the positions between the previous and the latest step
+    private long stepTime;
+    private long stepNanos;
+
+    //How long the simulation steps in this batch took to run, in nanoseconds
+    private long updateNanos;
+
+    //How many inputs the simulation had applied when this was taken, and when the newest of them happened
+    //The render thread uses these to time how long a touch takes to show up on the screen
+    private long inputCount;
+    private long inputTime;
+
+    private boolean paused;
+    private int lives;
+    private int level;
+
+    //The size of the world, in world units (see World.WIDTH)
+    private int worldWidth;
+    private int worldHeight;
+
+    //The paddle
+    private float paddleLeft;
+    private float paddlePreviousLeft;
+    private float paddleTop;
+    private float paddleLength;
+    private float paddleHeight;
+
+    //The balls
+    private int ballCount;
+    private int ballWidth;
+    private int ballHeight;
+    private float[] ballLeft;
+    private float[] ballTop;
+    private float[] ballPreviousLeft;
+    private float[] ballPreviousTop;
+
+    //The bricks. The edges are only copied when the wall is rebuilt (the store version changes)
+    private int brickVersion = -1;
+    private int brickCount;
+    private float wallHeight;
+    private float[] brickLeft = new float[0];
+    private float[] brickTop = new float[0];
+    private float[] brickRight = new float[0];
+    private float[] brickBottom = new float[0];
+    private byte[] brickType = new byte[0];
+    private long[] liveWords = new long[0];
+    private int liveWordCount;
+
+    /**
+     * This constructor is called when the snapshot is created/instantiated
+     * @param maxBalls the most balls the World can have in play
+     */
+    public WorldSnapshot(int maxBalls) {
+        ballLeft = new float[maxBalls];
+        ballTop = new float[maxBalls];
+        ballPreviousLeft = new float[maxBalls];
+        ballPreviousTop = new float[maxBalls];
+    }
+
+    /**
+     * This method copies the world into this snapshot
+     * @param stepTime when the latest step happened, from System.nanoTime()
+     * @param stepNanos how long one step is, in nanoseconds
+     * @param updateNanos how long the steps since the last snapshot took to run
+     */
+    public void copyFrom(World world, long stepTime, long stepNanos, long updateNanos) {
+        this.stepTime = stepTime;
+        this.stepNanos = stepNanos;
+        this.updateNanos = updateNanos;
+        paused = world.isPaused();
+        lives = world.getLives();
+        level = world.getLevel();
+        worldWidth = world.getScreenX();
+        worldHeight = world.getScreenY();
+
+        Paddle paddle = world.getPaddle();
+        paddleLeft = paddle.getLeft();
+        paddlePreviousLeft = paddle.getInterpolatedLeft(0);
+        paddleTop = paddle.getTop();
+        paddleLength = paddle.getLength();
+        paddleHeight = paddle.getBottom() - paddle.getTop();
+
+        BallPool balls = world.getBalls();
+        ballCount = balls.getActiveCount();
+        ballWidth = balls.getWidth();
+        ballHeight = balls.getHeight();
+        for (int i = 0; i < ballCount; i++) {
+            ballLeft[i] = balls.getLeft(i);
+            ballTop[i] = balls.getTop(i);
+            ballPreviousLeft[i] = balls.getInterpolatedLeft(i, 0);
+            ballPreviousTop[i] = balls.getInterpolatedTop(i, 0);
+        }
+
+        copyBricks(world.getBricks());
+    }
+
+    /**
+     * This method records the input the simulation had applied when this snapshot was taken
+     * @param count how many inputs have been applied so far
+     * @param time when the newest of them happened, from System.nanoTime()
+     */
+    public void setInput(long count, long time) {
+        inputCount = count;
+        inputTime = time;
+    }
+
+    private void copyBricks(BrickStore bricks) {
+        if (bricks.getVersion() != brickVersion) {
+            brickVersion = bricks.getVersion();
+            brickCount = bricks.size();
+            BrickGrid grid = bricks.getGrid();
+            wallHeight = grid.getRows() * grid.getCellHeight();
+            if (brickLeft.length < brickCount) {
+                brickLeft = new float[brickCount];
+                brickTop = new float[brickCount];
+                brickRight = new float[brickCount];
+                brickBottom = new float[brickCount];
+                brickType = new byte[brickCount];
+            }
+            for (int i = 0; i < brickCount; i++) {
+                brickLeft[i] = bricks.getLeft(i);
+                brickTop[i] = bricks.getTop(i);
+                brickRight[i] = bricks.getRight(i);
+                brickBottom[i] = bricks.getBottom(i);
+                brickType[i] = (byte) bricks.getType(i);
+            }
+        }
+
+        liveWordCount = bricks.getLiveWordCount();
+        if (liveWords.length < liveWordCount) {
+            liveWords = new long[liveWordCount];
+        }
+        for (int w = 0; w < liveWordCount; w++) {
+            liveWords[w] = bricks.getLiveWord(w);
+        }
+    }
+
+    /**
+     * This method works out how far between the previous and the latest step the given time is
+     * @param now the current time, from System.nanoTime()
+     * @return 0 (at the previous step) to 1 (at the latest step)
+     */
+    public float getAlpha(long now) {
+        if (paused || stepNanos == 0) {
+            return 1;
+        }
+        float alpha = (float) (now - stepTime) / stepNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * This method reports the level being played, see World.getLevel()
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    public int getWorldWidth() {
+        return worldWidth;
+    }
+
+    public int getWorldHeight() {
+        return worldHeight;
+    }
+
+    public long getInputCount() {
+        return inputCount;
+    }
+
+    public long getInputTime() {
+        return inputTime;
+    }
+
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public float getPaddleLeft(float alpha) {
+        return paddlePreviousLeft + (paddleLeft - paddlePreviousLeft) * alpha;
+    }
+
+    public float getPaddleTop() {
+        return paddleTop;
+    }
+
+    public float getPaddleLength() {
+        return paddleLength;
+    }
+
+    public float getPaddleHeight() {
+        return paddleHeight;
+    }
+
+    public int getBallCount() {
+        return ballCount;
+    }
+
+    public int getBallWidth() {
+        return ballWidth;
+    }
+
+    public int getBallHeight() {
+        return ballHeight;
+    }
+
+    public float getBallLeft(int i, float alpha) {
+        return ballPreviousLeft[i] + (ballLeft[i] - ballPreviousLeft[i]) * alpha;
+    }
+
+    public float getBallTop(int i, float alpha) {
+        return ballPreviousTop[i] + (ballTop[i] - ballPreviousTop[i]) * alpha;
+    }
+
+    /**
+     * This method reports the BrickStore version the bricks were copied from, see BrickStore.getVersion()
+     */
+    public int getBrickVersion() {
+        return brickVersion;
+    }
+
+    public float getWallHeight() {
+        return wallHeight;
+    }
+
+    public float getBrickLeft(int slot) {
+        return brickLeft[slot];
+    }
+
+    public float getBrickTop(int slot) {
+        return brickTop[slot];
+    }
+
+    public float getBrickRight(int slot) {
+        return brickRight[slot];
+    }
+
+    public float getBrickBottom(int slot) {
+        return brickBottom[slot];
+    }
+
+    /**
+     * This method reports the kind of brick in a slot (Ex: BrickStore.EXPLOSIVE)
+     */
+    public int getBrickType(int slot) {
+        return brickType[slot];
+    }
+
+    /**
+     * This method returns 64 bits of the copied live bitset, see BrickStore.getLiveWord()
+     */
+    public long getLiveWord(int word) {
+        return liveWords[word];
+    }
+
+    public int getLiveWordCount() {
+        return liveWordCount;
+    }
+}
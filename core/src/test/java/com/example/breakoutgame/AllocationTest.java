@@ -0,0 +1,69 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Makes sure a steady-state frame of the simulation doesn't create any objects.
+ * Any allocation in the frame loop eventually turns into a GC pause and a dropped frame.
+ */
+public class AllocationTest {
+    private static final float STEP = 1f / 120;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void steadyStateFrames_doNotAllocate() {
+        assertTrue("Allocation tracking isn't supported on this JVM", THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        //Created before the measured frames, see the note on runRestarts()
+        String message = "Bytes allocated by 200000 frames";
+
+        World world = new World(1080, 1920);
+
+        //Warm up, so class loading and the first restarts aren't counted
+        runRestarts(world, 20000);
+        runFrames(world, 200000);
+
+        //Work out how much reading the counter itself allocates
+        long overhead = allocatedBytes();
+        overhead = allocatedBytes() - overhead;
+
+        long before = allocatedBytes();
+        runFrames(world, 200000);
+        long allocated = allocatedBytes() - before - overhead;
+
+        assertEquals(message, 0, allocated);
+    }
+
+    /*
+        Note: Before a method is handed to the optimizing JIT compiler, the JVM creates every String constant
+              of the method's class (Ex: "capacity must be positive: ") on the thread that's running it, and
+              those are counted as this thread's allocations. A restart only happens every few hundred frames,
+              so BallPool.activate() and the rest of restart() are the last methods to get there, and that
+              can land in the measured frames. Restarting many times in the warm up gets it over with first.
+              The same goes for this class, so its assert message is created before the measured frames too.
+     */
+    private static void runRestarts(World world, int restarts) {
+        for (int i = 0; i < restarts; i++) {
+            world.restart();
+        }
+    }
+
+    private static void runFrames(World world, int frames) {
+        for (int i = 0; i < frames; i++) {
+            //Keep the game going through game overs and cleared walls, so restart() is covered too
+            world.setPaused(false);
+            world.step(STEP);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BatchSimulatorTest {
+    private static BatchSimulator shortGames() {
+        BatchSimulator simulator = new BatchSimulator();
+        simulator.setMaxSecondsPerGame(60);
+        return simulator;
+    }
+
+    @Test
+    public void everyGameIsCounted() {
+        BatchSummary summary = shortGames().run(100);
+
+        assertEquals(100, summary.getGames());
+        assertEquals(100, summary.getCleared() + summary.getLost() + summary.getTimedOut());
+        assertTrue(summary.getMinSteps() <= summary.getAverageSteps());
+        assertTrue(summary.getAverageSteps() <= summary.getMaxSteps());
+        assertTrue(summary.getMaxSteps() <= 60 * 120);
+    }
+
+    @Test
+    public void results_doNotDependOnTheNumberOfThreads() {
+        BatchSimulator simulator = shortGames();
+        simulator.setControllers(RandomController.FACTORY);
+
+        simulator.setParallelism(1);
+        BatchSummary oneThread = simulator.run(200);
+        simulator.setParallelism(4);
+        BatchSummary fourThreads = simulator.run(200);
+
+        assertEquals(oneThread.getTotalSteps(), fourThreads.getTotalSteps());
+        assertEquals(oneThread.getBricksDestroyed(), fourThreads.getBricksDestroyed());
+        assertEquals(oneThread.getLivesLost(), fourThreads.getLivesLost());
+        assertEquals(oneThread.getLost(), fourThreads.getLost());
+    }
+
+    @Test
+    public void trackingController_outlastsRandomTapping() {
+        BatchSimulator simulator = shortGames();
+        BatchSummary tracking = simulator.run(200);
+        simulator.setControllers(RandomController.FACTORY);
+        BatchSummary random = simulator.run(200);
+
+        assertTrue(tracking.getAverageSteps() > random.getAverageSteps());
+        assertTrue(tracking.getLivesLost() < random.getLivesLost());
+    }
+
+    @Test
+    public void aLongerPaddle_losesFewerLives() {
+        BatchSimulator simulator = shortGames();
+        simulator.setControllers(RandomController.FACTORY);
+        simulator.setPaddleLength(60);
+        BatchSummary shortPaddle = simulator.run(500);
+        simulator.setPaddleLength(600);
+        BatchSummary longPaddle = simulator.run(500);
+
+        assertTrue(longPaddle.getLivesLost() < shortPaddle.getLivesLost());
+    }
+
+    @Test
+    public void merge_addsUpBothSummaries() {
+        BatchSummary a = new BatchSummary();
+        a.addGame(BatchSummary.CLEARED, 100, 30, 1);
+        BatchSummary b = new BatchSummary();
+        b.addGame(BatchSummary.LOST, 40, 5, 3);
+        b.addGame(BatchSummary.TIMED_OUT, 500, 12, 2);
+
+        a.merge(b);
+
+        assertEquals(3, a.getGames());
+        assertEquals(1, a.getCleared());
+        assertEquals(1, a.getLost());
+        assertEquals(1, a.getTimedOut());
+        assertEquals(640, a.getTotalSteps());
+        assertEquals(40, a.getMinSteps());
+        assertEquals(500, a.getMaxSteps());
+        assertEquals(47, a.getBricksDestroyed());
+        assertEquals(6, a.getLivesLost());
+    }
+}
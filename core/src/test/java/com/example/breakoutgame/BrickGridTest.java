@@ -0,0 +1,44 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BrickGridTest {
+    @Test
+    public void insertAndRemove_updateTheCell() {
+        BrickGrid grid = new BrickGrid();
+        grid.reset(3, 10, 108, 192);
+
+        grid.insert(2, 7, 27);
+        assertEquals(27, grid.get(2, 7));
+
+        grid.remove(2, 7);
+        assertEquals(BrickGrid.EMPTY, grid.get(2, 7));
+    }
+
+    @Test
+    public void rowAndColumnOf_areClampedToTheGrid() {
+        BrickGrid grid = new BrickGrid();
+        grid.reset(3, 10, 108, 192);
+
+        assertEquals(-1, grid.rowOf(-5));
+        assertEquals(0, grid.rowOf(0));
+        assertEquals(1, grid.rowOf(200));
+        assertEquals(3, grid.rowOf(5000));
+        assertEquals(-1, grid.columnOf(-0.5f));
+        assertEquals(9, grid.columnOf(1079));
+        assertEquals(10, grid.columnOf(5000));
+    }
+
+    @Test
+    public void reset_emptiesEveryCell() {
+        BrickGrid grid = new BrickGrid();
+        grid.reset(2, 2, 10, 10);
+        grid.insert(1, 1, 3);
+
+        grid.reset(2, 2, 10, 10);
+
+        assertEquals(BrickGrid.EMPTY, grid.get(1, 1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BrickStoreTest {
+    private static BrickStore fullWall(int rows, int columns) {
+        BrickStore store = new BrickStore();
+        store.reset(rows, columns, 10, 10);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                store.add(row, col, 10, 10);
+            }
+        }
+        return store;
+    }
+
+    @Test
+    public void add_setsEdgesWithPadding() {
+        BrickStore store = fullWall(3, 10);
+
+        int slot = 12; //row 1, column 2
+        assertEquals(21f, store.getLeft(slot), 0f);
+        assertEquals(29f, store.getRight(slot), 0f);
+        assertEquals(11f, store.getTop(slot), 0f);
+        assertEquals(19f, store.getBottom(slot), 0f);
+        assertEquals(slot, store.getGrid().get(1, 2));
+    }
+
+    @Test
+    public void nextLive_skipsRemovedBricksAcrossWords() {
+        BrickStore store = fullWall(2, 100);
+        for (int i = 0; i < store.size(); i++) {
+            if (i != 5 && i != 63 && i != 64 && i != 199) {
+                store.remove(i);
+            }
+        }
+
+        assertEquals(4, store.getLiveCount());
+        assertEquals(5, store.nextLive(0));
+        assertEquals(63, store.nextLive(6));
+        assertEquals(64, store.nextLive(64));
+        assertEquals(199, store.nextLive(65));
+        assertEquals(-1, store.nextLive(200));
+    }
+
+    @Test
+    public void remove_isIgnoredForBricksThatAreAlreadyGone() {
+        BrickStore store = fullWall(1, 3);
+
+        store.remove(1);
+        store.remove(1);
+
+        assertEquals(2, store.getLiveCount());
+        assertFalse(store.isLive(1));
+        assertEquals(BrickGrid.EMPTY, store.getGrid().get(0, 1));
+    }
+
+    @Test
+    public void reset_clearsEveryBrickWithoutGrowing() {
+        BrickStore store = fullWall(3, 10);
+
+        store.reset(3, 10, 10, 10);
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getLiveCount());
+        assertEquals(-1, store.nextLive(0));
+    }
+
+    @Test
+    public void liveBox_shrinksAsTheEdgeBricksAreRemoved() {
+        //3 rows of 4 bricks, every cell is 10 x 10
+        BrickStore store = fullWall(3, 4);
+        assertEquals(0, store.getLiveLeft(), 0);
+        assertEquals(0, store.getLiveTop(), 0);
+        assertEquals(40, store.getLiveRight(), 0);
+        assertEquals(30, store.getLiveBottom(), 0);
+
+        //Take out the whole bottom row and the left column
+        for (int col = 0; col < 4; col++) {
+            store.remove(store.getGrid().get(2, col));
+        }
+        for (int row = 0; row < 2; row++) {
+            store.remove(store.getGrid().get(row, 0));
+        }
+
+        assertEquals(10, store.getLiveLeft(), 0);
+        assertEquals(0, store.getLiveTop(), 0);
+        assertEquals(40, store.getLiveRight(), 0);
+        assertEquals(20, store.getLiveBottom(), 0);
+    }
+
+    @Test
+    public void liveBox_isEmptyWhenEveryBrickIsGone_andGrowsBack() {
+        BrickStore store = fullWall(2, 2);
+        for (int slot = 0; slot < 4; slot++) {
+            store.remove(slot);
+        }
+        assertTrue(store.getLiveLeft() > store.getLiveRight());
+        assertTrue(store.getLiveTop() > store.getLiveBottom());
+
+        store.revive(3);
+
+        assertEquals(10, store.getLiveLeft(), 0);
+        assertEquals(10, store.getLiveTop(), 0);
+        assertEquals(20, store.getLiveRight(), 0);
+        assertEquals(20, store.getLiveBottom(), 0);
+    }
+}
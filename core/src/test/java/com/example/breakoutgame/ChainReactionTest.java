@@ -0,0 +1,166 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ChainReactionTest {
+    private static BrickStore load(String... rows) throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel(rows);
+        BrickStore bricks = new BrickStore();
+        writer.toLevelPack().load(0, bricks, 10, 10);
+        return bricks;
+    }
+
+    private static ChainReaction chainFor(BrickStore bricks) {
+        ChainReaction chain = new ChainReaction();
+        chain.reset(bricks);
+        return chain;
+    }
+
+    @Test
+    public void brickWithHitPoints_takesThatManyHits() throws IOException {
+        BrickStore bricks = load("3");
+        ChainReaction chain = chainFor(bricks);
+
+        assertFalse(chain.hit(bricks, 0));
+        assertFalse(chain.hit(bricks, 0));
+        assertEquals(1, bricks.getHitPoints(0));
+        assertTrue(chain.hit(bricks, 0));
+
+        assertEquals(1, chain.resolve(bricks));
+        assertEquals(0, bricks.getLiveCount());
+    }
+
+    @Test
+    public void destroyedBrick_staysUntilTheEndOfTheStep() throws IOException {
+        BrickStore bricks = load("11");
+        ChainReaction chain = chainFor(bricks);
+
+        chain.hit(bricks, 0);
+
+        assertTrue(bricks.isLive(0));
+        assertTrue(chain.isPending(0));
+        assertFalse(chain.hit(bricks, 0));
+
+        chain.resolve(bricks);
+        assertFalse(bricks.isLive(0));
+        assertFalse(chain.isPending(0));
+    }
+
+    @Test
+    public void indestructibleBrick_isNeverDestroyed() throws IOException {
+        BrickStore bricks = load("#1");
+        ChainReaction chain = chainFor(bricks);
+
+        for (int i = 0; i < 300; i++) {
+            assertFalse(chain.hit(bricks, 0));
+        }
+        chain.resolve(bricks);
+
+        assertTrue(bricks.isLive(0));
+        assertEquals(2, bricks.getLiveCount());
+        assertEquals(1, bricks.getDestructibleCount());
+    }
+
+    @Test
+    public void explosion_destroysTheEightBricksAround_andChains() throws IOException {
+        BrickStore bricks = load(
+                "9999.",
+                "9**91",
+                "99#9.",
+                "1...1");
+        ChainReaction chain = chainFor(bricks);
+
+        //Hit the explosive brick at row 1, column 1
+        chain.hit(bricks, bricks.getGrid().get(1, 1));
+        int removed = chain.resolve(bricks);
+
+        //Everything around both explosive bricks is gone (the second one was set off by the first),
+        //except the indestructible brick. The bricks that aren't next to an explosion are still there.
+        BrickGrid grid = bricks.getGrid();
+        assertEquals(BrickStore.INDESTRUCTIBLE, bricks.getType(grid.get(2, 2)));
+        assertEquals(BrickGrid.EMPTY, grid.get(0, 0));
+        assertEquals(BrickGrid.EMPTY, grid.get(0, 3));
+        assertEquals(BrickGrid.EMPTY, grid.get(2, 3));
+        assertNotEquals(BrickGrid.EMPTY, grid.get(1, 4));
+        assertNotEquals(BrickGrid.EMPTY, grid.get(3, 0));
+        assertNotEquals(BrickGrid.EMPTY, grid.get(3, 4));
+        assertEquals(11, removed);
+        assertEquals(4, bricks.getLiveCount());
+    }
+
+    @Test
+    public void world_clearsTheWall_whenOnlyIndestructibleBricksAreLeft() throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel("#1#");
+        World world = new World(300, 1000);
+        world.loadLevel(writer.toLevelPack(), 0);
+        world.setPaused(false);
+
+        //Fire the ball straight up into the middle brick
+        world.getBalls().moveTo(0, 145, 500);
+        world.getBalls().setVelocity(0, 0, -12000);
+        world.step(1f / 30);
+
+        assertEquals(1, world.getWallsCleared());
+        assertEquals(1, world.getBricksDestroyed());
+    }
+
+    @Test
+    public void ballHittingAnExplosiveBrick_destroysItsNeighbors() throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel(
+                "1111111111",
+                "1111111111",
+                "1111*11111");
+        World world = new World(1000, 1000);
+        world.loadLevel(writer.toLevelPack(), 0);
+        world.setPaused(false);
+
+        //Fire the ball straight up into the explosive brick
+        world.getBalls().moveTo(0, 445, 600);
+        world.getBalls().setVelocity(0, 0, -500);
+        for (int i = 0; i < 120 && world.getBricks().getGrid().get(2, 4) != BrickGrid.EMPTY; i++) {
+            world.step(1f / 120);
+        }
+
+        //The explosive brick and the 5 bricks next to it
+        assertEquals(6, world.getBricksDestroyed());
+        assertEquals(24, world.getBrickCount());
+    }
+
+    @Test
+    public void cascadeThroughTenThousandBricks_fitsInAFrame() throws IOException {
+        byte[] types = new byte[100 * 100];
+        byte[] hitPoints = new byte[100 * 100];
+        Arrays.fill(types, (byte) BrickStore.EXPLOSIVE);
+        Arrays.fill(hitPoints, (byte) 1);
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel(100, 100, types, hitPoints);
+        LevelPack pack = writer.toLevelPack();
+        BrickStore bricks = new BrickStore();
+        ChainReaction chain = new ChainReaction();
+
+        //Warm up, then take the best of a few tries so a slow build machine doesn't fail it
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 50; i++) {
+            pack.load(0, bricks, 10, 10);
+            chain.reset(bricks);
+            long start = System.nanoTime();
+            chain.hit(bricks, bricks.getGrid().get(50, 50));
+            int removed = chain.resolve(bricks);
+            best = Math.min(best, System.nanoTime() - start);
+
+            assertEquals(10000, removed);
+            assertEquals(0, bricks.getLiveCount());
+        }
+
+        //One 120 Hz frame is 8.3 ms
+        assertTrue("The cascade took " + best / 1000 + " us", best < 8000000);
+    }
+}
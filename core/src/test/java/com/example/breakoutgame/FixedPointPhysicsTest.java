@@ -0,0 +1,191 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FixedPointPhysicsTest {
+    private static final float STEP = new FixedTimestep(120, 1).getStepSeconds();
+
+    /**
+     * Plays a made up session the same way as ReplayTest: the player keeps touching one side of the screen
+     * or the other, or drags the paddle, for the given number of steps
+     */
+    private static ReplayLog play(World world, long seed, int steps) {
+        ReplayLog log = ReplayLog.begin(world, seed, 120);
+        FastRandom player = new FastRandom(seed ^ 0x5EED);
+        for (int i = 0; i < steps; i++) {
+            if (world.isPaused() || player.nextInt(40) == 0) {
+                int type = 1 + player.nextInt(3);
+                float x = player.nextFloat() * world.getScreenX();
+                world.handleInput(type, x);
+                log.record(world, type, x);
+            }
+            world.step(STEP);
+        }
+        log.finish(world);
+        return log;
+    }
+
+    private static World fixedWorld() {
+        World world = new World(1080, 1920);
+        world.setFixedPoint(true);
+        return world;
+    }
+
+    @Test
+    public void fixedPoint_roundsTheSameWayEverywhere() {
+        assertEquals(0x18000, FixedPoint.fromFloat(1.5f));
+        assertEquals(-0x18000, FixedPoint.fromFloat(-1.5f));
+        assertEquals(100 << 16, FixedPoint.fromInt(100));
+        assertEquals(2.25f, FixedPoint.toFloat(FixedPoint.multiply(0x18000, 0x18000)), 0);
+
+        //Multiplying rounds down, dividing rounds towards zero
+        assertEquals(-1, FixedPoint.multiply(-1, 1));
+        assertEquals(0, FixedPoint.divide(-1, FixedPoint.fromInt(2)));
+        assertEquals(FixedPoint.fromInt(-3), FixedPoint.divide(FixedPoint.fromInt(3), FixedPoint.fromInt(-1)));
+
+        //Too big for an int, but still right
+        assertEquals(40000L << 16, FixedPoint.divide(FixedPoint.fromInt(20000), FixedPoint.ONE / 2));
+    }
+
+    @Test
+    public void fixedPointGame_alwaysEndsWithTheSameBits() {
+        //These numbers were recorded once. Every JVM and every device must end up with exactly the same ones,
+        //so if this fails, the fixed-point physics (or the rules) changed how the game plays
+        World world = fixedWorld();
+        play(world, 42, 20000);
+
+        assertEquals(0xE09668EC50C4FEFBL, world.getStateHash());
+        FixedPointPhysics physics = (FixedPointPhysics) world.getPhysics();
+        assertEquals(26442419, physics.getLeft(0));
+        assertEquals(35124594, physics.getTop(0));
+        assertEquals(33914796, physics.getPaddleLeft());
+        assertEquals(37, world.getBricksDestroyed());
+    }
+
+    @Test
+    public void bothPhysics_moveAndBounceTheBallTheSameWay() {
+        World floats = new World(1080, 1920);
+        World ints = fixedWorld();
+        floats.setPaused(false);
+        ints.setPaused(false);
+
+        //Head straight for the top left corner, so the ball bounces off of the left wall first
+        floats.getBalls().setVelocity(0, -600, -100);
+        ints.getBalls().setVelocity(0, -600, -100);
+        for (int i = 0; i < 120; i++) {
+            floats.step(STEP);
+            ints.step(STEP);
+        }
+
+        BallPool a = floats.getBalls();
+        BallPool b = ints.getBalls();
+        assertEquals(600, a.getXVelocity(0), 0);
+        assertEquals(600, b.getXVelocity(0), 0);
+        assertEquals(a.getYVelocity(0), b.getYVelocity(0), 0);
+
+        //The step is rounded to 65536ths of a second, so the ball is a tiny bit behind
+        assertEquals(a.getLeft(0), b.getLeft(0), 0.5f);
+        assertEquals(a.getTop(0), b.getTop(0), 0.5f);
+    }
+
+    @Test
+    public void fixedPoint_bouncesOffOfTheBricksAndThePaddle() {
+        World world = fixedWorld();
+        world.handleInput(World.INPUT_PRESS, 0);
+        for (int i = 0; i < 20000 && world.getBricksDestroyed() < 3; i++) {
+            //Keep the paddle under the ball
+            world.handleInput(World.INPUT_DRAG, world.getBalls().getLeft(0) + world.getBalls().getWidth() / 2f);
+            world.step(STEP);
+        }
+
+        assertEquals(3, world.getBricksDestroyed());
+        assertEquals(0, world.getLivesLost());
+    }
+
+    @Test
+    public void ballsPlacedFromOutside_arePickedUp() {
+        World world = fixedWorld();
+        world.setPaused(false);
+        world.step(STEP);
+
+        world.getBalls().moveTo(0, 100, 1000);
+        world.getBalls().setVelocity(0, 0, -120);
+        world.addBall(500, 1000, 0, 120);
+        world.step(STEP);
+
+        FixedPointPhysics physics = (FixedPointPhysics) world.getPhysics();
+        assertEquals(FixedPoint.fromInt(100), physics.getLeft(0));
+        //One step at 120 pixels per second is (almost exactly) one pixel
+        assertEquals(FixedPoint.fromInt(999), physics.getTop(0), 64);
+        assertEquals(FixedPoint.fromInt(1001), physics.getTop(1), 64);
+        assertEquals(999, world.getBalls().getTop(0), 0.01f);
+    }
+
+    @Test
+    public void fixedPointReplay_endsInExactlyTheRecordedState() throws IOException {
+        World recorded = fixedWorld();
+
+        //Start from the middle of a game, where the fixed-point ball has more bits than a float
+        recorded.handleInput(World.INPUT_PRESS, 0);
+        for (int i = 0; i < 1000; i++) {
+            recorded.step(STEP);
+        }
+        ReplayLog log = play(recorded, 7, 20000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        ReplayLog read = ReplayLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(read.isFixedPoint());
+
+        World replayed = ReplayPlayer.play(read);
+        assertTrue(replayed.isFixedPoint());
+        assertEquals(recorded.getStateHash(), replayed.getStateHash());
+    }
+
+    @Test
+    public void savedMidFlight_restoresAndPlaysOnBitForBit() throws IOException {
+        World uninterrupted = fixedWorld();
+        uninterrupted.setSeed(3);
+        uninterrupted.handleInput(World.INPUT_PRESS, 0);
+        uninterrupted.addBall(700, 1100, -330, 410);
+        for (int i = 0; i < 1500; i++) {
+            uninterrupted.step(STEP);
+        }
+
+        //Save while the balls are far enough from the corner that their floats are rounded
+        GameState state = new GameState();
+        state.capture(uninterrupted);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.writeTo(out);
+        GameState read = GameState.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(read.isFixedPoint());
+
+        World restored = fixedWorld();
+        assertTrue(read.restoreInto(restored));
+        restored.setPaused(uninterrupted.isPaused());
+
+        FixedPointPhysics a = (FixedPointPhysics) uninterrupted.getPhysics();
+        FixedPointPhysics b = (FixedPointPhysics) restored.getPhysics();
+        assertEquals(a.getPaddleLeft(), b.getPaddleLeft());
+        for (int i = 0; i < uninterrupted.getBalls().getActiveCount(); i++) {
+            assertEquals(a.getLeft(i), b.getLeft(i));
+            assertEquals(a.getTop(i), b.getTop(i));
+            assertEquals(a.getXVelocity(i), b.getXVelocity(i));
+            assertEquals(a.getYVelocity(i), b.getYVelocity(i));
+        }
+
+        uninterrupted.setSeed(99);
+        restored.setSeed(99);
+        for (int i = 0; i < 20000; i++) {
+            uninterrupted.step(STEP);
+            restored.step(STEP);
+        }
+        assertEquals(uninterrupted.getStateHash(), restored.getStateHash());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameGovernorTest {
+    private static final long MILLIS = 1000000L;
+
+    /**
+     * A clock that only moves when it's told to. Sleeping overshoots by OVERSLEEP, like a real sleep can.
+     */
+    private static class FakeClock implements FrameGovernor.Clock {
+        static final long OVERSLEEP = 100000L;
+        static final long YIELD = 20000L;
+
+        long now = 1000 * MILLIS;
+        int sleeps;
+        int yields;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void sleepNanos(long nanos) {
+            sleeps++;
+            now += nanos + OVERSLEEP;
+        }
+
+        @Override
+        public void yieldThread() {
+            yields++;
+            now += YIELD;
+        }
+    }
+
+    //Runs frames whose work takes the given time, and returns when the last one ended
+    private static long runFrames(FrameGovernor governor, FakeClock clock, int frames, long workNanos) {
+        return runFrames(governor, clock, frames, workNanos, 0);
+    }
+
+    //The same, but every frame also spends blockedNanos waiting for the screen (Ex: in lockCanvas())
+    private static long runFrames(FrameGovernor governor, FakeClock clock, int frames, long workNanos, long blockedNanos) {
+        for (int i = 0; i < frames; i++) {
+            clock.now += workNanos + blockedNanos;
+            governor.endFrame(workNanos);
+        }
+        return clock.now;
+    }
+
+    @Test
+    public void frames_arePacedToTheRefreshRate() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+        long start = clock.now;
+
+        long end = runFrames(governor, clock, 600, 5 * MILLIS);
+
+        //600 frames at 60 per second is 10 seconds, give or take the last yield
+        long elapsed = end - start;
+        assertTrue(elapsed >= 600 * governor.getFrameNanos());
+        assertTrue(elapsed < 600 * governor.getFrameNanos() + FakeClock.YIELD);
+        assertEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+    }
+
+    @Test
+    public void wait_sleepsFirstAndYieldsAtTheEnd() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+
+        runFrames(governor, clock, 1, 2 * MILLIS);
+
+        //One sleep that stops SPIN_NANOS early, then the oversleep eats part of that and yielding does the rest
+        assertEquals(1, clock.sleeps);
+        assertTrue(clock.yields > 0);
+        assertTrue(clock.yields <= (FrameGovernor.SPIN_NANOS - FakeClock.OVERSLEEP) / FakeClock.YIELD + 1);
+    }
+
+    @Test
+    public void lateFrame_isNotFollowedByABurstOfFrames() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+
+        runFrames(governor, clock, 1, 50 * MILLIS);
+        long lateEnd = clock.now;
+        runFrames(governor, clock, 1, MILLIS);
+
+        //The frame after the late one still waits for a whole frame
+        assertTrue(clock.now - lateEnd >= governor.getFrameNanos());
+    }
+
+    @Test
+    public void waitingForTheScreen_isNotCountedAsWork() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+
+        //The screen holds every frame back for most of the frame, but the work itself is quick
+        runFrames(governor, clock, 1000, 3 * MILLIS, 14 * MILLIS);
+
+        assertEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+    }
+
+    @Test
+    public void sustainedOverload_lowersTheQualityOneLevelAtATime() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+        int framesPerLevel = FrameGovernor.EVALUATE_FRAMES * FrameGovernor.DEGRADE_EVALUATIONS;
+
+        runFrames(governor, clock, framesPerLevel - 1, 20 * MILLIS);
+        assertEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+
+        runFrames(governor, clock, 1, 20 * MILLIS);
+        assertEquals(FrameGovernor.NO_EFFECTS, governor.getLevel());
+        assertFalse(governor.isEffectsEnabled());
+        assertTrue(governor.isHudRedrawEnabled());
+
+        runFrames(governor, clock, framesPerLevel, 20 * MILLIS);
+        assertEquals(FrameGovernor.NO_HUD_REDRAWS, governor.getLevel());
+        assertFalse(governor.isHudRedrawEnabled());
+        assertEquals(5, governor.getMaxStepsPerFrame(5));
+
+        runFrames(governor, clock, framesPerLevel, 20 * MILLIS);
+        assertEquals(FrameGovernor.FEWER_STEPS, governor.getLevel());
+        assertEquals(2, governor.getMaxStepsPerFrame(5));
+        assertEquals(1, governor.getMaxStepsPerFrame(1));
+
+        //There is nothing left to turn off
+        runFrames(governor, clock, 10 * framesPerLevel, 20 * MILLIS);
+        assertEquals(FrameGovernor.FEWER_STEPS, governor.getLevel());
+    }
+
+    @Test
+    public void occasionalSlowFrames_dontLowerTheQuality() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+
+        //One slow frame in every 40 is less than 5% of the frames, so the p95 stays fast
+        for (int i = 0; i < 100; i++) {
+            runFrames(governor, clock, 39, 5 * MILLIS);
+            runFrames(governor, clock, 1, 40 * MILLIS);
+        }
+
+        assertEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+    }
+
+    @Test
+    public void quality_comesBackSlowly_whenTheLoadDrops() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+        runFrames(governor, clock, 1000, 20 * MILLIS);
+        assertEquals(FrameGovernor.FEWER_STEPS, governor.getLevel());
+
+        //The slow frames have to leave the window first, and then the fast ones have to last a while
+        int framesPerLevel = FrameGovernor.EVALUATE_FRAMES * FrameGovernor.RECOVER_EVALUATIONS;
+        int frames = 0;
+        while (governor.getLevel() == FrameGovernor.FEWER_STEPS) {
+            runFrames(governor, clock, 1, 4 * MILLIS);
+            frames++;
+        }
+        assertEquals(FrameGovernor.NO_HUD_REDRAWS, governor.getLevel());
+        assertTrue(frames >= framesPerLevel);
+        assertTrue(frames <= framesPerLevel + FrameGovernor.WINDOW + FrameGovernor.EVALUATE_FRAMES);
+
+        //From here on the window only has fast frames in it
+        runFrames(governor, clock, framesPerLevel - 1, 4 * MILLIS);
+        assertEquals(FrameGovernor.NO_HUD_REDRAWS, governor.getLevel());
+        runFrames(governor, clock, 1, 4 * MILLIS);
+        assertEquals(FrameGovernor.NO_EFFECTS, governor.getLevel());
+
+        runFrames(governor, clock, framesPerLevel, 4 * MILLIS);
+        assertEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+    }
+
+    @Test
+    public void workJustUnderAFrame_keepsTheLevel() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(60, clock);
+        governor.start();
+        runFrames(governor, clock, 60, 20 * MILLIS);
+        assertEquals(FrameGovernor.NO_EFFECTS, governor.getLevel());
+
+        //Between RECOVER_PERCENT and OVERLOAD_PERCENT of a frame the level neither drops nor recovers
+        runFrames(governor, clock, 2000, 12 * MILLIS);
+
+        assertEquals(FrameGovernor.NO_EFFECTS, governor.getLevel());
+    }
+
+    @Test
+    public void start_resetsToFullQuality() {
+        FakeClock clock = new FakeClock();
+        FrameGovernor governor = new FrameGovernor(120, clock);
+        governor.start();
+        runFrames(governor, clock, 1000, 20 * MILLIS);
+        assertNotEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+
+        governor.start();
+
+        assertEquals(FrameGovernor.FULL_QUALITY, governor.getLevel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroRefreshRate_isRejected() {
+        new FrameGovernor(0, new FakeClock());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameMetricsTest {
+    @Test
+    public void percentiles_useTheMostRecentWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+
+        //These are pushed out of the ring by the next 100 timings
+        for (int i = 0; i < 50; i++) {
+            histogram.record(1000000000L);
+        }
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.computePercentiles();
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getP50());
+        assertEquals(95, histogram.getP95());
+        assertEquals(99, histogram.getP99());
+        assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    public void formatLine_writesMillisecondsWithTwoDecimals() {
+        FrameMetrics metrics = new FrameMetrics(16);
+        metrics.record(FrameMetrics.FRAME, 16610000L);
+        metrics.computePercentiles();
+
+        char[] line = new char[FrameMetrics.MAX_LINE_LENGTH];
+        int length = metrics.formatLine(FrameMetrics.FRAME, line);
+
+        assertEquals("frame p50 16.61 p95 16.61 p99 16.61 max 16.61 ms", new String(line, 0, length));
+    }
+
+    @Test
+    public void formatLine_fitsForHugeTimes() {
+        FrameMetrics metrics = new FrameMetrics(16);
+        metrics.record(FrameMetrics.LOCK_WAIT, Long.MAX_VALUE / 2);
+        metrics.computePercentiles();
+
+        int length = metrics.formatLine(FrameMetrics.LOCK_WAIT, new char[FrameMetrics.MAX_LINE_LENGTH]);
+
+        assertTrue(length <= FrameMetrics.MAX_LINE_LENGTH);
+    }
+}
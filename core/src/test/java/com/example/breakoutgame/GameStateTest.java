@@ -0,0 +1,156 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class GameStateTest {
+    private static final float STEP = 1f / 120;
+
+    /**
+     * Plays part of a game, so the balls, paddle, bricks and lives are all somewhere new
+     */
+    private static World playedWorld() {
+        World world = new World(1080, 1920);
+        world.setSeed(21);
+        world.handleInput(World.INPUT_PRESS, 0);
+        world.addBall(300, 900, -250, 350);
+        for (int i = 0; i < 2200; i++) {
+            world.step(STEP);
+        }
+        return world;
+    }
+
+    private static GameState roundTrip(World world) throws IOException {
+        GameState state = new GameState();
+        state.capture(world);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.writeTo(out);
+        return GameState.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void roundTrip_restoresEverything() throws IOException {
+        World saved = playedWorld();
+        assertTrue(saved.getBrickCount() < 30);
+
+        World restored = new World(1080, 1920);
+        assertTrue(roundTrip(saved).restoreInto(restored));
+
+        assertEquals(saved.getLives(), restored.getLives());
+        assertFalse(saved.isPaused());
+        assertTrue(restored.isPaused());
+        assertEquals(saved.getStepCount(), restored.getStepCount());
+        assertEquals(saved.getPaddle().getLeft(), restored.getPaddle().getLeft(), 0);
+        assertEquals(saved.getBrickCount(), restored.getBrickCount());
+        for (int slot = 0; slot < saved.getBricks().size(); slot++) {
+            assertEquals(saved.getBricks().isLive(slot), restored.getBricks().isLive(slot));
+        }
+        BallPool a = saved.getBalls();
+        BallPool b = restored.getBalls();
+        assertEquals(a.getActiveCount(), b.getActiveCount());
+        for (int i = 0; i < a.getActiveCount(); i++) {
+            assertEquals(a.getLeft(i), b.getLeft(i), 0);
+            assertEquals(a.getTop(i), b.getTop(i), 0);
+            assertEquals(a.getXVelocity(i), b.getXVelocity(i), 0);
+            assertEquals(a.getYVelocity(i), b.getYVelocity(i), 0);
+        }
+    }
+
+    @Test
+    public void restoredGame_playsOnExactlyLikeTheSavedOne() throws IOException {
+        World saved = playedWorld();
+        World restored = new World(1080, 1920);
+        roundTrip(saved).restoreInto(restored);
+        saved.getPaddle().setMovement(Paddle.STOP);
+
+        //The restored game waits for the player, then carries on from where it was
+        restored.step(STEP);
+        assertEquals(saved.getStepCount(), restored.getStepCount());
+        restored.setPaused(false);
+
+        //Same seed from here on, so both worlds must stay identical
+        saved.setSeed(99);
+        restored.setSeed(99);
+        for (int i = 0; i < 5000; i++) {
+            saved.step(STEP);
+            restored.step(STEP);
+        }
+
+        assertEquals(saved.getStateHash(), restored.getStateHash());
+    }
+
+    @Test
+    public void restore_putsBackBricksThatTheOtherWorldAlreadyLost() throws IOException {
+        GameState fresh = roundTrip(new World(1080, 1920));
+        World world = playedWorld();
+        assertTrue(world.getBrickCount() < 30);
+
+        assertTrue(fresh.restoreInto(world));
+
+        assertEquals(30, world.getBrickCount());
+        BrickGrid grid = world.getBricks().getGrid();
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 10; col++) {
+                assertNotEquals(BrickGrid.EMPTY, grid.get(row, col));
+            }
+        }
+    }
+
+    @Test
+    public void restore_isRefusedOnADifferentScreen() throws IOException {
+        GameState state = roundTrip(playedWorld());
+        World other = new World(720, 1280);
+
+        assertFalse(state.restoreInto(other));
+        assertEquals(30, other.getBrickCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_refusesOtherFiles() throws IOException {
+        GameState.readFrom(new ByteArrayInputStream(new byte[64]));
+    }
+
+    @Test
+    public void saveFile_isSmall() throws IOException {
+        GameState state = new GameState();
+        state.capture(playedWorld());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.writeTo(out);
+
+        //Header, 2 balls, one word of bricks and a hit point byte per brick
+        assertTrue(out.size() < 130);
+    }
+
+    @Test
+    public void restore_ofABigWall_takesLessThanAMillisecond() throws IOException {
+        World saved = new World(3000, 10000);
+        saved.setWallSize(300, 300);
+        for (int slot = 0; slot < saved.getBricks().size(); slot += 3) {
+            saved.getBricks().remove(slot);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GameState captured = new GameState();
+        captured.capture(saved);
+        captured.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        World restored = new World(3000, 10000);
+        restored.setWallSize(300, 300);
+
+        //Warm up, then take the best of a few tries so a slow build machine doesn't fail it
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 50; i++) {
+            restored.restart();
+            long start = System.nanoTime();
+            GameState.readFrom(new ByteArrayInputStream(bytes)).restoreInto(restored);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        assertEquals(saved.getBrickCount(), restored.getBrickCount());
+        assertTrue("Restoring took " + best / 1000 + " us", best < 1000000);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InputQueueTest {
+    @Test
+    public void poll_returnsTheInputInOrder() {
+        InputQueue queue = new InputQueue(4);
+        assertTrue(queue.offer(World.INPUT_PRESS, 10, 100));
+        assertTrue(queue.offer(World.INPUT_RELEASE, 20, 200));
+
+        assertTrue(queue.poll());
+        assertEquals(World.INPUT_PRESS, queue.getType());
+        assertEquals(10, queue.getX(), 0);
+        assertEquals(100, queue.getTime());
+
+        assertTrue(queue.poll());
+        assertEquals(World.INPUT_RELEASE, queue.getType());
+        assertFalse(queue.poll());
+    }
+
+    @Test
+    public void offer_isRefusedWhenTheQueueIsFull() {
+        InputQueue queue = new InputQueue(2);
+        assertTrue(queue.offer(World.INPUT_PRESS, 0, 0));
+        assertTrue(queue.offer(World.INPUT_PRESS, 0, 0));
+        assertFalse(queue.offer(World.INPUT_PRESS, 0, 0));
+
+        queue.poll();
+        assertTrue(queue.offer(World.INPUT_PRESS, 0, 0));
+    }
+
+    @Test
+    public void inputFromAnotherThread_arrivesInOrder() throws InterruptedException {
+        final InputQueue queue = new InputQueue(64);
+        final int count = 100_000;
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    while (!queue.offer(World.INPUT_PRESS, i, i)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        producer.start();
+
+        long expected = 0;
+        while (expected < count) {
+            if (queue.poll()) {
+                assertEquals(expected, queue.getTime());
+                expected++;
+            }
+            else {
+                Thread.yield();
+            }
+        }
+        producer.join();
+    }
+
+    @Test
+    public void pollUntil_leavesInputThatHappenedLater() {
+        InputQueue queue = new InputQueue(4);
+        queue.offer(World.INPUT_PRESS, 10, 100);
+        queue.offer(World.INPUT_DRAG, 20, 200);
+
+        assertTrue(queue.pollUntil(150));
+        assertEquals(100, queue.getTime());
+        assertFalse(queue.pollUntil(150));
+
+        assertTrue(queue.pollUntil(200));
+        assertEquals(World.INPUT_DRAG, queue.getType());
+        assertFalse(queue.pollUntil(Long.MAX_VALUE));
+    }
+}
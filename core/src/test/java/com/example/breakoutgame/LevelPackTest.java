@@ -0,0 +1,195 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LevelPackTest {
+    private static LevelPack twoLevels() throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel(
+                "1111",
+                "2..2");
+        writer.addLevel(
+                "..9..",
+                ".....",
+                "13531");
+        return writer.toLevelPack();
+    }
+
+    @Test
+    public void pack_keepsEveryLevel() throws IOException {
+        LevelPack pack = twoLevels();
+
+        assertEquals(2, pack.getLevelCount());
+        assertEquals(2, pack.getRows(0));
+        assertEquals(4, pack.getColumns(0));
+        assertEquals(6, pack.getBrickCount(0));
+        assertEquals(3, pack.getRows(1));
+        assertEquals(5, pack.getColumns(1));
+        assertEquals(6, pack.getBrickCount(1));
+        assertEquals(BrickStore.EMPTY, pack.getType(1, 0, 0));
+        assertEquals(BrickStore.NORMAL, pack.getType(1, 0, 2));
+        assertEquals(9, pack.getHitPoints(1, 0, 2));
+    }
+
+    @Test
+    public void load_fillsTheStoreWithOnlyTheCellsThatHaveBricks() throws IOException {
+        LevelPack pack = twoLevels();
+        BrickStore bricks = new BrickStore();
+
+        pack.load(1, bricks, 100, 50);
+
+        assertEquals(6, bricks.size());
+        assertEquals(6, bricks.getLiveCount());
+        assertEquals(5, bricks.getGrid().getColumns());
+        int slot = bricks.getGrid().get(0, 2);
+        assertEquals(9, bricks.getHitPoints(slot));
+        assertEquals(201, bricks.getLeft(slot), 0);
+        assertEquals(BrickGrid.EMPTY, bricks.getGrid().get(1, 2));
+    }
+
+    @Test
+    public void world_buildsItsWallFromTheLevel() throws IOException {
+        World world = new World(1000, 1000);
+        world.loadLevel(twoLevels(), 0);
+
+        assertEquals(6, world.getBrickCount());
+        assertEquals(2, world.getWallRows());
+        assertEquals(4, world.getWallColumns());
+
+        //restart() builds the same level again
+        world.getBricks().remove(0);
+        world.restart();
+        assertEquals(6, world.getBrickCount());
+
+        //setWallSize() goes back to a full wall
+        world.setWallSize(3, 10);
+        assertEquals(30, world.getBrickCount());
+    }
+
+    @Test
+    public void bigLevel_growsTheStore() throws IOException {
+        //Far more bricks than the original fixed array of 50 could hold
+        int rows = 200;
+        int columns = 300;
+        byte[] types = new byte[rows * columns];
+        byte[] hitPoints = new byte[rows * columns];
+        Arrays.fill(types, (byte) BrickStore.NORMAL);
+        Arrays.fill(hitPoints, (byte) 1);
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel(rows, columns, types, hitPoints);
+
+        World world = new World(3000, 10000);
+        world.loadLevel(writer.toLevelPack(), 0);
+
+        assertEquals(rows * columns, world.getBrickCount());
+    }
+
+    @Test
+    public void open_mapsAFile() throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        for (int i = 0; i < 500; i++) {
+            writer.addLevel("1.1", ".1.", "1.1");
+        }
+        File file = File.createTempFile("levels", ".pack");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            writer.writeTo(out);
+        }
+        finally {
+            out.close();
+        }
+
+        LevelPack pack = LevelPack.open(file);
+
+        assertEquals(500, pack.getLevelCount());
+        BrickStore bricks = new BrickStore();
+        pack.load(499, bricks, 10, 10);
+        assertEquals(5, bricks.getLiveCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void open_refusesOtherFiles() throws IOException {
+        LevelPack.wrap(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}));
+    }
+
+    @Test(expected = IOException.class)
+    public void open_refusesATruncatedPack() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel("111", "111");
+        writer.writeTo(out);
+        byte[] bytes = out.toByteArray();
+
+        LevelPack.wrap(ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice());
+    }
+
+    private static LevelPack withACorruptLevel() throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel("111");
+        writer.addLevel(2, 2, new byte[]{BrickStore.NORMAL, 7, BrickStore.NORMAL, BrickStore.EMPTY}, new byte[]{1, 1, 1, 0});
+        return writer.toLevelPack();
+    }
+
+    @Test
+    public void open_onlyChecksTheCellsOfALevelWhenItsLoaded() throws IOException {
+        //Opening doesn't read any cells, so the good level can still be played
+        LevelPack pack = withACorruptLevel();
+        BrickStore bricks = new BrickStore();
+
+        pack.load(0, bricks, 10, 10);
+
+        assertEquals(3, bricks.getLiveCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void validate_refusesAnUnknownBrickType() throws IOException {
+        withACorruptLevel().validate(1);
+    }
+
+    @Test(expected = IOException.class)
+    public void validate_refusesABrickWithoutHitPoints() throws IOException {
+        //A normal brick with no hit points would count towards clearing the wall, but could never be destroyed
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel(2, 2, new byte[]{BrickStore.NORMAL, BrickStore.EXPLOSIVE, BrickStore.INDESTRUCTIBLE, BrickStore.EMPTY},
+                new byte[]{0, 1, 1, 0});
+
+        writer.toLevelPack().validate(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void load_refusesACorruptLevel() throws IOException {
+        withACorruptLevel().load(1, new BrickStore(), 10, 10);
+    }
+
+    @Test
+    public void replay_carriesItsLevel() throws IOException {
+        World recorded = new World(1080, 1920);
+        recorded.loadLevel(twoLevels(), 1);
+        ReplayLog log = ReplayLog.begin(recorded, 11, 120);
+        float dt = new FixedTimestep(120, 1).getStepSeconds();
+        recorded.handleInput(World.INPUT_PRESS, 0);
+        log.record(recorded, World.INPUT_PRESS, 0);
+        for (int i = 0; i < 5000 && !recorded.isPaused(); i++) {
+            recorded.step(dt);
+        }
+        log.finish(recorded);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        World replayed = ReplayPlayer.play(ReplayLog.readFrom(new ByteArrayInputStream(out.toByteArray())));
+
+        assertEquals(3, replayed.getWallRows());
+        assertEquals(recorded.getStateHash(), replayed.getStateHash());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LevelProgressionTest {
+    private static LevelPack threeLevels() throws IOException {
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevels(new StringReader(
+                "//The first level\n" +
+                "1111\n" +
+                "2..2\n" +
+                "\n" +
+                "..9..\n" +
+                ".....\n" +
+                "13531\n" +
+                "\n" +
+                "\n" +
+                "1*1\n" +
+                "#.#\n"));
+        return writer.toLevelPack();
+    }
+
+    /**
+     * Destroys every brick that can be destroyed and takes one step, so the world sees a cleared wall
+     */
+    private static void clearWall(World world) {
+        BrickStore bricks = world.getBricks();
+        for (int slot = bricks.nextLive(0); slot >= 0; slot = bricks.nextLive(slot + 1)) {
+            if (bricks.getType(slot) != BrickStore.INDESTRUCTIBLE) {
+                bricks.remove(slot);
+            }
+        }
+        world.handleInput(World.INPUT_PRESS, 0);
+        world.step(1f / 120);
+    }
+
+    @Test
+    public void addLevels_readsEveryLevelOfTheText() throws IOException {
+        LevelPack pack = threeLevels();
+
+        assertEquals(3, pack.getLevelCount());
+        assertEquals(2, pack.getRows(0));
+        assertEquals(3, pack.getRows(1));
+        assertEquals(3, pack.getColumns(2));
+        assertEquals(BrickStore.EXPLOSIVE, pack.getType(2, 0, 1));
+        assertEquals(BrickStore.INDESTRUCTIBLE, pack.getType(2, 1, 0));
+    }
+
+    @Test
+    public void clearingTheWall_movesOnToTheNextLevelAndKeepsTheLives() throws IOException {
+        World world = new World(1000, 1000);
+        world.setProgression(new LevelProgression(threeLevels(), 0, null));
+        assertEquals(0, world.getLevel());
+        assertEquals(6, world.getBrickCount());
+
+        //Lose a life first (the paddle is kept in the left corner), the next level mustn't give it back
+        int lives = world.getLives();
+        for (int i = 0; i < 100000 && world.getLives() == lives; i++) {
+            world.handleInput(World.INPUT_PRESS, 0);
+            world.step(1f / 120);
+        }
+        assertEquals(lives - 1, world.getLives());
+        lives = world.getLives();
+
+        clearWall(world);
+
+        assertEquals(1, world.getLevel());
+        assertEquals(3, world.getWallRows());
+        assertEquals(5, world.getWallColumns());
+        assertEquals(6, world.getBrickCount());
+        assertEquals(lives, world.getLives());
+        assertTrue(world.isPaused());
+    }
+
+    @Test
+    public void lastLevel_isFollowedByTheFirst() throws IOException {
+        World world = new World(1000, 1000);
+        world.setProgression(new LevelProgression(threeLevels(), 2, null));
+        assertEquals(2, world.getLevel());
+
+        //The indestructible bricks stay, but the wall counts as cleared
+        clearWall(world);
+
+        assertEquals(0, world.getLevel());
+        assertEquals(6, world.getBrickCount());
+    }
+
+    @Test
+    public void nextLevel_builtOnAnotherThread_isTheSameAsOneBuiltWhenItsNeeded() throws Exception {
+        ExecutorService loader = Executors.newSingleThreadExecutor();
+        try {
+            World prefetched = new World(1080, 1920);
+            LevelProgression progression = new LevelProgression(threeLevels(), 0, loader);
+            final int[] prepared = {-1};
+            progression.setListener(new LevelProgression.Listener() {
+                @Override
+                public void onPrepared(int level, BrickStore bricks) {
+                    prepared[0] = level;
+                }
+            });
+            prefetched.setProgression(progression);
+
+            //Wait for the loader to finish, the build only runs once
+            loader.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get(10, TimeUnit.SECONDS);
+            assertTrue(progression.isNextReady());
+            assertEquals(1, prepared[0]);
+
+            World direct = new World(1080, 1920);
+            direct.setProgression(new LevelProgression(threeLevels(), 0, null));
+
+            clearWall(prefetched);
+            clearWall(direct);
+
+            BrickStore a = prefetched.getBricks();
+            BrickStore b = direct.getBricks();
+            assertEquals(b.size(), a.size());
+            for (int slot = 0; slot < a.size(); slot++) {
+                assertEquals(b.isLive(slot), a.isLive(slot));
+                assertEquals(b.getLeft(slot), a.getLeft(slot), 0);
+                assertEquals(b.getTop(slot), a.getTop(slot), 0);
+                assertEquals(b.getRight(slot), a.getRight(slot), 0);
+                assertEquals(b.getBottom(slot), a.getBottom(slot), 0);
+                assertEquals(b.getHitPoints(slot), a.getHitPoints(slot));
+            }
+            assertEquals(direct.getStateHash(), prefetched.getStateHash());
+        }
+        finally {
+            loader.shutdownNow();
+        }
+    }
+
+    @Test
+    public void brickStores_areReused_afterTheFirstTwoLevels() throws IOException {
+        World world = new World(1000, 1000);
+        world.setProgression(new LevelProgression(threeLevels(), 0, null));
+        BrickStore first = world.getBricks();
+        clearWall(world);
+        BrickStore second = world.getBricks();
+        assertNotSame(first, second);
+
+        clearWall(world);
+        assertSame(first, world.getBricks());
+        clearWall(world);
+        assertSame(second, world.getBricks());
+    }
+
+    @Test
+    public void swappedStores_haveDifferentVersions() throws IOException {
+        //The drawing only rebuilds the wall when the version changes, so two stores must never share one
+        World world = new World(1000, 1000);
+        world.setProgression(new LevelProgression(threeLevels(), 0, null));
+        int before = world.getBricks().getVersion();
+
+        clearWall(world);
+
+        assertNotEquals(before, world.getBricks().getVersion());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_refusesALevelThatIsntInThePack() throws IOException {
+        new LevelProgression(threeLevels(), 3, null);
+    }
+}
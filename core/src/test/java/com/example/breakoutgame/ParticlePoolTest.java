@@ -0,0 +1,96 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class ParticlePoolTest {
+    @Test
+    public void deadParticles_areSwappedOutAndTheRestKeepMoving() {
+        ParticlePool pool = new ParticlePool(8, 1);
+        pool.spawn(0, 0, 0, 0, 0.05f, 0);
+        pool.spawn(10, 0, 100, 0, 1, 0);
+        pool.spawn(20, 0, 0, 0, 0.05f, 0);
+        pool.spawn(30, 0, 0, 0, 1, 0);
+
+        pool.update(0.1f);
+
+        //Both short lived particles are gone, and the long lived ones were moved into their slots
+        assertEquals(2, pool.getCount());
+        float first = Math.min(pool.getX(0), pool.getX(1));
+        float second = Math.max(pool.getX(0), pool.getX(1));
+        assertEquals(20, first, 0.001f);
+        assertEquals(30, second, 0.001f);
+        assertEquals(0.9f, pool.getLife(0), 0.001f);
+        assertEquals(0.9f, pool.getLife(1), 0.001f);
+
+        //Gravity pulls them down
+        assertTrue(pool.getY(0) > 0);
+    }
+
+    @Test
+    public void spawn_isIgnored_whenThePoolIsFull() {
+        ParticlePool pool = new ParticlePool(4, 1);
+
+        pool.burst(0, 0, 10, 100, 1, 0);
+
+        assertEquals(4, pool.getCount());
+        assertFalse(pool.spawn(0, 0, 0, 0, 1, 0));
+    }
+
+    @Test
+    public void fillPoints_groupsTheParticlesByColor() {
+        ParticlePool pool = new ParticlePool(16, 3);
+        pool.spawn(1, 2, 0, 0, 1, 2);
+        pool.spawn(3, 4, 0, 0, 1, 0);
+        pool.spawn(5, 6, 0, 0, 1, 2);
+
+        pool.fillPoints();
+
+        assertEquals(2, pool.getPointCount(0));
+        assertEquals(0, pool.getPointCount(1));
+        assertEquals(4, pool.getPointCount(2));
+        assertEquals(3, pool.getPoints(0)[0], 0);
+        assertEquals(4, pool.getPoints(0)[1], 0);
+        assertEquals(1, pool.getPoints(2)[0], 0);
+        assertEquals(6, pool.getPoints(2)[3], 0);
+
+        pool.clear();
+        assertEquals(0, pool.getCount());
+        assertEquals(0, pool.getPointCount(2));
+    }
+
+    @Test
+    public void tensOfThousandsOfParticles_doNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue("Allocation tracking isn't supported on this JVM", threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        //Warm up, so class loading and compiling aren't counted
+        ParticlePool pool = new ParticlePool(50000, 3);
+        runFrames(pool, 3000);
+
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        runFrames(pool, 600);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+        assertTrue(pool.getCount() > 20000);
+        assertEquals("Bytes allocated by 600 frames", 0, allocated);
+    }
+
+    private static void runFrames(ParticlePool pool, int frames) {
+        for (int i = 0; i < frames; i++) {
+            for (int b = 0; b < 100; b++) {
+                pool.burst(b * 10, 100, 24, 400, 0.6f, b % 3);
+            }
+            pool.update(1f / 60);
+            pool.fillPoints();
+        }
+    }
+}
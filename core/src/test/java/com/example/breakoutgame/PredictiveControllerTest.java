@@ -0,0 +1,76 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PredictiveControllerTest {
+    @Test
+    public void fold_bouncesOffOfBothSides() {
+        assertEquals(300, PredictiveController.fold(300, 1000), 0);
+        assertEquals(900, PredictiveController.fold(1100, 1000), 0);
+        assertEquals(200, PredictiveController.fold(-200, 1000), 0);
+
+        //Off of the right side and then the left side
+        assertEquals(100, PredictiveController.fold(2100, 1000), 0);
+        assertEquals(100, PredictiveController.fold(-2100, 1000), 0);
+    }
+
+    @Test
+    public void predictLanding_followsTheBallOffOfTheWalls() {
+        BallPool balls = new BallPool(4);
+        assertTrue(Float.isNaN(PredictiveController.predictLanding(balls, 1900, 1010)));
+
+        //1000 pixels to fall at 100 pixels per second takes 10 seconds, and 10 seconds at
+        //250 pixels per second to the right is 2500 pixels: off of the right side, the left side, and back
+        balls.activate(0, 890, 250, 100);
+        assertEquals(500 + 5, PredictiveController.predictLanding(balls, 1900, 1010), 0.01f);
+
+        //A falling ball goes before one going up, even if the one going up would get there sooner
+        balls.activate(700, 1800, 0, -1000);
+        assertEquals(505, PredictiveController.predictLanding(balls, 1900, 1010), 0.01f);
+
+        //Of two falling balls, the one that gets there first
+        balls.activate(100, 1790, 0, 100);
+        assertEquals(105, PredictiveController.predictLanding(balls, 1900, 1010), 0.01f);
+    }
+
+    @Test
+    public void predictLanding_isWhereTheBallReallyLands() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+
+        //Falling fast and sideways below the wall, so it bounces off of both sides before it lands
+        BallPool balls = world.getBalls();
+        balls.moveTo(0, 500, 700);
+        balls.setVelocity(0, 2500, 400);
+        float predicted = PredictiveController.predictLanding(balls, world.getPaddle().getTop(), world.getScreenX());
+
+        //Keep the paddle out of the way and watch where the ball gets to the paddle's height
+        world.handleInput(World.INPUT_DRAG, predicted < 540 ? 1080 : 0);
+        float dt = new FixedTimestep(120, 1).getStepSeconds();
+        while (balls.getBottom(0) < world.getPaddle().getTop()) {
+            world.step(dt);
+        }
+
+        //The last step can carry the ball a few pixels past the paddle's height
+        float landed = balls.getLeft(0) + balls.getWidth() / 2f;
+        assertEquals(predicted, landed, 25);
+    }
+
+    @Test
+    public void predictiveController_losesFewerLivesThanTracking() {
+        BatchSimulator simulator = new BatchSimulator();
+        simulator.setMaxSecondsPerGame(60);
+        BatchSummary tracking = simulator.run(200);
+        simulator.setControllers(PredictiveController.FACTORY);
+        BatchSummary predictive = simulator.run(200);
+
+        assertTrue(predictive.getLivesLost() < tracking.getLivesLost());
+        assertTrue(predictive.getWinRate() >= tracking.getWinRate());
+
+        //Every step asks the controller once, and some of those are timed
+        assertEquals(predictive.getTotalSteps(), predictive.getDecisions());
+        assertTrue(predictive.getNanosPerDecision() > 0);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+    private static final int STEPS_PER_SECOND = 120;
+
+    //The same step length the game (and ReplayPlayer) uses. Note: This isn't exactly 1f / 120,
+    //because FixedTimestep rounds the step to whole nanoseconds first
+    private static final float STEP = new FixedTimestep(STEPS_PER_SECOND, 1).getStepSeconds();
+
+    /**
+     * Plays a made up session: the player keeps touching one side of the screen or the other,
+     * holding on for a moment and letting go, for the given number of steps
+     */
+    private static ReplayLog recordSession(World world, long seed, int steps) {
+        ReplayLog log = ReplayLog.begin(world, seed, STEPS_PER_SECOND);
+        FastRandom player = new FastRandom(seed ^ 0x5EED);
+        for (int i = 0; i < steps; i++) {
+            if (world.isPaused() || player.nextInt(40) == 0) {
+                int type = player.nextInt(3) == 0 ? World.INPUT_RELEASE : World.INPUT_PRESS;
+                float x = player.nextFloat() * world.getScreenX();
+                world.handleInput(type, x);
+                log.record(world, type, x);
+            }
+            world.step(STEP);
+        }
+        log.finish(world);
+        return log;
+    }
+
+    private static ReplayLog roundTrip(ReplayLog log) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        return ReplayLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void replay_endsInExactlyTheRecordedState() throws IOException {
+        World recorded = new World(1080, 1920);
+        ReplayLog log = recordSession(recorded, 42, 20000);
+
+        World replayed = ReplayPlayer.play(roundTrip(log));
+
+        assertEquals(recorded.getStateHash(), replayed.getStateHash());
+        assertEquals(recorded.getStepCount(), replayed.getStepCount());
+        assertEquals(recorded.getBrickCount(), replayed.getBrickCount());
+        assertEquals(recorded.getLives(), replayed.getLives());
+        BallPool a = recorded.getBalls();
+        BallPool b = replayed.getBalls();
+        assertEquals(a.getActiveCount(), b.getActiveCount());
+        for (int i = 0; i < a.getActiveCount(); i++) {
+            assertEquals(Float.floatToRawIntBits(a.getLeft(i)), Float.floatToRawIntBits(b.getLeft(i)));
+            assertEquals(Float.floatToRawIntBits(a.getTop(i)), Float.floatToRawIntBits(b.getTop(i)));
+        }
+    }
+
+    @Test
+    public void differentSeeds_playDifferentGames() {
+        World first = new World(1080, 1920);
+        World second = new World(1080, 1920);
+        recordSession(first, 1, 5000);
+        recordSession(second, 2, 5000);
+
+        assertNotEquals(first.getStateHash(), second.getStateHash());
+    }
+
+    @Test
+    public void replay_ofACustomWallUsesTheSameWall() throws IOException {
+        World recorded = new World(2000, 1000);
+        recorded.setWallSize(8, 25);
+        ReplayLog log = recordSession(recorded, 7, 5000);
+
+        World replayed = ReplayPlayer.play(roundTrip(log));
+
+        assertEquals(200, replayed.getBricks().size());
+        assertEquals(recorded.getStateHash(), replayed.getStateHash());
+    }
+
+    @Test
+    public void replay_intoADifferentWorld_endsSomewhereElse() {
+        World recorded = new World(1080, 1920);
+        ReplayLog log = recordSession(recorded, 3, 5000);
+
+        //Same recording, but the world is seeded differently, so the ball bounces somewhere else
+        World other = new World(1080, 1920);
+        other.setSeed(4);
+        other.restart();
+        try {
+            ReplayPlayer.play(log, other, log.getFinalStep());
+        }
+        catch (IllegalStateException e) {
+            //The other game ended while the recording carried on
+            return;
+        }
+        assertNotEquals(log.getFinalHash(), other.getStateHash());
+    }
+
+    @Test
+    public void replay_followsTheLevelProgression() throws IOException {
+        //Levels with a few big bricks, so the recorded session clears several walls
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel("1");
+        writer.addLevel("11");
+        writer.addLevel("1", ".");
+        World recorded = new World(1080, 1920);
+        recorded.setProgression(new LevelProgression(writer.toLevelPack(), 1, null));
+        ReplayLog log = recordSession(recorded, 13, 40000);
+        assertTrue(recorded.getWallsCleared() > 1);
+
+        World replayed = ReplayPlayer.play(roundTrip(log));
+
+        assertEquals(recorded.getLevel(), replayed.getLevel());
+        assertEquals(recorded.getWallsCleared(), replayed.getWallsCleared());
+        assertEquals(recorded.getStateHash(), replayed.getStateHash());
+    }
+
+    @Test
+    public void recording_takesAFewBytesPerInput() throws IOException {
+        World world = new World(1080, 1920);
+        ReplayLog log = recordSession(world, 5, 20000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+
+        assertTrue(log.getEventCount() > 100);
+        assertTrue(out.size() < 64 + log.getEventCount() * 7);
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_refusesOtherFiles() throws IOException {
+        ReplayLog.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void headlessPlayback_isMuchFasterThanRealTime() throws IOException {
+        //An hour of play at 120 steps per second
+        World recorded = new World(1080, 1920);
+        ReplayLog log = roundTrip(recordSession(recorded, 9, 120 * 60 * 60));
+
+        //Warm up, then time one playback
+        ReplayPlayer.play(log);
+        long start = System.nanoTime();
+        ReplayPlayer.play(log);
+        long elapsed = System.nanoTime() - start;
+
+        //An hour of play must take well under a second (thousands of times faster than real time).
+        //The limit is generous so slow build machines don't fail it.
+        assertTrue("Playback took " + elapsed / 1000000 + " ms", elapsed < 1000000000L);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SimulationLoopTest {
+    @Test
+    public void dragsInARow_areCoalescedIntoTheLastOne() throws InterruptedException {
+        World world = new World(1080, 1920);
+        FixedTimestep timestep = new FixedTimestep(120, 5);
+        InputQueue input = new InputQueue(256);
+        TripleBuffer<WorldSnapshot> snapshots = new TripleBuffer<>(new WorldSnapshot(1),
+                new WorldSnapshot(1), new WorldSnapshot(1));
+        SimulationLoop loop = new SimulationLoop(world, timestep, input, snapshots);
+        ReplayLog replay = ReplayLog.begin(world, 1, 120);
+        loop.setReplay(replay);
+
+        //A touch, a finger moving through 100 positions and letting go, all before the loop starts
+        long time = System.nanoTime() - 1000000000L;
+        input.offer(World.INPUT_PRESS, 540, time);
+        for (int i = 1; i <= 100; i++) {
+            input.offer(World.INPUT_DRAG, 540 - i, time + i);
+        }
+        input.offer(World.INPUT_RELEASE, 440, time + 101);
+
+        loop.prepare();
+        Thread thread = new Thread(loop, "Simulation");
+        thread.start();
+        long deadline = System.nanoTime() + 5000000000L;
+        while (snapshots.getReadBuffer().getInputCount() < 102 && System.nanoTime() < deadline) {
+            snapshots.acquireLatest();
+            Thread.sleep(1);
+        }
+        loop.stop();
+        thread.join();
+
+        //Every input is counted, but only the press, the last drag and the release reach the world
+        WorldSnapshot snapshot = snapshots.getReadBuffer();
+        assertEquals(102, snapshot.getInputCount());
+        assertEquals(time + 101, snapshot.getInputTime());
+        assertEquals(3, replay.getEventCount());
+        ReplayLog.Cursor cursor = replay.cursor();
+        assertTrue(cursor.next());
+        assertEquals(World.INPUT_PRESS, cursor.getType());
+        assertTrue(cursor.next());
+        assertEquals(World.INPUT_DRAG, cursor.getType());
+        assertEquals(440, cursor.getX(), 0);
+        assertTrue(cursor.next());
+        assertEquals(World.INPUT_RELEASE, cursor.getType());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class SoakTesterTest {
+    @Test
+    public void shortSoak_keepsEveryRule() {
+        //A few minutes of play in a few windows. The real soak is ./gradlew :core:soak
+        SoakTester tester = new SoakTester();
+        tester.setSteps(600000);
+        tester.setWindowSteps(200000);
+        SoakReport report = tester.run();
+
+        assertNull(report.getViolation(), report.getViolation());
+        assertNull(report.getDrift(), report.getDrift());
+        assertTrue(report.isPassed());
+        assertEquals(600000, report.getSteps());
+        assertEquals(3, report.getWindowCount());
+        assertTrue(report.getHeapBytes(0) > 0);
+        assertTrue(report.getBricksDestroyed() > 0);
+        assertTrue(report.getLivesLost() > 0);
+
+        //The controller plays well enough to clear walls, so the long session covers what happens after that too
+        assertTrue(report.getWallsCleared() > 0);
+    }
+
+    @Test
+    public void levelPackSoak_movesThroughEveryLevel() throws IOException {
+        //Walls that fill the width of the screen, so every ball that goes up hits one
+        LevelPackWriter writer = new LevelPackWriter();
+        writer.addLevel("1111111111");
+        writer.addLevel("**********", "1111111111");
+        writer.addLevel("2222222222", "##......##");
+
+        SoakTester tester = new SoakTester();
+        tester.setSteps(300000);
+        tester.setWindowSteps(100000);
+        tester.setLevelPack(writer.toLevelPack());
+        SoakReport report = tester.run();
+
+        assertTrue(report.getViolation() + " / " + report.getDrift(), report.isPassed());
+        assertTrue(report.getWallsCleared() > 3);
+    }
+
+    @Test
+    public void shortFixedPointSoak_withManyBalls_keepsEveryRule() {
+        SoakTester tester = new SoakTester();
+        tester.setSteps(300000);
+        tester.setWindowSteps(100000);
+        tester.setFixedPoint(true);
+        tester.setMaxBalls(32);
+        tester.setSeed(7);
+        SoakReport report = tester.run();
+
+        assertTrue(report.getViolation() + " / " + report.getDrift(), report.isPassed());
+    }
+
+    @Test
+    public void checkWorld_findsEveryBrokenRule() {
+        World world = new World();
+        assertNull(SoakTester.checkWorld(world));
+
+        world.setLives(-1);
+        assertNotNull(SoakTester.checkWorld(world));
+        world.setLives(3);
+
+        BallPool balls = world.getBalls();
+        balls.setVelocity(0, Float.NaN, -400);
+        assertNotNull(SoakTester.checkWorld(world));
+
+        balls.setVelocity(0, 200, 0);
+        assertNotNull(SoakTester.checkWorld(world));
+
+        balls.setVelocity(0, 200, -400);
+        balls.moveTo(0, world.getScreenX() - 5, 1000);
+        assertNotNull(SoakTester.checkWorld(world));
+
+        balls.moveTo(0, 500, 1000);
+        assertNull(SoakTester.checkWorld(world));
+    }
+
+    @Test
+    public void nothingHappeningForTooLong_stopsTheSoak() {
+        //The first ball takes a few seconds to get up to the wall, longer than a 1 second limit
+        SoakTester tester = new SoakTester();
+        tester.setSteps(10000);
+        tester.setMaxQuietSeconds(1);
+        SoakReport report = tester.run();
+
+        assertFalse(report.isPassed());
+        assertNotNull(report.getViolation());
+        assertEquals(report.getViolationStep() + 1, report.getSteps());
+    }
+
+    @Test
+    public void allocationOrHeapGrowthAfterTheFirstWindow_isDrift() {
+        //The first window is the warm up, it can allocate as much as it likes
+        SoakReport report = new SoakReport(1000, 1 << 20);
+        report.addWindow(100, 500000, 10 << 20);
+        report.addWindow(100, 800, 10 << 20);
+        assertNull(report.getDrift());
+
+        report.addWindow(100, 5000, 10 << 20);
+        assertNotNull(report.getDrift());
+
+        SoakReport growing = new SoakReport(1000, 1 << 20);
+        growing.addWindow(100, 0, 10 << 20);
+        growing.addWindow(100, 0, 11 << 20);
+        assertNull(growing.getDrift());
+        growing.addWindow(100, 0, 12 << 20);
+        assertEquals(2 << 20, growing.getHeapGrowth());
+        assertNotNull(growing.getDrift());
+        assertFalse(growing.isPassed());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SweptAabbTest {
+    @Test
+    public void sweep_findsTimeOfImpactOnTheLeftFace() {
+        SweptAabb sweep = new SweptAabb();
+
+        //A 10 x 10 box moving 100 px right towards a box 40 px away
+        assertTrue(sweep.sweep(0, 0, 10, 10, 100, 0, 50, -5, 60, 15));
+
+        assertEquals(0.4f, sweep.getTime(), 1e-6f);
+        assertTrue(sweep.isXFace());
+    }
+
+    @Test
+    public void sweep_findsTheBottomFaceWhenMovingUp() {
+        SweptAabb sweep = new SweptAabb();
+
+        assertTrue(sweep.sweep(20, 100, 30, 110, 5, -200, 0, 0, 100, 50));
+
+        assertEquals(0.25f, sweep.getTime(), 1e-6f);
+        assertFalse(sweep.isXFace());
+    }
+
+    @Test
+    public void sweep_catchesABoxTheMoveJumpsOver() {
+        SweptAabb sweep = new SweptAabb();
+
+        //The end position (y = 190) is completely past the 5 px thick target
+        assertTrue(sweep.sweep(0, 0, 10, 10, 0, 190, -50, 100, 50, 105));
+
+        assertEquals(90f / 190f, sweep.getTime(), 1e-6f);
+    }
+
+    @Test
+    public void sweep_ignoresMissesAndMovingAway() {
+        SweptAabb sweep = new SweptAabb();
+
+        //Too short
+        assertFalse(sweep.sweep(0, 0, 10, 10, 30, 0, 50, 0, 60, 10));
+        //Passes above
+        assertFalse(sweep.sweep(0, 0, 10, 10, 100, 0, 50, 20, 60, 30));
+        //Touching, but moving away
+        assertFalse(sweep.sweep(0, 0, 10, 10, -5, 0, 10, 0, 20, 10));
+    }
+
+    @Test
+    public void sweep_reportsOverlapAtTimeZero() {
+        SweptAabb sweep = new SweptAabb();
+
+        assertTrue(sweep.sweep(0, 0, 10, 10, 0, 5, 5, 8, 50, 50));
+
+        assertEquals(0f, sweep.getTime(), 0f);
+    }
+}
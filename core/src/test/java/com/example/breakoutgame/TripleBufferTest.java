@@ -0,0 +1,61 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TripleBufferTest {
+    @Test
+    public void acquireLatest_returnsFalseUntilSomethingIsPublished() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(new int[1], new int[1], new int[1]);
+        assertFalse(buffer.acquireLatest());
+
+        buffer.getWriteBuffer()[0] = 7;
+        buffer.publish();
+        assertTrue(buffer.acquireLatest());
+        assertEquals(7, buffer.getReadBuffer()[0]);
+        assertFalse(buffer.acquireLatest());
+    }
+
+    @Test
+    public void reader_alwaysGetsTheNewestPublish() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(new int[1], new int[1], new int[1]);
+        for (int i = 1; i <= 5; i++) {
+            buffer.getWriteBuffer()[0] = i;
+            buffer.publish();
+        }
+        assertTrue(buffer.acquireLatest());
+        assertEquals(5, buffer.getReadBuffer()[0]);
+    }
+
+    @Test
+    public void writerAndReader_neverShareABuffer() throws InterruptedException {
+        //Every buffer holds the same number twice. If the reader ever saw a buffer
+        //while the writer was in the middle of filling it, the two numbers would differ.
+        final TripleBuffer<long[]> buffer = new TripleBuffer<>(new long[2], new long[2], new long[2]);
+        final int publishes = 1_000_000;
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (long i = 1; i <= publishes; i++) {
+                    long[] write = buffer.getWriteBuffer();
+                    write[0] = i;
+                    write[1] = i;
+                    buffer.publish();
+                }
+            }
+        });
+        writer.start();
+
+        long last = 0;
+        while (last < publishes) {
+            if (buffer.acquireLatest()) {
+                long[] read = buffer.getReadBuffer();
+                assertEquals(read[0], read[1]);
+                assertTrue(read[0] > last);
+                last = read[0];
+            }
+        }
+        writer.join();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ViewportTest {
+    @Test
+    public void screenOfTheSameShape_isFilled() {
+        Viewport viewport = new Viewport(World.WIDTH, World.HEIGHT);
+        viewport.resize(1440, 2560);
+
+        assertEquals(4 / 3f, viewport.getScale(), 1e-6f);
+        assertEquals(0, viewport.getOffsetX(), 0);
+        assertEquals(0, viewport.getOffsetY(), 0);
+        assertEquals(540, viewport.toWorldX(720), 1e-3f);
+        assertEquals(1920, viewport.toWorldY(2560), 1e-3f);
+    }
+
+    @Test
+    public void rotatedScreen_isCenteredBetweenTwoBars() {
+        Viewport viewport = new Viewport(World.WIDTH, World.HEIGHT);
+        viewport.resize(2560, 1440);
+
+        //The height runs out first: 1440 / 1920 pixels per unit, and the world is 810 pixels wide
+        assertEquals(0.75f, viewport.getScale(), 0);
+        assertEquals(875, viewport.getOffsetX(), 0);
+        assertEquals(0, viewport.getOffsetY(), 0);
+
+        //The edges of the world are at the edges of the bars
+        assertEquals(0, viewport.toWorldX(875), 0);
+        assertEquals(World.WIDTH, viewport.toWorldX(875 + 810), 0);
+
+        //A touch on a bar is off of the side of the world
+        assertTrue(viewport.toWorldX(100) < 0);
+    }
+
+    @Test
+    public void worldToViewAndBack_endsWhereItStarted() {
+        Viewport viewport = new Viewport(World.WIDTH, World.HEIGHT);
+        viewport.resize(1080, 2400);
+        assertEquals(240, viewport.getOffsetY(), 0);
+
+        for (float x = 0; x <= World.WIDTH; x += 135) {
+            assertEquals(x, viewport.toWorldX(viewport.toViewX(x)), 1e-3f);
+            assertEquals(x, viewport.toWorldY(viewport.toViewY(x)), 1e-3f);
+        }
+    }
+
+    @Test
+    public void sameSpotOnDifferentScreens_isTheSameWorldPosition() {
+        Viewport phone = new Viewport(World.WIDTH, World.HEIGHT);
+        Viewport tablet = new Viewport(World.WIDTH, World.HEIGHT);
+        phone.resize(720, 1280);
+        tablet.resize(1600, 2560);
+
+        //A quarter of the way across the world on both
+        assertEquals(270, phone.toWorldX(180), 1e-3f);
+        assertEquals(270, tablet.toWorldX(tablet.toViewX(270)), 1e-3f);
+        assertEquals(phone.toWorldY(640), tablet.toWorldY(tablet.toViewY(960)), 1e-3f);
+    }
+
+    @Test
+    public void resizing_onlyChangesTheNumbers() {
+        Viewport viewport = new Viewport(World.WIDTH, World.HEIGHT);
+        assertFalse(viewport.isSize(1080, 1920));
+
+        viewport.resize(1080, 1920);
+        assertTrue(viewport.isSize(1080, 1920));
+        assertEquals(1, viewport.getScale(), 0);
+
+        //Rotate and rotate back
+        viewport.resize(1920, 1080);
+        viewport.resize(1080, 1920);
+        assertEquals(1, viewport.getScale(), 0);
+        assertEquals(0, viewport.getOffsetX(), 0);
+
+        //A view that isn't laid out yet keeps the world at its own size
+        viewport.resize(0, 0);
+        assertEquals(1, viewport.getScale(), 0);
+        assertEquals(500, viewport.toWorldX(500), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyWorld_isRejected() {
+        new Viewport(0, World.HEIGHT);
+    }
+
+    @Test
+    public void defaultWorld_isTheNormalSize() {
+        World world = new World();
+        assertEquals(World.WIDTH, world.getScreenX());
+        assertEquals(World.HEIGHT, world.getScreenY());
+    }
+}
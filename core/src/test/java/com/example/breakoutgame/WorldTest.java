@@ -0,0 +1,206 @@
+package com.example.breakoutgame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the headless world on the JVM, without Android or an emulator.
+ */
+public class WorldTest {
+    private static final float STEP = 1f / 120;
+
+    @Test
+    public void restart_buildsFullWall() {
+        World world = new World(1080, 1920);
+
+        assertEquals(30, world.getBricks().size());
+        assertEquals(30, world.getBrickCount());
+        assertEquals(3, world.getLives());
+        assertTrue(world.isPaused());
+    }
+
+    @Test
+    public void step_doesNothingWhilePaused() {
+        World world = new World(1080, 1920);
+        float left = world.getBalls().getLeft(0);
+        float top = world.getBalls().getTop(0);
+
+        world.step(STEP);
+
+        assertEquals(left, world.getBalls().getLeft(0), 0f);
+        assertEquals(top, world.getBalls().getTop(0), 0f);
+    }
+
+    @Test
+    public void step_movesBallByVelocityTimesDt() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+        BallPool balls = world.getBalls();
+        float left = balls.getLeft(0);
+        float top = balls.getTop(0);
+
+        world.step(STEP);
+
+        assertEquals(left + balls.getXVelocity(0) * STEP, balls.getLeft(0), 1e-3f);
+        assertEquals(top + balls.getYVelocity(0) * STEP, balls.getTop(0), 1e-3f);
+    }
+
+    @Test
+    public void fastBall_doesNotTunnelThroughTheWall() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+        BallPool balls = world.getBalls();
+
+        //Fast enough to cross the whole screen in one 1/30th of a second step
+        balls.setVelocity(0, 0, -60000);
+        world.step(1f / 30);
+
+        assertEquals(29, world.getBrickCount());
+        assertTrue(balls.getYVelocity(0) > 0);
+        //The ball stopped at the bottom of the wall instead of passing through it
+        assertTrue(balls.getTop(0) >= world.getBricks().getBottom(25));
+    }
+
+    @Test
+    public void ballHittingTheSideOfABrick_bouncesSideways() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+        BallPool balls = world.getBalls();
+        BrickStore bricks = world.getBricks();
+
+        //Put the ball just left of brick 15 (row 1, column 5), moving right
+        float brickTop = bricks.getTop(15);
+        balls.moveTo(0, bricks.getLeft(15) - 20, brickTop + 50);
+        bricks.remove(14);
+        balls.setVelocity(0, 2400, 0);
+        world.step(STEP);
+
+        assertFalse(bricks.isLive(15));
+        assertTrue(balls.getXVelocity(0) < 0);
+        assertEquals(0f, balls.getYVelocity(0), 0f);
+    }
+
+    @Test
+    public void millionsOfSteps_keepTheWorldConsistent() {
+        World world = new World(1080, 1920);
+
+        for (int i = 0; i < 2000000; i++) {
+            //Keep the game going after a game over or a cleared wall
+            world.setPaused(false);
+            world.step(STEP);
+
+            BallPool balls = world.getBalls();
+            assertFalse(Float.isNaN(balls.getLeft(0)) || Float.isNaN(balls.getTop(0)));
+            assertTrue(world.getLives() > 0 && world.getLives() <= 3);
+            assertTrue(world.getBrickCount() >= 0 && world.getBrickCount() <= world.getBricks().size());
+        }
+    }
+
+    @Test
+    public void lostBall_isRemovedWithoutLosingALifeWhileOthersAreInPlay() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+        BallPool balls = world.getBalls();
+        assertTrue(world.addBall(20, 1890, 0, 6000));
+
+        world.step(STEP);
+
+        assertEquals(1, balls.getActiveCount());
+        assertEquals(3, world.getLives());
+    }
+
+    @Test
+    public void addBall_isRefusedWhenThePoolIsFull() {
+        World world = new World(1080, 1920, 2);
+
+        assertTrue(world.addBall(100, 100, 0, 0));
+        assertFalse(world.addBall(100, 100, 0, 0));
+    }
+
+    @Test
+    public void hundredsOfBalls_stepWellInsideA120HzFrame() {
+        World world = new World(1080, 1920);
+        FastRandom random = new FastRandom(8);
+        for (int i = 0; i < 499; i++) {
+            world.addBall(random.nextFloat() * 1000, 700 + random.nextFloat() * 1000,
+                    random.nextFloat() * 800 - 400, -200 - random.nextFloat() * 400);
+        }
+        world.setPaused(false);
+
+        //10 simulated seconds at 120 Hz
+        long start = System.nanoTime();
+        for (int i = 0; i < 1200; i++) {
+            world.step(STEP);
+        }
+        long nanosPerStep = (System.nanoTime() - start) / 1200;
+
+        //A 120 Hz step has 8.3ms, the simulation should only use a small part of it
+        assertTrue("ns per step: " + nanosPerStep, nanosPerStep < 2000000);
+    }
+
+    @Test
+    public void ballFarBelowTheWall_skipsTheBricks() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+        world.resetBroadPhaseCounters();
+
+        //The ball starts just above the paddle, nowhere near the wall, and goes up slowly
+        for (int i = 0; i < 10; i++) {
+            world.step(STEP);
+        }
+
+        assertEquals(0, world.getBroadPhaseHits());
+        assertEquals(10, world.getBroadPhaseMisses());
+    }
+
+    @Test
+    public void ballReachingTheWall_checksTheBricks() {
+        World world = new World(1080, 1920);
+        world.setPaused(false);
+        world.getBalls().moveTo(0, 500, 600);
+        world.getBalls().setVelocity(0, 0, -6000);
+        world.resetBroadPhaseCounters();
+
+        world.step(STEP);
+
+        assertTrue(world.getBroadPhaseHits() > 0);
+        assertEquals(29, world.getBrickCount());
+    }
+
+    @Test
+    public void drag_centersThePaddleUnderTheFinger_onTheNextStep() {
+        World world = new World(1080, 1920);
+        world.handleInput(World.INPUT_PRESS, 0);
+        Paddle paddle = world.getPaddle();
+        float length = paddle.getLength();
+
+        world.handleInput(World.INPUT_DRAG, 300);
+        assertEquals(540, paddle.getLeft(), 0);
+        world.step(1f / 120);
+        assertEquals(300 - length / 2, paddle.getLeft(), 0);
+
+        //The paddle stays on the screen, however far the finger goes
+        world.handleInput(World.INPUT_DRAG, 1070);
+        world.step(1f / 120);
+        assertEquals(1080 - length, paddle.getLeft(), 0);
+        world.handleInput(World.INPUT_DRAG, 5);
+        world.step(1f / 120);
+        assertEquals(0, paddle.getLeft(), 0);
+
+        //Letting go stops it where it is
+        world.handleInput(World.INPUT_RELEASE, 0);
+        world.step(1f / 120);
+        assertEquals(0, paddle.getLeft(), 0);
+    }
+
+    @Test
+    public void dragTarget_isPartOfTheStateHash() {
+        World first = new World(1080, 1920);
+        World second = new World(1080, 1920);
+        first.handleInput(World.INPUT_DRAG, 300);
+        second.handleInput(World.INPUT_DRAG, 301);
+
+        assertNotEquals(first.getStateHash(), second.getStateHash());
+    }
+}